@@ -0,0 +1,81 @@
+package com.baulu.announcement.config;
+
+import com.baulu.announcement.domain.Announcement;
+import com.baulu.announcement.domain.enumeration.AnnouncementType;
+import com.baulu.announcement.domain.enumeration.Language;
+import com.hazelcast.nio.serialization.compact.CompactReader;
+import com.hazelcast.nio.serialization.compact.CompactSerializer;
+import com.hazelcast.nio.serialization.compact.CompactWriter;
+import java.time.Instant;
+
+/**
+ * Hazelcast Compact serializer of {@link Announcement}, used instead of Java serialization when an announcement is stored
+ * in a map or sent across the cluster.
+ * <p>
+ * The enums are written as their ordinal and the instants as epoch seconds plus nanoseconds, so adding a constant to an
+ * enum is only safe at the end of it.
+ */
+public class AnnouncementCompactSerializer implements CompactSerializer<Announcement> {
+
+    private static final Language[] LANGUAGES = Language.values();
+
+    private static final AnnouncementType[] ANNOUNCEMENT_TYPES = AnnouncementType.values();
+
+    @Override
+    public String getTypeName() {
+        return "announcement";
+    }
+
+    @Override
+    public Class<Announcement> getCompactClass() {
+        return Announcement.class;
+    }
+
+    @Override
+    public void write(CompactWriter writer, Announcement announcement) {
+        writer.writeNullableInt64("id", announcement.getId());
+        writer.writeNullableInt8("language", ordinal(announcement.getLanguage()));
+        writeInstant(writer, "startDate", announcement.getStartDate());
+        writeInstant(writer, "endDate", announcement.getEndDate());
+        writer.writeNullableInt8("announcementType", ordinal(announcement.getAnnouncementType()));
+        writer.writeString("announcementData", announcement.getAnnouncementData());
+        writer.writeNullableInt64("version", announcement.getVersion());
+        writer.writeString("createdBy", announcement.getCreatedBy());
+        writeInstant(writer, "createdDate", announcement.getCreatedDate());
+        writer.writeString("lastModifiedBy", announcement.getLastModifiedBy());
+        writeInstant(writer, "lastModifiedDate", announcement.getLastModifiedDate());
+    }
+
+    @Override
+    public Announcement read(CompactReader reader) {
+        Byte language = reader.readNullableInt8("language");
+        Byte announcementType = reader.readNullableInt8("announcementType");
+        Announcement announcement = new Announcement()
+            .id(reader.readNullableInt64("id"))
+            .language(language == null ? null : LANGUAGES[language])
+            .startDate(readInstant(reader, "startDate"))
+            .endDate(readInstant(reader, "endDate"))
+            .announcementType(announcementType == null ? null : ANNOUNCEMENT_TYPES[announcementType])
+            .announcementData(reader.readString("announcementData"))
+            .version(reader.readNullableInt64("version"));
+        announcement.setCreatedBy(reader.readString("createdBy"));
+        announcement.setCreatedDate(readInstant(reader, "createdDate"));
+        announcement.setLastModifiedBy(reader.readString("lastModifiedBy"));
+        announcement.setLastModifiedDate(readInstant(reader, "lastModifiedDate"));
+        return announcement;
+    }
+
+    private static Byte ordinal(Enum<?> value) {
+        return value == null ? null : (byte) value.ordinal();
+    }
+
+    private static void writeInstant(CompactWriter writer, String name, Instant instant) {
+        writer.writeNullableInt64(name + "Seconds", instant == null ? null : instant.getEpochSecond());
+        writer.writeInt32(name + "Nanos", instant == null ? 0 : instant.getNano());
+    }
+
+    private static Instant readInstant(CompactReader reader, String name) {
+        Long seconds = reader.readNullableInt64(name + "Seconds");
+        return seconds == null ? null : Instant.ofEpochSecond(seconds, reader.readInt32(name + "Nanos"));
+    }
+}
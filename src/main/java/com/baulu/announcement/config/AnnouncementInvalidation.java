@@ -0,0 +1,34 @@
+package com.baulu.announcement.config;
+
+import com.baulu.announcement.domain.enumeration.Language;
+import java.io.Serializable;
+
+/**
+ * Invalidation sent on the {@link AnnouncementInvalidationBus}: an announcement written by another node.
+ */
+public class AnnouncementInvalidation implements Serializable {
+
+    private static final long serialVersionUID = 1L;
+
+    private final Long id;
+
+    private final Language language;
+
+    public AnnouncementInvalidation(Long id, Language language) {
+        this.id = id;
+        this.language = language;
+    }
+
+    public Long getId() {
+        return id;
+    }
+
+    public Language getLanguage() {
+        return language;
+    }
+
+    @Override
+    public String toString() {
+        return "AnnouncementInvalidation{" + "id=" + id + ", language=" + language + '}';
+    }
+}
@@ -0,0 +1,177 @@
+package com.baulu.announcement.config;
+
+import com.baulu.announcement.service.event.AnnouncementChangedEvent;
+import com.baulu.announcement.service.event.AnnouncementInvalidatedEvent;
+import com.hazelcast.core.HazelcastInstance;
+import com.hazelcast.topic.ITopic;
+import com.hazelcast.topic.Message;
+import com.hazelcast.topic.ReliableMessageListener;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import java.io.Serializable;
+import java.time.Duration;
+import java.util.UUID;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+/**
+ * The single channel of invalidations between the nodes of the cluster, on a Hazelcast reliable topic.
+ * <p>
+ * It broadcasts the committed announcement writes, which are published again on the other nodes as
+ * {@link AnnouncementInvalidatedEvent}s for the local caches to evict or reload what they hold. It also carries the
+ * {@link CacheInvalidation}s of the {@link TwoTierCache}s, published again as they are for the {@link TwoTierCacheManager}.
+ * <p>
+ * The delay between the publication and the delivery is recorded as {@code announcement.invalidation.lag}. It is measured
+ * with the wall clocks of both nodes, so it is only as accurate as their synchronization.
+ */
+@Component
+public class AnnouncementInvalidationBus {
+
+    public static final String TOPIC = "announcement-invalidation";
+
+    private final Logger log = LoggerFactory.getLogger(AnnouncementInvalidationBus.class);
+
+    /**
+     * Identifies this bus rather than the Hazelcast member, several application contexts may share a member.
+     */
+    private final UUID origin = UUID.randomUUID();
+
+    private final ApplicationEventPublisher eventPublisher;
+
+    private final ApplicationProperties.InvalidationBus properties;
+
+    private final ITopic<Broadcast> topic;
+
+    private final Counter published;
+
+    private final Counter received;
+
+    private final Timer lag;
+
+    public AnnouncementInvalidationBus(
+        HazelcastInstance hazelcastInstance,
+        ApplicationEventPublisher eventPublisher,
+        ApplicationProperties applicationProperties,
+        MeterRegistry meterRegistry
+    ) {
+        this.eventPublisher = eventPublisher;
+        this.properties = applicationProperties.getInvalidationBus();
+        this.topic = hazelcastInstance.getReliableTopic(TOPIC);
+        this.published = counter(meterRegistry, "published");
+        this.received = counter(meterRegistry, "received");
+        this.lag = Timer
+            .builder("announcement.invalidation.lag")
+            .description("Delay between the publication of an invalidation and its delivery to another node")
+            .register(meterRegistry);
+        if (properties.isEnabled()) {
+            topic.addMessageListener(new Listener());
+        }
+    }
+
+    private static Counter counter(MeterRegistry meterRegistry, String direction) {
+        return Counter
+            .builder("announcement.invalidation")
+            .description("Invalidations published to, or received from, the other nodes")
+            .tag("direction", direction)
+            .register(meterRegistry);
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onAnnouncementChanged(AnnouncementChangedEvent event) {
+        broadcast(new AnnouncementInvalidation(event.getId(), event.getLanguage()));
+    }
+
+    /**
+     * @param invalidation the invalidation of a local copy held by a {@link TwoTierCache}, for the other nodes to apply.
+     */
+    public void publish(CacheInvalidation invalidation) {
+        broadcast(invalidation);
+    }
+
+    private void broadcast(Serializable invalidation) {
+        if (!properties.isEnabled()) {
+            return;
+        }
+        try {
+            topic.publish(new Broadcast(origin, System.currentTimeMillis(), invalidation));
+            published.increment();
+        } catch (RuntimeException e) {
+            // The change is done already, the other nodes catch up on their next reconcile or when their copies expire.
+            log.warn("Could not publish {}: {}", invalidation, e.getMessage());
+        }
+    }
+
+    private void onMessage(Message<Broadcast> message) {
+        Broadcast broadcast = message.getMessageObject();
+        if (origin.equals(broadcast.origin)) {
+            return;
+        }
+        received.increment();
+        lag.record(Duration.ofMillis(Math.max(0, System.currentTimeMillis() - broadcast.publishedAt)));
+        Object invalidation = broadcast.invalidation;
+        log.debug("Received {}", invalidation);
+        try {
+            if (invalidation instanceof AnnouncementInvalidation announcement) {
+                eventPublisher.publishEvent(new AnnouncementInvalidatedEvent(announcement.getId(), announcement.getLanguage()));
+            } else {
+                eventPublisher.publishEvent(invalidation);
+            }
+        } catch (RuntimeException e) {
+            log.warn("Could not apply {}: {}", invalidation, e.getMessage());
+        }
+    }
+
+    /**
+     * Listens from the tail of the topic and survives missed messages: a node that fell too far behind catches up on its
+     * next reconcile.
+     */
+    private class Listener implements ReliableMessageListener<Broadcast> {
+
+        @Override
+        public void onMessage(Message<Broadcast> message) {
+            AnnouncementInvalidationBus.this.onMessage(message);
+        }
+
+        @Override
+        public long retrieveInitialSequence() {
+            return -1;
+        }
+
+        @Override
+        public void storeSequence(long sequence) {}
+
+        @Override
+        public boolean isLossTolerant() {
+            return true;
+        }
+
+        @Override
+        public boolean isTerminal(Throwable failure) {
+            return false;
+        }
+    }
+
+    /**
+     * An invalidation as sent on the topic, with the node that published it and when, by its wall clock.
+     */
+    private static final class Broadcast implements Serializable {
+
+        private static final long serialVersionUID = 1L;
+
+        private final UUID origin;
+
+        private final long publishedAt;
+
+        private final Serializable invalidation;
+
+        private Broadcast(UUID origin, long publishedAt, Serializable invalidation) {
+            this.origin = origin;
+            this.publishedAt = publishedAt;
+            this.invalidation = invalidation;
+        }
+    }
+}
@@ -1,5 +1,13 @@
 package com.baulu.announcement.config;
 
+import com.hazelcast.config.EvictionPolicy;
+import com.hazelcast.config.InMemoryFormat;
+import com.hazelcast.config.MaxSizePolicy;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
 import org.springframework.boot.context.properties.ConfigurationProperties;
 
 /**
@@ -13,12 +21,90 @@ public class ApplicationProperties {
 
     private final Liquibase liquibase = new Liquibase();
 
+    private final ActiveIndex activeIndex = new ActiveIndex();
+
+    private final ActiveQuery activeQuery = new ActiveQuery();
+
+    private final ActiveStream activeStream = new ActiveStream();
+
+    private final Coalescing coalescing = new Coalescing();
+
+    private final Schedule schedule = new Schedule();
+
+    private final ActiveResponse activeResponse = new ActiveResponse();
+
+    private final NearCache nearCache = new NearCache();
+
+    private final LocalCache localCache = new LocalCache();
+
+    private final WarmUp warmUp = new WarmUp();
+
+    private final List<HazelcastMap> hazelcastMaps = new ArrayList<>();
+
+    private final InvalidationBus invalidationBus = new InvalidationBus();
+
+    private final CountCache countCache = new CountCache();
+
+    private final ResultCache resultCache = new ResultCache();
+
     // jhipster-needle-application-properties-property
 
     public Liquibase getLiquibase() {
         return liquibase;
     }
 
+    public ActiveIndex getActiveIndex() {
+        return activeIndex;
+    }
+
+    public ActiveQuery getActiveQuery() {
+        return activeQuery;
+    }
+
+    public ActiveStream getActiveStream() {
+        return activeStream;
+    }
+
+    public Coalescing getCoalescing() {
+        return coalescing;
+    }
+
+    public Schedule getSchedule() {
+        return schedule;
+    }
+
+    public ActiveResponse getActiveResponse() {
+        return activeResponse;
+    }
+
+    public NearCache getNearCache() {
+        return nearCache;
+    }
+
+    public LocalCache getLocalCache() {
+        return localCache;
+    }
+
+    public WarmUp getWarmUp() {
+        return warmUp;
+    }
+
+    public List<HazelcastMap> getHazelcastMaps() {
+        return hazelcastMaps;
+    }
+
+    public InvalidationBus getInvalidationBus() {
+        return invalidationBus;
+    }
+
+    public CountCache getCountCache() {
+        return countCache;
+    }
+
+    public ResultCache getResultCache() {
+        return resultCache;
+    }
+
     // jhipster-needle-application-properties-property-getter
 
     public static class Liquibase {
@@ -33,5 +119,769 @@ public class ApplicationProperties {
             this.asyncStart = asyncStart;
         }
     }
+
+    /**
+     * In-memory index answering the active announcement lookups.
+     */
+    public static class ActiveIndex {
+
+        private boolean enabled = true;
+
+        /**
+         * How far in the past the index still covers. Older instants are answered by the database.
+         */
+        private Duration lookback = Duration.ofDays(1);
+
+        /**
+         * Delay between two full reloads of the index from the database.
+         */
+        private Duration reconcileInterval = Duration.ofMinutes(5);
+
+        public boolean isEnabled() {
+            return enabled;
+        }
+
+        public void setEnabled(boolean enabled) {
+            this.enabled = enabled;
+        }
+
+        public Duration getLookback() {
+            return lookback;
+        }
+
+        public void setLookback(Duration lookback) {
+            this.lookback = lookback;
+        }
+
+        public Duration getReconcileInterval() {
+            return reconcileInterval;
+        }
+
+        public void setReconcileInterval(Duration reconcileInterval) {
+            this.reconcileInterval = reconcileInterval;
+        }
+    }
+
+    /**
+     * Database query answering the active announcement lookups the index does not cover.
+     */
+    public static class ActiveQuery {
+
+        public enum Mode {
+            /**
+             * Select the full rows, {@code announcement_data} included.
+             */
+            ENTITY,
+            /**
+             * Select the ids only, resolve them from the second-level cache and fetch the misses in batches.
+             */
+            ID_FIRST,
+        }
+
+        private Mode mode = Mode.ID_FIRST;
+
+        /**
+         * Maximum number of ids fetched by a single {@code IN} query on a second-level cache miss.
+         */
+        private int batchSize = 32;
+
+        public Mode getMode() {
+            return mode;
+        }
+
+        public void setMode(Mode mode) {
+            this.mode = mode;
+        }
+
+        public int getBatchSize() {
+            return batchSize;
+        }
+
+        public void setBatchSize(int batchSize) {
+            this.batchSize = batchSize;
+        }
+    }
+
+    /**
+     * Server-Sent Events stream of the active announcement changes.
+     */
+    public static class ActiveStream {
+
+        /**
+         * Delay between two heartbeat comments, keeping idle connections open through proxies.
+         */
+        private Duration heartbeatInterval = Duration.ofSeconds(15);
+
+        /**
+         * Lifetime of a subscription; the client then reconnects and resumes from its {@code Last-Event-ID}.
+         */
+        private Duration timeout = Duration.ofMinutes(30);
+
+        /**
+         * Number of past segments kept per language to resume from.
+         */
+        private int historySize = 64;
+
+        /**
+         * Number of events queued per subscriber; a subscriber falling further behind is completed and has to resume.
+         */
+        private int sendQueueSize = 16;
+
+        /**
+         * Number of threads writing the queued events to the subscribers.
+         */
+        private int senderThreads = 4;
+
+        /**
+         * Longest time a single event may take to be written to a subscriber; a subscriber whose write outlasts it is
+         * completed, and a sender thread is added until the write returns, so that stalled clients do not hold the others.
+         */
+        private Duration sendTimeout = Duration.ofSeconds(10);
+
+        public Duration getHeartbeatInterval() {
+            return heartbeatInterval;
+        }
+
+        public void setHeartbeatInterval(Duration heartbeatInterval) {
+            this.heartbeatInterval = heartbeatInterval;
+        }
+
+        public Duration getTimeout() {
+            return timeout;
+        }
+
+        public void setTimeout(Duration timeout) {
+            this.timeout = timeout;
+        }
+
+        public int getHistorySize() {
+            return historySize;
+        }
+
+        public void setHistorySize(int historySize) {
+            this.historySize = historySize;
+        }
+
+        public int getSendQueueSize() {
+            return sendQueueSize;
+        }
+
+        public void setSendQueueSize(int sendQueueSize) {
+            this.sendQueueSize = sendQueueSize;
+        }
+
+        public int getSenderThreads() {
+            return senderThreads;
+        }
+
+        public void setSenderThreads(int senderThreads) {
+            this.senderThreads = senderThreads;
+        }
+
+        public Duration getSendTimeout() {
+            return sendTimeout;
+        }
+
+        public void setSendTimeout(Duration sendTimeout) {
+            this.sendTimeout = sendTimeout;
+        }
+    }
+
+    /**
+     * Sharing of one database lookup between identical concurrent reads.
+     */
+    public static class Coalescing {
+
+        private boolean enabled = true;
+
+        /**
+         * How long a read waits for the identical lookup in flight before running its own.
+         */
+        private Duration maxWait = Duration.ofSeconds(2);
+
+        public boolean isEnabled() {
+            return enabled;
+        }
+
+        public void setEnabled(boolean enabled) {
+            this.enabled = enabled;
+        }
+
+        public Duration getMaxWait() {
+            return maxWait;
+        }
+
+        public void setMaxWait(Duration maxWait) {
+            this.maxWait = maxWait;
+        }
+    }
+
+    /**
+     * Preview of the active announcements over a series of instants.
+     */
+    public static class Schedule {
+
+        /**
+         * Maximum number of instants evaluated by a single preview.
+         */
+        private int maxInstants = 1000;
+
+        public int getMaxInstants() {
+            return maxInstants;
+        }
+
+        public void setMaxInstants(int maxInstants) {
+            this.maxInstants = maxInstants;
+        }
+    }
+
+    /**
+     * Lookahead and refresh hints of the active announcements responses.
+     */
+    public static class ActiveResponse {
+
+        /**
+         * Longest lookahead a client can ask for.
+         */
+        private Duration maxLookahead = Duration.ofHours(1);
+
+        /**
+         * Longest delay suggested to a client before its next refresh.
+         */
+        private Duration maxRefreshInterval = Duration.ofMinutes(15);
+
+        /**
+         * Upper bound of the random delay each client adds to the refresh hint, so that clients do not all refresh at once.
+         */
+        private Duration refreshJitter = Duration.ofSeconds(30);
+
+        /**
+         * Longest time a response may be kept by HTTP caches, as writes cannot be pushed to them.
+         */
+        private Duration maxAge = Duration.ofMinutes(1);
+
+        /**
+         * Longest time HTTP caches may serve a response after it expired while revalidating it, never past the next
+         * activation boundary.
+         */
+        private Duration staleWhileRevalidate = Duration.ofSeconds(30);
+
+        public Duration getMaxLookahead() {
+            return maxLookahead;
+        }
+
+        public void setMaxLookahead(Duration maxLookahead) {
+            this.maxLookahead = maxLookahead;
+        }
+
+        public Duration getMaxRefreshInterval() {
+            return maxRefreshInterval;
+        }
+
+        public void setMaxRefreshInterval(Duration maxRefreshInterval) {
+            this.maxRefreshInterval = maxRefreshInterval;
+        }
+
+        public Duration getRefreshJitter() {
+            return refreshJitter;
+        }
+
+        public void setRefreshJitter(Duration refreshJitter) {
+            this.refreshJitter = refreshJitter;
+        }
+
+        public Duration getMaxAge() {
+            return maxAge;
+        }
+
+        public void setMaxAge(Duration maxAge) {
+            this.maxAge = maxAge;
+        }
+
+        public Duration getStaleWhileRevalidate() {
+            return staleWhileRevalidate;
+        }
+
+        public void setStaleWhileRevalidate(Duration staleWhileRevalidate) {
+            this.staleWhileRevalidate = staleWhileRevalidate;
+        }
+    }
+
+    /**
+     * Hazelcast near cache of the entity second-level cache regions, keeping the entries read by a node on that node.
+     */
+    public static class NearCache {
+
+        private boolean enabled = true;
+
+        /**
+         * Maximum number of entries kept per region on each node, the least recently used are evicted first.
+         */
+        private int maxSize = 10000;
+
+        /**
+         * Maximum time an entry is kept, {@code 0} for no limit. Updates are invalidated cluster-wide anyway.
+         */
+        private Duration timeToLive = Duration.ZERO;
+
+        /**
+         * Maximum time an entry is kept without being read, {@code 0} for no limit.
+         */
+        private Duration maxIdle = Duration.ofHours(1);
+
+        /**
+         * Keep the deserialized objects rather than their binary form, trading heap for the deserialization on each hit.
+         */
+        private boolean objectFormat = true;
+
+        private final Preloader preloader = new Preloader();
+
+        public boolean isEnabled() {
+            return enabled;
+        }
+
+        public void setEnabled(boolean enabled) {
+            this.enabled = enabled;
+        }
+
+        public int getMaxSize() {
+            return maxSize;
+        }
+
+        public void setMaxSize(int maxSize) {
+            this.maxSize = maxSize;
+        }
+
+        public Duration getTimeToLive() {
+            return timeToLive;
+        }
+
+        public void setTimeToLive(Duration timeToLive) {
+            this.timeToLive = timeToLive;
+        }
+
+        public Duration getMaxIdle() {
+            return maxIdle;
+        }
+
+        public void setMaxIdle(Duration maxIdle) {
+            this.maxIdle = maxIdle;
+        }
+
+        public boolean isObjectFormat() {
+            return objectFormat;
+        }
+
+        public void setObjectFormat(boolean objectFormat) {
+            this.objectFormat = objectFormat;
+        }
+
+        public Preloader getPreloader() {
+            return preloader;
+        }
+
+        /**
+         * Stores the keys of the near cache on disk and reloads them on restart. Hazelcast only honours it on clients,
+         * members ignore it.
+         */
+        public static class Preloader {
+
+            private boolean enabled = false;
+
+            private String directory = "";
+
+            private Duration storeInitialDelay = Duration.ofMinutes(10);
+
+            private Duration storeInterval = Duration.ofMinutes(10);
+
+            public boolean isEnabled() {
+                return enabled;
+            }
+
+            public void setEnabled(boolean enabled) {
+                this.enabled = enabled;
+            }
+
+            public String getDirectory() {
+                return directory;
+            }
+
+            public void setDirectory(String directory) {
+                this.directory = directory;
+            }
+
+            public Duration getStoreInitialDelay() {
+                return storeInitialDelay;
+            }
+
+            public void setStoreInitialDelay(Duration storeInitialDelay) {
+                this.storeInitialDelay = storeInitialDelay;
+            }
+
+            public Duration getStoreInterval() {
+                return storeInterval;
+            }
+
+            public void setStoreInterval(Duration storeInterval) {
+                this.storeInterval = storeInterval;
+            }
+        }
+    }
+
+    /**
+     * On-heap Caffeine tier kept by each node in front of the Hazelcast caches of the Spring {@code CacheManager}.
+     */
+    public static class LocalCache {
+
+        private boolean enabled = true;
+
+        /**
+         * Settings of the caches not listed in {@code caches}.
+         */
+        private final Tier defaults = new Tier();
+
+        /**
+         * Settings per cache name.
+         */
+        private final Map<String, Tier> caches = new HashMap<>();
+
+        public boolean isEnabled() {
+            return enabled;
+        }
+
+        public void setEnabled(boolean enabled) {
+            this.enabled = enabled;
+        }
+
+        public Tier getDefaults() {
+            return defaults;
+        }
+
+        public Map<String, Tier> getCaches() {
+            return caches;
+        }
+
+        /**
+         * @param name the name of a cache.
+         * @return the settings of that cache.
+         */
+        public Tier forCache(String name) {
+            return caches.getOrDefault(name, defaults);
+        }
+
+        public static class Tier {
+
+            /**
+             * Time an entry is kept after being written. Keep it below the TTL of the Hazelcast map.
+             */
+            private Duration timeToLive = Duration.ofMinutes(5);
+
+            private long maxSize = 1000;
+
+            /**
+             * Age after which an entry is stale and reloaded in the background while still being served. Reloads start
+             * randomly before that, earlier for entries that are slow to load. Not set means entries are never refreshed.
+             */
+            private Duration refreshAfter;
+
+            /**
+             * How long after {@code refreshAfter} a stale entry may still be served while it is being reloaded.
+             */
+            private Duration maxStale = Duration.ofMinutes(1);
+
+            /**
+             * Scales how early reloads start, above 1 favours earlier reloads.
+             */
+            private double beta = 1.0;
+
+            public Duration getTimeToLive() {
+                return timeToLive;
+            }
+
+            public void setTimeToLive(Duration timeToLive) {
+                this.timeToLive = timeToLive;
+            }
+
+            public long getMaxSize() {
+                return maxSize;
+            }
+
+            public void setMaxSize(long maxSize) {
+                this.maxSize = maxSize;
+            }
+
+            public Duration getRefreshAfter() {
+                return refreshAfter;
+            }
+
+            public void setRefreshAfter(Duration refreshAfter) {
+                this.refreshAfter = refreshAfter;
+            }
+
+            public Duration getMaxStale() {
+                return maxStale;
+            }
+
+            public void setMaxStale(Duration maxStale) {
+                this.maxStale = maxStale;
+            }
+
+            public double getBeta() {
+                return beta;
+            }
+
+            public void setBeta(double beta) {
+                this.beta = beta;
+            }
+        }
+    }
+
+    /**
+     * Preloading of the announcements once the application is started, before it reports itself ready.
+     */
+    public static class WarmUp {
+
+        private boolean enabled = true;
+
+        /**
+         * How far ahead upcoming announcements are preloaded.
+         */
+        private Duration lookahead = Duration.ofHours(1);
+
+        /**
+         * Time after which the application reports itself ready even if the warm-up is not done.
+         */
+        private Duration timeout = Duration.ofMinutes(1);
+
+        public boolean isEnabled() {
+            return enabled;
+        }
+
+        public void setEnabled(boolean enabled) {
+            this.enabled = enabled;
+        }
+
+        public Duration getLookahead() {
+            return lookahead;
+        }
+
+        public void setLookahead(Duration lookahead) {
+            this.lookahead = lookahead;
+        }
+
+        public Duration getTimeout() {
+            return timeout;
+        }
+
+        public void setTimeout(Duration timeout) {
+            this.timeout = timeout;
+        }
+    }
+
+    /**
+     * Policy of the Hazelcast maps whose name matches {@code name}, a Hazelcast wildcard pattern. The settings left unset
+     * keep the values of the map configuration already declared under that name by {@link CacheConfiguration}, or of the
+     * {@code default} one.
+     */
+    public static class HazelcastMap {
+
+        private String name;
+
+        private EvictionPolicy evictionPolicy;
+
+        private MaxSizePolicy maxSizePolicy;
+
+        /**
+         * Entries, or megabytes for the memory based policies. 0 means no limit.
+         */
+        private Integer maxSize;
+
+        private InMemoryFormat inMemoryFormat;
+
+        private Integer backupCount;
+
+        private Integer asyncBackupCount;
+
+        /**
+         * Serve reads from the backup held by the local member instead of asking the owner.
+         */
+        private Boolean readBackupData;
+
+        private Duration timeToLive;
+
+        public String getName() {
+            return name;
+        }
+
+        public void setName(String name) {
+            this.name = name;
+        }
+
+        public EvictionPolicy getEvictionPolicy() {
+            return evictionPolicy;
+        }
+
+        public void setEvictionPolicy(EvictionPolicy evictionPolicy) {
+            this.evictionPolicy = evictionPolicy;
+        }
+
+        public MaxSizePolicy getMaxSizePolicy() {
+            return maxSizePolicy;
+        }
+
+        public void setMaxSizePolicy(MaxSizePolicy maxSizePolicy) {
+            this.maxSizePolicy = maxSizePolicy;
+        }
+
+        public Integer getMaxSize() {
+            return maxSize;
+        }
+
+        public void setMaxSize(Integer maxSize) {
+            this.maxSize = maxSize;
+        }
+
+        public InMemoryFormat getInMemoryFormat() {
+            return inMemoryFormat;
+        }
+
+        public void setInMemoryFormat(InMemoryFormat inMemoryFormat) {
+            this.inMemoryFormat = inMemoryFormat;
+        }
+
+        public Integer getBackupCount() {
+            return backupCount;
+        }
+
+        public void setBackupCount(Integer backupCount) {
+            this.backupCount = backupCount;
+        }
+
+        public Integer getAsyncBackupCount() {
+            return asyncBackupCount;
+        }
+
+        public void setAsyncBackupCount(Integer asyncBackupCount) {
+            this.asyncBackupCount = asyncBackupCount;
+        }
+
+        public Boolean getReadBackupData() {
+            return readBackupData;
+        }
+
+        public void setReadBackupData(Boolean readBackupData) {
+            this.readBackupData = readBackupData;
+        }
+
+        public Duration getTimeToLive() {
+            return timeToLive;
+        }
+
+        public void setTimeToLive(Duration timeToLive) {
+            this.timeToLive = timeToLive;
+        }
+    }
+
+    /**
+     * Broadcast of the committed announcement writes, and of the local cache invalidations, to the other nodes of the
+     * cluster.
+     */
+    public static class InvalidationBus {
+
+        private boolean enabled = true;
+
+        public boolean isEnabled() {
+            return enabled;
+        }
+
+        public void setEnabled(boolean enabled) {
+            this.enabled = enabled;
+        }
+    }
+
+    /**
+     * Counts of announcements per criteria, kept until the next write to the announcements.
+     */
+    public static class CountCache {
+
+        private boolean enabled = true;
+
+        /**
+         * Maximum number of criteria whose count is kept, the least recently used are evicted first.
+         */
+        private int maxSize = 1000;
+
+        /**
+         * Maximum time a count is kept, bounding how long it can be wrong if the write of another node is not received.
+         */
+        private Duration timeToLive = Duration.ofMinutes(10);
+
+        public boolean isEnabled() {
+            return enabled;
+        }
+
+        public void setEnabled(boolean enabled) {
+            this.enabled = enabled;
+        }
+
+        public int getMaxSize() {
+            return maxSize;
+        }
+
+        public void setMaxSize(int maxSize) {
+            this.maxSize = maxSize;
+        }
+
+        public Duration getTimeToLive() {
+            return timeToLive;
+        }
+
+        public void setTimeToLive(Duration timeToLive) {
+            this.timeToLive = timeToLive;
+        }
+    }
+
+    /**
+     * Validators of the announcements per criteria and page, kept until the next write to the announcements.
+     */
+    public static class ResultCache {
+
+        private boolean enabled = true;
+
+        /**
+         * Maximum number of pages whose validators are kept, the least recently used are evicted first.
+         */
+        private int maxSize = 1000;
+
+        /**
+         * Maximum time the validators of a page are kept, bounding how long they can be wrong if the write of another node is
+         * not received.
+         */
+        private Duration timeToLive = Duration.ofMinutes(10);
+
+        public boolean isEnabled() {
+            return enabled;
+        }
+
+        public void setEnabled(boolean enabled) {
+            this.enabled = enabled;
+        }
+
+        public int getMaxSize() {
+            return maxSize;
+        }
+
+        public void setMaxSize(int maxSize) {
+            this.maxSize = maxSize;
+        }
+
+        public Duration getTimeToLive() {
+            return timeToLive;
+        }
+
+        public void setTimeToLive(Duration timeToLive) {
+            this.timeToLive = timeToLive;
+        }
+    }
     // jhipster-needle-application-properties-property-class
 }
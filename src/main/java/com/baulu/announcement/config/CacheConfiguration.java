@@ -3,7 +3,10 @@ package com.baulu.announcement.config;
 import com.hazelcast.config.*;
 import com.hazelcast.core.Hazelcast;
 import com.hazelcast.core.HazelcastInstance;
+import io.micrometer.core.instrument.MeterRegistry;
 import jakarta.annotation.PreDestroy;
+import java.util.List;
+import org.hibernate.cache.spi.entry.StandardCacheEntryImpl;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -58,13 +61,28 @@ public class CacheConfiguration {
     }
 
     @Bean
-    public CacheManager cacheManager(HazelcastInstance hazelcastInstance) {
+    public CacheManager cacheManager(
+        HazelcastInstance hazelcastInstance,
+        AnnouncementInvalidationBus invalidationBus,
+        ApplicationProperties applicationProperties,
+        MeterRegistry meterRegistry
+    ) {
         log.debug("Starting HazelcastCacheManager");
-        return new com.hazelcast.spring.cache.HazelcastCacheManager(hazelcastInstance);
+        CacheManager hazelcastCacheManager = new com.hazelcast.spring.cache.HazelcastCacheManager(hazelcastInstance);
+        if (!applicationProperties.getLocalCache().isEnabled()) {
+            return hazelcastCacheManager;
+        }
+        log.debug("Adding a local Caffeine tier to the HazelcastCacheManager");
+        return new TwoTierCacheManager(
+            hazelcastCacheManager,
+            invalidationBus::publish,
+            applicationProperties.getLocalCache(),
+            meterRegistry
+        );
     }
 
     @Bean
-    public HazelcastInstance hazelcastInstance(JHipsterProperties jHipsterProperties) {
+    public HazelcastInstance hazelcastInstance(JHipsterProperties jHipsterProperties, ApplicationProperties applicationProperties) {
         log.debug("Configuring Hazelcast");
         HazelcastInstance hazelCastInstance = Hazelcast.getHazelcastInstanceByName("bauluAnnouncement");
         if (hazelCastInstance != null) {
@@ -106,7 +124,9 @@ public class CacheConfiguration {
         }
         config.setManagementCenterConfig(new ManagementCenterConfig());
         config.addMapConfig(initializeDefaultMapConfig(jHipsterProperties));
-        config.addMapConfig(initializeDomainMapConfig(jHipsterProperties));
+        config.addMapConfig(initializeDomainMapConfig(jHipsterProperties, applicationProperties.getNearCache()));
+        applyMapPolicies(config, applicationProperties.getHazelcastMaps());
+        initializeSerializationConfig(config.getSerializationConfig());
         return Hazelcast.newHazelcastInstance(config);
     }
 
@@ -140,12 +160,89 @@ public class CacheConfiguration {
         return mapConfig;
     }
 
-    private MapConfig initializeDomainMapConfig(JHipsterProperties jHipsterProperties) {
+    static MapConfig initializeDomainMapConfig(JHipsterProperties jHipsterProperties, ApplicationProperties.NearCache nearCache) {
         MapConfig mapConfig = new MapConfig("com.baulu.announcement.domain.*");
         mapConfig.setTimeToLiveSeconds(jHipsterProperties.getCache().getHazelcast().getTimeToLiveSeconds());
+        if (nearCache.isEnabled()) {
+            mapConfig.setNearCacheConfig(initializeNearCacheConfig(nearCache));
+        }
         return mapConfig;
     }
 
+    static void initializeSerializationConfig(SerializationConfig serializationConfig) {
+        serializationConfig.getCompactSerializationConfig().addSerializer(new AnnouncementCompactSerializer());
+        serializationConfig.addSerializerConfig(
+            new SerializerConfig().setTypeClass(StandardCacheEntryImpl.class).setImplementation(new CacheEntryStreamSerializer())
+        );
+    }
+
+    static void applyMapPolicies(Config config, List<ApplicationProperties.HazelcastMap> policies) {
+        for (ApplicationProperties.HazelcastMap policy : policies) {
+            MapConfig mapConfig = config.getMapConfigs().get(policy.getName());
+            if (mapConfig == null) {
+                mapConfig = new MapConfig(config.getMapConfig("default")).setName(policy.getName());
+                config.addMapConfig(mapConfig);
+            }
+            applyMapPolicy(mapConfig, policy);
+        }
+    }
+
+    static void applyMapPolicy(MapConfig mapConfig, ApplicationProperties.HazelcastMap policy) {
+        if (policy.getEvictionPolicy() != null) {
+            mapConfig.getEvictionConfig().setEvictionPolicy(policy.getEvictionPolicy());
+        }
+        if (policy.getMaxSizePolicy() != null) {
+            mapConfig.getEvictionConfig().setMaxSizePolicy(policy.getMaxSizePolicy());
+        }
+        if (policy.getMaxSize() != null) {
+            mapConfig.getEvictionConfig().setSize(policy.getMaxSize() == 0 ? Integer.MAX_VALUE : policy.getMaxSize());
+        }
+        if (policy.getInMemoryFormat() != null) {
+            mapConfig.setInMemoryFormat(policy.getInMemoryFormat());
+        }
+        if (policy.getBackupCount() != null) {
+            mapConfig.setBackupCount(policy.getBackupCount());
+        }
+        if (policy.getAsyncBackupCount() != null) {
+            mapConfig.setAsyncBackupCount(policy.getAsyncBackupCount());
+        }
+        if (policy.getReadBackupData() != null) {
+            mapConfig.setReadBackupData(policy.getReadBackupData());
+        }
+        if (policy.getTimeToLive() != null) {
+            mapConfig.setTimeToLiveSeconds((int) policy.getTimeToLive().toSeconds());
+        }
+    }
+
+    private static NearCacheConfig initializeNearCacheConfig(ApplicationProperties.NearCache nearCache) {
+        NearCacheConfig nearCacheConfig = new NearCacheConfig();
+        nearCacheConfig.setInMemoryFormat(nearCache.isObjectFormat() ? InMemoryFormat.OBJECT : InMemoryFormat.BINARY);
+        /*
+        Updates and evictions made on any node remove the entry from every near cache,
+        so a READ_WRITE region never serves a stale entity.
+        */
+        nearCacheConfig.setInvalidateOnChange(true);
+        /*
+        On a member, entries of the partitions it owns are not near cached by default,
+        they would then still go through the partition thread.
+        */
+        nearCacheConfig.setCacheLocalEntries(true);
+        nearCacheConfig.setTimeToLiveSeconds((int) nearCache.getTimeToLive().toSeconds());
+        nearCacheConfig.setMaxIdleSeconds((int) nearCache.getMaxIdle().toSeconds());
+        nearCacheConfig
+            .getEvictionConfig()
+            .setEvictionPolicy(EvictionPolicy.LRU)
+            .setMaxSizePolicy(MaxSizePolicy.ENTRY_COUNT)
+            .setSize(nearCache.getMaxSize());
+        nearCacheConfig
+            .getPreloaderConfig()
+            .setEnabled(nearCache.getPreloader().isEnabled())
+            .setDirectory(nearCache.getPreloader().getDirectory())
+            .setStoreInitialDelaySeconds((int) nearCache.getPreloader().getStoreInitialDelay().toSeconds())
+            .setStoreIntervalSeconds((int) nearCache.getPreloader().getStoreInterval().toSeconds());
+        return nearCacheConfig;
+    }
+
     @Autowired(required = false)
     public void setGitProperties(GitProperties gitProperties) {
         this.gitProperties = gitProperties;
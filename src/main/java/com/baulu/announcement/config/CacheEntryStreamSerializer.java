@@ -0,0 +1,140 @@
+package com.baulu.announcement.config;
+
+import com.baulu.announcement.domain.enumeration.AnnouncementType;
+import com.baulu.announcement.domain.enumeration.Language;
+import com.hazelcast.nio.ObjectDataInput;
+import com.hazelcast.nio.ObjectDataOutput;
+import com.hazelcast.nio.serialization.StreamSerializer;
+import java.io.IOException;
+import java.io.Serializable;
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.time.Instant;
+import org.hibernate.cache.spi.entry.StandardCacheEntryImpl;
+
+/**
+ * Hazelcast serializer of the entries Hibernate stores in the second-level cache regions, which otherwise go through Java
+ * serialization.
+ * <p>
+ * Each value of the disassembled state is prefixed with a tag: the types of the entity attributes are written field by
+ * field, with the enums as their ordinal and the instants as epoch seconds plus nanoseconds, anything else falls back to
+ * {@link ObjectDataOutput#writeObject(Object)}.
+ */
+public class CacheEntryStreamSerializer implements StreamSerializer<StandardCacheEntryImpl> {
+
+    public static final int TYPE_ID = 1001;
+
+    private static final byte NULL = 0;
+    private static final byte LONG = 1;
+    private static final byte INTEGER = 2;
+    private static final byte BOOLEAN = 3;
+    private static final byte STRING = 4;
+    private static final byte INSTANT = 5;
+    private static final byte LANGUAGE = 6;
+    private static final byte ANNOUNCEMENT_TYPE = 7;
+    private static final byte OBJECT = 127;
+
+    private static final Language[] LANGUAGES = Language.values();
+
+    private static final AnnouncementType[] ANNOUNCEMENT_TYPES = AnnouncementType.values();
+
+    /**
+     * The constructor Hibernate uses to rebuild an entry from its disassembled state is package-private.
+     */
+    private static final MethodHandle CONSTRUCTOR;
+
+    static {
+        try {
+            CONSTRUCTOR = MethodHandles
+                .privateLookupIn(StandardCacheEntryImpl.class, MethodHandles.lookup())
+                .findConstructor(StandardCacheEntryImpl.class, MethodType.methodType(void.class, Serializable[].class, String.class, Object.class));
+        } catch (ReflectiveOperationException e) {
+            throw new ExceptionInInitializerError(e);
+        }
+    }
+
+    static StandardCacheEntryImpl newEntry(Serializable[] disassembledState, String subclass, Object version) {
+        try {
+            return (StandardCacheEntryImpl) CONSTRUCTOR.invokeExact(disassembledState, subclass, version);
+        } catch (RuntimeException | Error e) {
+            throw e;
+        } catch (Throwable e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    @Override
+    public int getTypeId() {
+        return TYPE_ID;
+    }
+
+    @Override
+    public void write(ObjectDataOutput out, StandardCacheEntryImpl entry) throws IOException {
+        out.writeString(entry.getSubclass());
+        out.writeObject(entry.getVersion());
+        Serializable[] state = entry.getDisassembledState();
+        out.writeInt(state.length);
+        for (Serializable value : state) {
+            writeValue(out, value);
+        }
+    }
+
+    @Override
+    public StandardCacheEntryImpl read(ObjectDataInput in) throws IOException {
+        String subclass = in.readString();
+        Object version = in.readObject();
+        Serializable[] state = new Serializable[in.readInt()];
+        for (int i = 0; i < state.length; i++) {
+            state[i] = readValue(in);
+        }
+        return newEntry(state, subclass, version);
+    }
+
+    private static void writeValue(ObjectDataOutput out, Serializable value) throws IOException {
+        if (value == null) {
+            out.writeByte(NULL);
+        } else if (value instanceof Long l) {
+            out.writeByte(LONG);
+            out.writeLong(l);
+        } else if (value instanceof Integer i) {
+            out.writeByte(INTEGER);
+            out.writeInt(i);
+        } else if (value instanceof Boolean b) {
+            out.writeByte(BOOLEAN);
+            out.writeBoolean(b);
+        } else if (value instanceof String s) {
+            out.writeByte(STRING);
+            out.writeString(s);
+        } else if (value instanceof Instant instant) {
+            out.writeByte(INSTANT);
+            out.writeLong(instant.getEpochSecond());
+            out.writeInt(instant.getNano());
+        } else if (value instanceof Language language) {
+            out.writeByte(LANGUAGE);
+            out.writeByte(language.ordinal());
+        } else if (value instanceof AnnouncementType announcementType) {
+            out.writeByte(ANNOUNCEMENT_TYPE);
+            out.writeByte(announcementType.ordinal());
+        } else {
+            out.writeByte(OBJECT);
+            out.writeObject(value);
+        }
+    }
+
+    private static Serializable readValue(ObjectDataInput in) throws IOException {
+        byte tag = in.readByte();
+        return switch (tag) {
+            case NULL -> null;
+            case LONG -> in.readLong();
+            case INTEGER -> in.readInt();
+            case BOOLEAN -> in.readBoolean();
+            case STRING -> in.readString();
+            case INSTANT -> Instant.ofEpochSecond(in.readLong(), in.readInt());
+            case LANGUAGE -> LANGUAGES[in.readByte()];
+            case ANNOUNCEMENT_TYPE -> ANNOUNCEMENT_TYPES[in.readByte()];
+            case OBJECT -> in.readObject();
+            default -> throw new IOException("Unknown cache entry value tag " + tag);
+        };
+    }
+}
@@ -0,0 +1,48 @@
+package com.baulu.announcement.config;
+
+import java.io.Serializable;
+
+/**
+ * Message telling the other nodes to drop the local copy of an entry, or of a whole cache, of a {@link TwoTierCache}.
+ */
+public class CacheInvalidation implements Serializable {
+
+    private static final long serialVersionUID = 1L;
+
+    private final String cacheName;
+
+    private final Object key;
+
+    private final boolean clear;
+
+    private CacheInvalidation(String cacheName, Object key, boolean clear) {
+        this.cacheName = cacheName;
+        this.key = key;
+        this.clear = clear;
+    }
+
+    public static CacheInvalidation evict(String cacheName, Object key) {
+        return new CacheInvalidation(cacheName, key, false);
+    }
+
+    public static CacheInvalidation clear(String cacheName) {
+        return new CacheInvalidation(cacheName, null, true);
+    }
+
+    public String getCacheName() {
+        return cacheName;
+    }
+
+    public Object getKey() {
+        return key;
+    }
+
+    public boolean isClear() {
+        return clear;
+    }
+
+    @Override
+    public String toString() {
+        return "CacheInvalidation{" + "cacheName='" + cacheName + '\'' + ", key=" + key + ", clear=" + clear + '}';
+    }
+}
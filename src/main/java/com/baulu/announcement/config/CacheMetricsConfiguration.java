@@ -0,0 +1,68 @@
+package com.baulu.announcement.config;
+
+import com.hazelcast.core.DistributedObject;
+import com.hazelcast.core.DistributedObjectEvent;
+import com.hazelcast.core.DistributedObjectListener;
+import com.hazelcast.core.HazelcastInstance;
+import com.hazelcast.map.IMap;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import io.micrometer.core.instrument.binder.cache.HazelcastCacheMetrics;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.cache.CacheManager;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Registers every Hazelcast map, the Hibernate second-level cache regions as well as the maps behind the Spring caches,
+ * with Micrometer under the {@code cache.manager=hazelcast} tag, and exposes their statistics on the
+ * {@link CacheStatisticsEndpoint}.
+ * <p>
+ * Maps created after startup are registered as soon as the cluster reports them.
+ */
+@Configuration
+public class CacheMetricsConfiguration {
+
+    private final Logger log = LoggerFactory.getLogger(CacheMetricsConfiguration.class);
+
+    private final HazelcastInstance hazelcastInstance;
+
+    private final MeterRegistry meterRegistry;
+
+    private final Set<String> monitored = ConcurrentHashMap.newKeySet();
+
+    public CacheMetricsConfiguration(HazelcastInstance hazelcastInstance, MeterRegistry meterRegistry) {
+        this.hazelcastInstance = hazelcastInstance;
+        this.meterRegistry = meterRegistry;
+        hazelcastInstance.addDistributedObjectListener(
+            new DistributedObjectListener() {
+                @Override
+                public void distributedObjectCreated(DistributedObjectEvent event) {
+                    monitor(event.getDistributedObject());
+                }
+
+                @Override
+                public void distributedObjectDestroyed(DistributedObjectEvent event) {
+                    // The meters keep their last value, the map may be recreated under the same name.
+                }
+            }
+        );
+        hazelcastInstance.getDistributedObjects().forEach(this::monitor);
+    }
+
+    @Bean
+    public CacheStatisticsEndpoint cacheStatisticsEndpoint(CacheManager cacheManager) {
+        return new CacheStatisticsEndpoint(hazelcastInstance, cacheManager);
+    }
+
+    private void monitor(DistributedObject object) {
+        if (!CacheStatisticsEndpoint.isCacheMap(object) || !monitored.add(object.getName())) {
+            return;
+        }
+        log.debug("Registering metrics of Hazelcast map {}", object.getName());
+        HazelcastCacheMetrics.monitor(meterRegistry, (IMap<?, ?>) object, Tags.of("cache.manager", "hazelcast"));
+    }
+}
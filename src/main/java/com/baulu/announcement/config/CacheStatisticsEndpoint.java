@@ -0,0 +1,121 @@
+package com.baulu.announcement.config;
+
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
+import com.hazelcast.core.DistributedObject;
+import com.hazelcast.core.HazelcastInstance;
+import com.hazelcast.map.IMap;
+import com.hazelcast.map.LocalMapStats;
+import com.hazelcast.nearcache.NearCacheStats;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.TreeMap;
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.boot.actuate.endpoint.annotation.Selector;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+
+/**
+ * Actuator endpoint detailing, on this node, the statistics of the Hazelcast maps and of the local tier of the Spring caches.
+ */
+@Endpoint(id = "cachestats")
+public class CacheStatisticsEndpoint {
+
+    private final HazelcastInstance hazelcastInstance;
+
+    private final CacheManager cacheManager;
+
+    public CacheStatisticsEndpoint(HazelcastInstance hazelcastInstance, CacheManager cacheManager) {
+        this.hazelcastInstance = hazelcastInstance;
+        this.cacheManager = cacheManager;
+    }
+
+    /**
+     * @return the statistics of every Hazelcast map and Spring cache, by name.
+     */
+    @ReadOperation
+    public Map<String, Object> caches() {
+        Map<String, Object> maps = new TreeMap<>();
+        for (DistributedObject object : hazelcastInstance.getDistributedObjects()) {
+            if (isCacheMap(object)) {
+                maps.put(object.getName(), mapStatistics((IMap<?, ?>) object));
+            }
+        }
+        Map<String, Object> caches = new TreeMap<>();
+        for (String name : cacheManager.getCacheNames()) {
+            Cache cache = cacheManager.getCache(name);
+            if (cache instanceof TwoTierCache twoTierCache) {
+                caches.put(name, localStatistics(twoTierCache));
+            }
+        }
+        Map<String, Object> result = new LinkedHashMap<>();
+        result.put("maps", maps);
+        result.put("caches", caches);
+        return result;
+    }
+
+    /**
+     * @param name the name of a Hazelcast map or of a Spring cache.
+     * @return its statistics, or {@code null} if there is no such map or cache.
+     */
+    @ReadOperation
+    public Map<String, Object> cache(@Selector String name) {
+        Map<String, Object> result = new LinkedHashMap<>();
+        for (DistributedObject object : hazelcastInstance.getDistributedObjects()) {
+            if (isCacheMap(object) && object.getName().equals(name)) {
+                result.put("map", mapStatistics((IMap<?, ?>) object));
+            }
+        }
+        if (cacheManager.getCacheNames().contains(name) && cacheManager.getCache(name) instanceof TwoTierCache twoTierCache) {
+            result.put("local", localStatistics(twoTierCache));
+        }
+        return result.isEmpty() ? null : result;
+    }
+
+    static boolean isCacheMap(DistributedObject object) {
+        // Names starting with "__" are internal to Hazelcast (SQL catalog, Jet...).
+        return object instanceof IMap && !object.getName().startsWith("__");
+    }
+
+    private static Map<String, Object> mapStatistics(IMap<?, ?> map) {
+        LocalMapStats stats = map.getLocalMapStats();
+        Map<String, Object> result = new LinkedHashMap<>();
+        result.put("ownedEntryCount", stats.getOwnedEntryCount());
+        result.put("backupEntryCount", stats.getBackupEntryCount());
+        result.put("ownedEntryMemoryCost", stats.getOwnedEntryMemoryCost());
+        result.put("heapCost", stats.getHeapCost());
+        result.put("hits", stats.getHits());
+        result.put("getOperationCount", stats.getGetOperationCount());
+        result.put("putOperationCount", stats.getPutOperationCount());
+        result.put("removeOperationCount", stats.getRemoveOperationCount());
+        result.put("evictionCount", stats.getEvictionCount());
+        result.put("expirationCount", stats.getExpirationCount());
+        result.put("lastAccessTime", stats.getLastAccessTime());
+        result.put("lastUpdateTime", stats.getLastUpdateTime());
+        NearCacheStats nearCache = stats.getNearCacheStats();
+        if (nearCache != null) {
+            Map<String, Object> near = new LinkedHashMap<>();
+            near.put("ownedEntryCount", nearCache.getOwnedEntryCount());
+            near.put("ownedEntryMemoryCost", nearCache.getOwnedEntryMemoryCost());
+            near.put("hits", nearCache.getHits());
+            near.put("misses", nearCache.getMisses());
+            near.put("ratio", nearCache.getRatio());
+            near.put("evictions", nearCache.getEvictions());
+            near.put("expirations", nearCache.getExpirations());
+            near.put("invalidations", nearCache.getInvalidations());
+            result.put("nearCache", near);
+        }
+        return result;
+    }
+
+    private static Map<String, Object> localStatistics(TwoTierCache cache) {
+        CacheStats stats = cache.getLocalCache().stats();
+        Map<String, Object> result = new LinkedHashMap<>();
+        result.put("estimatedSize", cache.getLocalCache().estimatedSize());
+        result.put("hitCount", stats.hitCount());
+        result.put("missCount", stats.missCount());
+        result.put("hitRate", stats.hitRate());
+        result.put("evictionCount", stats.evictionCount());
+        return result;
+    }
+}
@@ -0,0 +1,69 @@
+package com.baulu.announcement.config;
+
+import com.hazelcast.nio.ObjectDataInput;
+import com.hazelcast.nio.ObjectDataOutput;
+import com.hazelcast.nio.serialization.DataSerializable;
+import java.io.IOException;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * A value stored by a {@link TwoTierCache} that is refreshed early, with the time it goes stale and how long it took to
+ * load.
+ * <p>
+ * Whether to reload it early follows the XFetch rule: {@code now - loadMillis * beta * ln(random) >= staleAt}. Each reader
+ * draws its own random number, so the entries loaded together do not all expire together, and the ones that are slow to
+ * load are reloaded earlier.
+ */
+public class RefreshableValue implements DataSerializable {
+
+    private Object value;
+
+    private long staleAt;
+
+    private long loadMillis;
+
+    public RefreshableValue() {
+        // For Hazelcast
+    }
+
+    public RefreshableValue(Object value, long staleAt, long loadMillis) {
+        this.value = value;
+        this.staleAt = staleAt;
+        this.loadMillis = loadMillis;
+    }
+
+    public Object getValue() {
+        return value;
+    }
+
+    public long getStaleAt() {
+        return staleAt;
+    }
+
+    public long getLoadMillis() {
+        return loadMillis;
+    }
+
+    boolean shouldRefresh(long now, double beta) {
+        double random = 1.0 - ThreadLocalRandom.current().nextDouble();
+        return now - loadMillis * beta * Math.log(random) >= staleAt;
+    }
+
+    boolean isExpired(long now, long maxStaleMillis) {
+        return now >= staleAt + maxStaleMillis;
+    }
+
+    @Override
+    public void writeData(ObjectDataOutput out) throws IOException {
+        out.writeObject(value);
+        out.writeLong(staleAt);
+        out.writeLong(loadMillis);
+    }
+
+    @Override
+    public void readData(ObjectDataInput in) throws IOException {
+        value = in.readObject();
+        staleAt = in.readLong();
+        loadMillis = in.readLong();
+    }
+}
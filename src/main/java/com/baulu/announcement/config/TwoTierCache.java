@@ -0,0 +1,270 @@
+package com.baulu.announcement.config;
+
+import com.github.benmanes.caffeine.cache.Caffeine;
+import java.time.Clock;
+import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.function.Consumer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.cache.Cache;
+import org.springframework.cache.support.SimpleValueWrapper;
+
+/**
+ * A {@link Cache} keeping a bounded Caffeine copy of the entries of a clustered cache on each node.
+ * <p>
+ * Reads are served from the local tier when possible and fill it on a miss. Writes go to the clustered tier first, and
+ * every change is published as a {@link CacheInvalidation} so that the other nodes drop their local copy.
+ * <p>
+ * When {@code refreshAfter} is set, the values are stored as {@link RefreshableValue}s and the entries read through
+ * {@link #get(Object, Callable)} are reloaded in the background shortly before they go stale, while the current value keeps
+ * being served. A node only reloads an entry once at a time, and the {@link RefreshLock} makes sure a single node of the
+ * cluster does. Past {@code maxStale}, a value is no longer served and the caller loads it.
+ */
+public class TwoTierCache implements Cache {
+
+    /**
+     * Cluster-wide lock held while an entry is reloaded in the background.
+     */
+    public interface RefreshLock {
+        boolean tryLock(Object key);
+
+        void unlock(Object key);
+    }
+
+    private final Logger log = LoggerFactory.getLogger(TwoTierCache.class);
+
+    private final Cache remote;
+
+    private final com.github.benmanes.caffeine.cache.Cache<Object, ValueWrapper> local;
+
+    private final Consumer<CacheInvalidation> invalidationPublisher;
+
+    private final ApplicationProperties.LocalCache.Tier tier;
+
+    private final RefreshLock refreshLock;
+
+    private final Executor refreshExecutor;
+
+    private final Clock clock;
+
+    private final Set<Object> refreshing = ConcurrentHashMap.newKeySet();
+
+    public TwoTierCache(Cache remote, ApplicationProperties.LocalCache.Tier tier, Consumer<CacheInvalidation> invalidationPublisher) {
+        this(remote, tier, invalidationPublisher, null, null, Clock.systemUTC());
+    }
+
+    public TwoTierCache(
+        Cache remote,
+        ApplicationProperties.LocalCache.Tier tier,
+        Consumer<CacheInvalidation> invalidationPublisher,
+        RefreshLock refreshLock,
+        Executor refreshExecutor,
+        Clock clock
+    ) {
+        this.remote = remote;
+        this.local = Caffeine.newBuilder().maximumSize(tier.getMaxSize()).expireAfterWrite(tier.getTimeToLive()).recordStats().build();
+        this.invalidationPublisher = invalidationPublisher;
+        this.tier = tier;
+        this.refreshLock = refreshLock;
+        this.refreshExecutor = refreshExecutor;
+        this.clock = clock;
+    }
+
+    @Override
+    public String getName() {
+        return remote.getName();
+    }
+
+    @Override
+    public Object getNativeCache() {
+        return remote.getNativeCache();
+    }
+
+    /**
+     * @return the local tier, for metrics.
+     */
+    public com.github.benmanes.caffeine.cache.Cache<Object, ValueWrapper> getLocalCache() {
+        return local;
+    }
+
+    @Override
+    public ValueWrapper get(Object key) {
+        ValueWrapper wrapper = lookup(key);
+        if (wrapper != null && wrapper.get() instanceof RefreshableValue refreshable) {
+            return refreshable.isExpired(clock.millis(), tier.getMaxStale().toMillis())
+                ? null
+                : new SimpleValueWrapper(refreshable.getValue());
+        }
+        return wrapper;
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public <T> T get(Object key, Class<T> type) {
+        ValueWrapper wrapper = get(key);
+        Object value = wrapper == null ? null : wrapper.get();
+        if (value != null && type != null && !type.isInstance(value)) {
+            throw new IllegalStateException("Cached value is not of required type [" + type.getName() + "]: " + value);
+        }
+        return (T) value;
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public <T> T get(Object key, Callable<T> valueLoader) {
+        if (!refreshesEarly()) {
+            ValueWrapper wrapper = local.getIfPresent(key);
+            if (wrapper != null) {
+                return (T) wrapper.get();
+            }
+            // Only a node without a local copy can be loading, so there is nothing to invalidate elsewhere.
+            T value = remote.get(key, valueLoader);
+            local.put(key, new SimpleValueWrapper(value));
+            return value;
+        }
+
+        ValueWrapper wrapper = lookup(key);
+        long now = clock.millis();
+        if (wrapper != null && wrapper.get() instanceof RefreshableValue refreshable && !refreshable.isExpired(now, tier.getMaxStale().toMillis())) {
+            if (refreshable.shouldRefresh(now, tier.getBeta())) {
+                refreshInBackground(key, refreshable, valueLoader);
+            }
+            return (T) refreshable.getValue();
+        }
+        return (T) load(key, valueLoader).getValue();
+    }
+
+    @Override
+    public void put(Object key, Object value) {
+        write(key, wrap(value, 0));
+    }
+
+    @Override
+    public ValueWrapper putIfAbsent(Object key, Object value) {
+        ValueWrapper existing = remote.putIfAbsent(key, wrap(value, 0));
+        local.invalidate(key);
+        if (existing == null) {
+            invalidationPublisher.accept(CacheInvalidation.evict(getName(), key));
+            return null;
+        }
+        return existing.get() instanceof RefreshableValue refreshable ? new SimpleValueWrapper(refreshable.getValue()) : existing;
+    }
+
+    @Override
+    public void evict(Object key) {
+        remote.evict(key);
+        local.invalidate(key);
+        invalidationPublisher.accept(CacheInvalidation.evict(getName(), key));
+    }
+
+    @Override
+    public boolean evictIfPresent(Object key) {
+        boolean present = remote.evictIfPresent(key);
+        local.invalidate(key);
+        invalidationPublisher.accept(CacheInvalidation.evict(getName(), key));
+        return present;
+    }
+
+    @Override
+    public void clear() {
+        remote.clear();
+        local.invalidateAll();
+        invalidationPublisher.accept(CacheInvalidation.clear(getName()));
+    }
+
+    /**
+     * Drops the local copy targeted by an invalidation received from another node.
+     */
+    void invalidateLocal(CacheInvalidation invalidation) {
+        if (invalidation.isClear()) {
+            local.invalidateAll();
+        } else {
+            local.invalidate(invalidation.getKey());
+        }
+    }
+
+    private boolean refreshesEarly() {
+        return tier.getRefreshAfter() != null && refreshExecutor != null;
+    }
+
+    /**
+     * @return the value as stored, from the local tier or else from the clustered one.
+     */
+    private ValueWrapper lookup(Object key) {
+        ValueWrapper wrapper = local.getIfPresent(key);
+        if (wrapper != null) {
+            return wrapper;
+        }
+        wrapper = remote.get(key);
+        if (wrapper != null) {
+            local.put(key, wrapper);
+        }
+        return wrapper;
+    }
+
+    private Object wrap(Object value, long loadMillis) {
+        return refreshesEarly() ? new RefreshableValue(value, clock.millis() + tier.getRefreshAfter().toMillis(), loadMillis) : value;
+    }
+
+    private void write(Object key, Object stored) {
+        remote.put(key, stored);
+        local.put(key, new SimpleValueWrapper(stored));
+        invalidationPublisher.accept(CacheInvalidation.evict(getName(), key));
+    }
+
+    private RefreshableValue load(Object key, Callable<?> valueLoader) {
+        long start = clock.millis();
+        Object value;
+        try {
+            value = valueLoader.call();
+        } catch (Exception e) {
+            throw new ValueRetrievalException(key, valueLoader, e);
+        }
+        RefreshableValue loaded = (RefreshableValue) wrap(value, clock.millis() - start);
+        write(key, loaded);
+        return loaded;
+    }
+
+    private void refreshInBackground(Object key, RefreshableValue seen, Callable<?> valueLoader) {
+        if (!refreshing.add(key)) {
+            return;
+        }
+        try {
+            refreshExecutor.execute(() -> {
+                try {
+                    refresh(key, seen, valueLoader);
+                } finally {
+                    refreshing.remove(key);
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            // Saturated, a later read retries while the value is still servable.
+            refreshing.remove(key);
+        }
+    }
+
+    private void refresh(Object key, RefreshableValue seen, Callable<?> valueLoader) {
+        if (refreshLock != null && !refreshLock.tryLock(key)) {
+            return;
+        }
+        try {
+            ValueWrapper current = remote.get(key);
+            if (current != null && current.get() instanceof RefreshableValue stored && stored.getStaleAt() != seen.getStaleAt()) {
+                // Already reloaded by another node, only the local copy is outdated.
+                local.put(key, current);
+                return;
+            }
+            load(key, valueLoader);
+        } catch (RuntimeException e) {
+            log.warn("Could not refresh entry {} of cache {}: {}", key, getName(), e.getMessage());
+        } finally {
+            if (refreshLock != null) {
+                refreshLock.unlock(key);
+            }
+        }
+    }
+}
@@ -0,0 +1,129 @@
+package com.baulu.announcement.config;
+
+import com.hazelcast.map.IMap;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import java.time.Clock;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.SynchronousQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+
+/**
+ * {@link CacheManager} putting a {@link TwoTierCache} in front of each cache of a clustered {@link CacheManager}.
+ * <p>
+ * The invalidations are exchanged on the {@link AnnouncementInvalidationBus}, which hands back those of the other nodes as
+ * {@link CacheInvalidation} events. The local tier of each
+ * cache is registered with Micrometer under the {@code cache.manager=cacheManager} tag, the Hazelcast maps behind them are
+ * registered by {@link CacheMetricsConfiguration}.
+ */
+public class TwoTierCacheManager implements CacheManager {
+
+    private static final int REFRESH_THREADS = 4;
+
+    private final Logger log = LoggerFactory.getLogger(TwoTierCacheManager.class);
+
+    private final CacheManager remote;
+
+    private final ApplicationProperties.LocalCache properties;
+
+    private final MeterRegistry meterRegistry;
+
+    private final Consumer<CacheInvalidation> invalidationPublisher;
+
+    private final ConcurrentMap<String, TwoTierCache> caches = new ConcurrentHashMap<>();
+
+    /**
+     * Runs the early refreshes. Refreshes that do not fit are dropped, the stale value is served until a later read retries.
+     */
+    private final ExecutorService refreshExecutor;
+
+    public TwoTierCacheManager(
+        CacheManager remote,
+        Consumer<CacheInvalidation> invalidationPublisher,
+        ApplicationProperties.LocalCache properties,
+        MeterRegistry meterRegistry
+    ) {
+        this.remote = remote;
+        this.invalidationPublisher = invalidationPublisher;
+        this.properties = properties;
+        this.meterRegistry = meterRegistry;
+        CustomizableThreadFactory threadFactory = new CustomizableThreadFactory("cache-refresh-");
+        threadFactory.setDaemon(true);
+        this.refreshExecutor = new ThreadPoolExecutor(0, REFRESH_THREADS, 1, TimeUnit.MINUTES, new SynchronousQueue<>(), threadFactory);
+    }
+
+    @Override
+    public Cache getCache(String name) {
+        TwoTierCache cache = caches.get(name);
+        if (cache != null) {
+            return cache;
+        }
+        Cache remoteCache = remote.getCache(name);
+        if (remoteCache == null) {
+            return null;
+        }
+        return caches.computeIfAbsent(name, n -> {
+            TwoTierCache created = new TwoTierCache(
+                remoteCache,
+                properties.forCache(n),
+                invalidationPublisher,
+                refreshLock(remoteCache),
+                refreshExecutor,
+                Clock.systemUTC()
+            );
+            CaffeineCacheMetrics.monitor(meterRegistry, created.getLocalCache(), n, "cache.manager", "cacheManager");
+            return created;
+        });
+    }
+
+    /**
+     * Only the caches obtained through this manager, the Hazelcast maps of the Hibernate regions are not Spring caches.
+     */
+    @Override
+    public Collection<String> getCacheNames() {
+        return Collections.unmodifiableSet(caches.keySet());
+    }
+
+    private static TwoTierCache.RefreshLock refreshLock(Cache remoteCache) {
+        if (!(remoteCache.getNativeCache() instanceof IMap<?, ?>)) {
+            return null;
+        }
+        @SuppressWarnings("unchecked")
+        IMap<Object, ?> map = (IMap<Object, ?>) remoteCache.getNativeCache();
+        return new TwoTierCache.RefreshLock() {
+            @Override
+            public boolean tryLock(Object key) {
+                return map.tryLock(key);
+            }
+
+            @Override
+            public void unlock(Object key) {
+                map.unlock(key);
+            }
+        };
+    }
+
+    /**
+     * Applies an invalidation received from another node.
+     */
+    @EventListener
+    public void onInvalidation(CacheInvalidation invalidation) {
+        TwoTierCache cache = caches.get(invalidation.getCacheName());
+        if (cache != null) {
+            log.trace("Applying {}", invalidation);
+            cache.invalidateLocal(invalidation);
+        }
+    }
+}
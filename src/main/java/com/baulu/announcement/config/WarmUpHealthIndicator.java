@@ -0,0 +1,80 @@
+package com.baulu.announcement.config;
+
+import com.baulu.announcement.service.AnnouncementService;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.actuate.health.Health;
+import org.springframework.boot.actuate.health.HealthIndicator;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+/**
+ * Preloads the announcements once the application is started, and keeps the {@code readiness} health group DOWN until
+ * that is done or {@code application.warm-up.timeout} expires, so that a new instance does not take traffic with cold
+ * caches.
+ */
+@Component
+public class WarmUpHealthIndicator implements HealthIndicator {
+
+    private final Logger log = LoggerFactory.getLogger(WarmUpHealthIndicator.class);
+
+    private final AnnouncementService announcementService;
+
+    private final ApplicationProperties.WarmUp properties;
+
+    private volatile String state = "pending";
+
+    private volatile boolean ready = false;
+
+    private volatile int loaded;
+
+    public WarmUpHealthIndicator(AnnouncementService announcementService, ApplicationProperties applicationProperties) {
+        this.announcementService = announcementService;
+        this.properties = applicationProperties.getWarmUp();
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void onStartup() {
+        if (!properties.isEnabled()) {
+            state = "disabled";
+            ready = true;
+            return;
+        }
+        Instant start = Instant.now();
+        CompletableFuture
+            .supplyAsync(() -> announcementService.warmUp(start, properties.getLookahead()), command -> {
+                Thread thread = new Thread(command, "warm-up");
+                thread.setDaemon(true);
+                thread.start();
+            })
+            .orTimeout(properties.getTimeout().toMillis(), TimeUnit.MILLISECONDS)
+            .whenComplete((count, error) -> {
+                Throwable cause = error instanceof CompletionException ? error.getCause() : error;
+                if (cause == null) {
+                    loaded = count;
+                    state = "complete";
+                    log.info("Warmed up {} announcements in {}", count, Duration.between(start, Instant.now()));
+                } else if (cause instanceof TimeoutException) {
+                    state = "timed out";
+                    log.warn("Warm-up did not complete within {}, accepting traffic anyway", properties.getTimeout());
+                } else {
+                    state = "failed";
+                    log.warn("Warm-up failed, accepting traffic anyway", cause);
+                }
+                ready = true;
+            });
+    }
+
+    @Override
+    public Health health() {
+        Health.Builder builder = ready ? Health.up() : Health.down();
+        return builder.withDetail("state", state).withDetail("loaded", loaded).build();
+    }
+}
@@ -15,7 +15,7 @@ import org.hibernate.annotations.CacheConcurrencyStrategy;
 @Table(name = "announcement")
 @Cache(usage = CacheConcurrencyStrategy.READ_WRITE)
 @SuppressWarnings("common-java:DuplicatedBlocks")
-public class Announcement implements Serializable {
+public class Announcement extends AbstractAuditingEntity<Long> implements Serializable {
 
     private static final long serialVersionUID = 1L;
 
@@ -43,6 +43,14 @@ public class Announcement implements Serializable {
     @Column(name = "announcement_data")
     private String announcementData;
 
+    /**
+     * Incremented by Hibernate on every update, so together with the id it identifies a state of the announcement, used as
+     * its strong {@code ETag}.
+     */
+    @Version
+    @Column(name = "version", nullable = false)
+    private Long version;
+
     // jhipster-needle-entity-add-field - JHipster will add fields here
 
     public Long getId() {
@@ -123,6 +131,19 @@ public class Announcement implements Serializable {
         this.announcementData = announcementData;
     }
 
+    public Long getVersion() {
+        return this.version;
+    }
+
+    public Announcement version(Long version) {
+        this.setVersion(version);
+        return this;
+    }
+
+    public void setVersion(Long version) {
+        this.version = version;
+    }
+
     // jhipster-needle-entity-add-getters-setters - JHipster will add getters and setters here
 
     @Override
@@ -152,6 +173,7 @@ public class Announcement implements Serializable {
             ", endDate='" + getEndDate() + "'" +
             ", announcementType='" + getAnnouncementType() + "'" +
             ", announcementData='" + getAnnouncementData() + "'" +
+            ", version=" + getVersion() +
             "}";
     }
 }
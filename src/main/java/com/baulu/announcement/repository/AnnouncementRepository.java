@@ -9,7 +9,9 @@ import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.time.Instant;
+import java.util.Collection;
 import java.util.List;
+import java.util.Optional;
 
 /**
  * Spring Data JPA repository for the Announcement entity.
@@ -17,11 +19,77 @@ import java.util.List;
 @SuppressWarnings("unused")
 @Repository
 public interface AnnouncementRepository extends JpaRepository<Announcement, Long>, JpaSpecificationExecutor<Announcement> {
+    String ANNOUNCEMENT_BY_ID_CACHE = "announcementById";
 
-    @Query(" SELECT DISTINCT announcement FROM Announcement announcement " +
+    /**
+     * Selecting a single entity without joins cannot return duplicates, so the query does not need a {@code DISTINCT}, which
+     * would make the database sort and compare the {@code announcement_data} LOB. The predicate is served by the
+     * {@code idx_announcement_active_window} index.
+     */
+    @Query(" SELECT announcement FROM Announcement announcement " +
         " where announcement.startDate < :date " +
         " and announcement.endDate > :date " +
         " and announcement.language = :selectedLanguage ")
     List<Announcement> findByDateAndLanguage(@Param("date") Instant date,
                                              @Param("selectedLanguage") Language selectedLanguage);
+
+    /**
+     * Same predicate as {@link #findByDateAndLanguage(Instant, Language)} for several languages at once.
+     */
+    @Query(" SELECT announcement FROM Announcement announcement " +
+        " where announcement.startDate < :date " +
+        " and announcement.endDate > :date " +
+        " and announcement.language in :selectedLanguages " +
+        " order by announcement.id ")
+    List<Announcement> findByDateAndLanguageIn(@Param("date") Instant date,
+                                               @Param("selectedLanguages") Collection<Language> selectedLanguages);
+
+    /**
+     * Same predicate as {@link #findByDateAndLanguageIn(Instant, Collection)}, but only reads the index, so the entities can
+     * be resolved from the second-level cache.
+     */
+    @Query(" SELECT announcement.id FROM Announcement announcement " +
+        " where announcement.startDate < :date " +
+        " and announcement.endDate > :date " +
+        " and announcement.language in :selectedLanguages " +
+        " order by announcement.id ")
+    List<Long> findIdsByDateAndLanguageIn(@Param("date") Instant date,
+                                          @Param("selectedLanguages") Collection<Language> selectedLanguages);
+
+    /**
+     * @return the announcements active at some instant between {@code from} and {@code until}, both included.
+     */
+    @Query(" SELECT announcement FROM Announcement announcement " +
+        " where announcement.startDate < :until " +
+        " and announcement.endDate > :from " +
+        " and announcement.language = :selectedLanguage " +
+        " order by announcement.id ")
+    List<Announcement> findAllOverlapping(@Param("from") Instant from,
+                                          @Param("until") Instant until,
+                                          @Param("selectedLanguage") Language selectedLanguage);
+
+    /**
+     * @return the announcements starting in {@code [from, until)}, in order of {@code startDate}.
+     */
+    @Query(" SELECT announcement FROM Announcement announcement " +
+        " where announcement.startDate >= :from " +
+        " and announcement.startDate < :until " +
+        " and announcement.endDate > announcement.startDate " +
+        " and announcement.language = :selectedLanguage " +
+        " order by announcement.startDate, announcement.id ")
+    List<Announcement> findAllStartingBetween(@Param("from") Instant from,
+                                              @Param("until") Instant until,
+                                              @Param("selectedLanguage") Language selectedLanguage);
+
+    List<Announcement> findAllByEndDateAfter(Instant date);
+
+    /**
+     * Reads the validators of an announcement without its {@code announcementData}, so that a conditional request can be
+     * answered without loading the LOB.
+     */
+    @Query(" SELECT new com.baulu.announcement.repository.AnnouncementValidators(" +
+        " announcement.id, announcement.version, announcement.lastModifiedDate) " +
+        " FROM Announcement announcement " +
+        " where announcement.id = :id ")
+    Optional<AnnouncementValidators> findValidatorsById(@Param("id") Long id);
 }
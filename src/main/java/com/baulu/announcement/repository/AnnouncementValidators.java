@@ -0,0 +1,44 @@
+package com.baulu.announcement.repository;
+
+import com.baulu.announcement.domain.Announcement;
+import java.time.Instant;
+
+/**
+ * The columns of an {@link Announcement} its HTTP validators are derived from, selected without its
+ * {@code announcementData}.
+ */
+public class AnnouncementValidators {
+
+    private final Long id;
+
+    private final Long version;
+
+    private final Instant lastModifiedDate;
+
+    public AnnouncementValidators(Long id, Long version, Instant lastModifiedDate) {
+        this.id = id;
+        this.version = version;
+        this.lastModifiedDate = lastModifiedDate;
+    }
+
+    public static AnnouncementValidators of(Announcement announcement) {
+        return new AnnouncementValidators(announcement.getId(), announcement.getVersion(), announcement.getLastModifiedDate());
+    }
+
+    public Long getId() {
+        return id;
+    }
+
+    public Long getVersion() {
+        return version;
+    }
+
+    public Instant getLastModifiedDate() {
+        return lastModifiedDate;
+    }
+
+    @Override
+    public String toString() {
+        return "AnnouncementValidators{id=" + id + ", version=" + version + ", lastModifiedDate=" + lastModifiedDate + "}";
+    }
+}
@@ -2,33 +2,112 @@ package com.baulu.announcement.service;
 
 import com.baulu.announcement.domain.*; // for static metamodels
 import com.baulu.announcement.domain.Announcement;
-import com.baulu.announcement.repository.AnnouncementRepository;
+import com.baulu.announcement.repository.AnnouncementValidators;
 import com.baulu.announcement.service.criteria.AnnouncementCriteria;
+import com.baulu.announcement.service.criteria.AnnouncementCursor;
+import com.baulu.announcement.service.criteria.AnnouncementFields;
+import com.baulu.announcement.service.impl.AnnouncementCountCache;
+import com.baulu.announcement.service.impl.AnnouncementHydrator;
+import com.baulu.announcement.service.impl.AnnouncementResultCache;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.Tuple;
+import jakarta.persistence.TypedQuery;
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.CriteriaQuery;
+import jakarta.persistence.criteria.Expression;
+import jakarta.persistence.criteria.Order;
+import jakarta.persistence.criteria.ParameterExpression;
+import jakarta.persistence.criteria.Path;
+import jakarta.persistence.criteria.Predicate;
+import jakarta.persistence.criteria.Root;
+import jakarta.persistence.criteria.Selection;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.StringJoiner;
+import java.util.function.Function;
+import org.hibernate.jpa.HibernateHints;
+import org.hibernate.query.NullPrecedence;
+import org.hibernate.query.criteria.JpaOrder;
+import org.hibernate.query.sqm.tree.expression.JpaCriteriaParameter;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.SliceImpl;
+import org.springframework.data.domain.Sort;
 import org.springframework.data.jpa.domain.Specification;
+import org.springframework.data.jpa.repository.query.QueryUtils;
+import org.springframework.data.support.PageableExecutionUtils;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 import tech.jhipster.service.QueryService;
+import tech.jhipster.service.filter.Filter;
+import tech.jhipster.service.filter.RangeFilter;
+import tech.jhipster.service.filter.StringFilter;
 
 /**
  * Service for executing complex queries for {@link Announcement} entities in the database.
  * The main input is a {@link AnnouncementCriteria} which gets converted to {@link Specification},
  * in a way that all the filters must apply.
  * It returns a {@link Page} of {@link Announcement} which fulfills the criteria.
+ * <p>
+ * The values of the filters are bound as parameters, so the Criteria query built from the {@link Specification} only
+ * depends on the shape of the criteria, which filters and operators are present. It is built once per shape and kind of
+ * query, and reused for the later criteria of the same shape, whose interpretation and SQL are then found in Hibernate's
+ * query plan cache.
+ * The counts are served from {@link AnnouncementCountCache}, and the validators of the entities of each page from
+ * {@link AnnouncementResultCache}, until the next write; the entities themselves are resolved by
+ * {@link AnnouncementHydrator} from the second-level cache.
  */
 @Service
 @Transactional(readOnly = true)
 public class AnnouncementQueryService extends QueryService<Announcement> {
 
+    /**
+     * Shapes are combinations of a few filters, the bound only protects against crafted requests.
+     */
+    private static final int MAXIMUM_SHAPES = 256;
+
+    private static final String CURSOR_ID = "cursorId";
+
+    private static final String CURSOR_VALUE = "cursorValue";
+
     private final Logger log = LoggerFactory.getLogger(AnnouncementQueryService.class);
 
-    private final AnnouncementRepository announcementRepository;
+    private final EntityManager entityManager;
+
+    private final AnnouncementCountCache announcementCountCache;
+
+    private final AnnouncementResultCache announcementResultCache;
+
+    private final AnnouncementHydrator announcementHydrator;
+
+    private final Cache<List<Object>, CriteriaQuery<?>> criteriaQueries = Caffeine.newBuilder().maximumSize(MAXIMUM_SHAPES).build();
+
+    /**
+     * The values bound by the {@link Specification} being created on this thread, in the order of their parameters.
+     */
+    private final ThreadLocal<List<Object>> boundValues = new ThreadLocal<>();
 
-    public AnnouncementQueryService(AnnouncementRepository announcementRepository) {
-        this.announcementRepository = announcementRepository;
+    public AnnouncementQueryService(
+        EntityManager entityManager,
+        AnnouncementCountCache announcementCountCache,
+        AnnouncementResultCache announcementResultCache,
+        AnnouncementHydrator announcementHydrator
+    ) {
+        this.entityManager = entityManager;
+        this.announcementCountCache = announcementCountCache;
+        this.announcementResultCache = announcementResultCache;
+        this.announcementHydrator = announcementHydrator;
     }
 
     /**
@@ -40,8 +119,122 @@ public class AnnouncementQueryService extends QueryService<Announcement> {
     @Transactional(readOnly = true)
     public Page<Announcement> findByCriteria(AnnouncementCriteria criteria, Pageable page) {
         log.debug("find by criteria : {}, page: {}", criteria, page);
-        final Specification<Announcement> specification = createSpecification(criteria);
-        return announcementRepository.findAll(specification, page);
+        if (!announcementResultCache.isEnabled() || page.isUnpaged()) {
+            return findPage("entities", Announcement.class, (query, root, builder) -> root, criteria, page);
+        }
+        return findByValidators(findValidatorsByCriteria(criteria, page));
+    }
+
+    /**
+     * Return a {@link Slice} of {@link Announcement} which matches the criteria from the database, following the given
+     * cursor. Unlike {@link #findByCriteria(AnnouncementCriteria, Pageable)}, the page is found by seeking past the cursor
+     * instead of skipping the previous pages, and the matching entities are not counted, so every page costs the same.
+     * @param criteria The object which holds all the filters, which the entities should match.
+     * @param cursor The position after which the page starts, and the order of the entities.
+     * @param size The number of entities of the page.
+     * @return the matching entities.
+     */
+    @Transactional(readOnly = true)
+    public Slice<Announcement> findByCriteria(AnnouncementCriteria criteria, AnnouncementCursor cursor, int size) {
+        log.debug("find by criteria : {}, cursor: {}, size: {}", criteria, cursor, size);
+        TypedQuery<Announcement> query = createQuery(List.of("seek", shapeOf(cursor)), criteria, specification -> {
+            CriteriaBuilder builder = entityManager.getCriteriaBuilder();
+            CriteriaQuery<Announcement> seek = builder.createQuery(Announcement.class);
+            Root<Announcement> root = seek.from(Announcement.class);
+            Predicate predicate = specification.and(buildSeekSpecification(cursor)).toPredicate(root, seek, builder);
+            if (predicate != null) {
+                seek.where(predicate);
+            }
+            return seek.select(root).orderBy(buildSeekOrders(cursor, root, builder));
+        });
+        if (!cursor.isFirst()) {
+            query.setParameter(CURSOR_ID, cursor.getId());
+            if (cursor.getValue() != null) {
+                query.setParameter(CURSOR_VALUE, cursor.getValue());
+            }
+        }
+        // One more entity than requested tells whether there is a next page
+        List<Announcement> content = query.setMaxResults(size + 1).getResultList();
+        boolean hasNext = content.size() > size;
+        return new SliceImpl<>(hasNext ? content.subList(0, size) : content, PageRequest.ofSize(size), hasNext);
+    }
+
+    /**
+     * Return a {@link Page} of the validators of the entities matching the criteria, in the same order as
+     * {@link #findByCriteria(AnnouncementCriteria, Pageable)} but without reading their {@code announcementData}. The
+     * validators of a page are served from {@link AnnouncementResultCache} until the next write.
+     * @param criteria The object which holds all the filters, which the entities should match.
+     * @param page The page, which should be returned.
+     * @return the validators of the matching entities.
+     */
+    @Transactional(readOnly = true)
+    public Page<AnnouncementValidators> findValidatorsByCriteria(AnnouncementCriteria criteria, Pageable page) {
+        log.debug("find validators by criteria : {}, page: {}", criteria, page);
+        List<AnnouncementValidators> content = announcementResultCache.get(criteria, page, () ->
+            createQuery(
+                "validators",
+                AnnouncementValidators.class,
+                (query, root, builder) -> {
+                    // Entities are selected without joins, so distinct does not change the validators
+                    query.distinct(false);
+                    return builder.construct(
+                        AnnouncementValidators.class,
+                        root.get(Announcement_.id),
+                        root.get(Announcement_.version),
+                        root.get(Announcement_.lastModifiedDate)
+                    );
+                },
+                criteria,
+                page
+            ).getResultList()
+        );
+        return PageableExecutionUtils.getPage(content, page, () -> countByCriteria(criteria));
+    }
+
+    /**
+     * Return the {@link Page} of the {@link Announcement} of the given validators, in their order, resolved by
+     * {@link AnnouncementHydrator} from the second-level cache instead of searching them again. The announcements
+     * deleted since the validators were read are left out, and the others may have been updated since.
+     * @param validators The page of validators read by {@link #findValidatorsByCriteria(AnnouncementCriteria, Pageable)}.
+     * @return the entities of the validators.
+     */
+    @Transactional(readOnly = true)
+    public Page<Announcement> findByValidators(Page<AnnouncementValidators> validators) {
+        log.debug("find by validators : {}", validators);
+        List<Long> ids = validators.map(AnnouncementValidators::getId).getContent();
+        return new PageImpl<>(announcementHydrator.hydrate(ids), validators.getPageable(), validators.getTotalElements());
+    }
+
+    /**
+     * Return a {@link Page} of the requested fields of the entities matching the criteria, in the same order as
+     * {@link #findByCriteria(AnnouncementCriteria, Pageable)}. Only the columns of these fields are selected.
+     * @param criteria The object which holds all the filters, which the entities should match.
+     * @param fields The fields to read.
+     * @param page The page, which should be returned.
+     * @return the fields of the matching entities.
+     */
+    @Transactional(readOnly = true)
+    public Page<Map<String, Object>> findFieldsByCriteria(AnnouncementCriteria criteria, AnnouncementFields fields, Pageable page) {
+        log.debug("find fields {} by criteria : {}, page: {}", fields, criteria, page);
+        Selector<Tuple> selector = (query, root, builder) -> {
+            // Entities are selected without joins, so distinct does not change the rows
+            query.distinct(false);
+            return builder.tuple(fields.getNames().stream().map(name -> root.get(name).alias(name)).toArray(Selection<?>[]::new));
+        };
+        return findPage(List.of("fields", fields), Tuple.class, selector, criteria, page).map(tuple -> fields.toMap(tuple::get));
+    }
+
+    /**
+     * Return the requested fields of the entity with the given id, selecting only their columns.
+     * @param id The id of the entity.
+     * @param fields The fields to read.
+     * @return the fields of the entity, if it exists.
+     */
+    @Transactional(readOnly = true)
+    public Optional<Map<String, Object>> findFields(Long id, AnnouncementFields fields) {
+        AnnouncementCriteria criteria = new AnnouncementCriteria();
+        criteria.id().setEquals(id);
+        return findFieldsByCriteria(criteria, fields, Pageable.unpaged()).stream().findFirst();
     }
 
     /**
@@ -52,8 +245,152 @@ public class AnnouncementQueryService extends QueryService<Announcement> {
     @Transactional(readOnly = true)
     public long countByCriteria(AnnouncementCriteria criteria) {
         log.debug("count by criteria : {}", criteria);
-        final Specification<Announcement> specification = createSpecification(criteria);
-        return announcementRepository.count(specification);
+        return announcementCountCache.get(criteria, () ->
+            createQuery(
+                "count",
+                Long.class,
+                (query, root, builder) -> {
+                    // Like SimpleJpaRepository.count, a distinct query counts the distinct entities
+                    Expression<Long> count = query.isDistinct() ? builder.countDistinct(root) : builder.count(root);
+                    query.distinct(false);
+                    return count;
+                },
+                criteria,
+                Pageable.unpaged()
+            ).getSingleResult()
+        );
+    }
+
+    /**
+     * Reads one page of the query, counting the matching entities through {@link #countByCriteria(AnnouncementCriteria)}
+     * when the total is not known from the page itself.
+     */
+    private <T> Page<T> findPage(Object kind, Class<T> type, Selector<T> selector, AnnouncementCriteria criteria, Pageable page) {
+        List<T> content = createQuery(kind, type, selector, criteria, page).getResultList();
+        return PageableExecutionUtils.getPage(content, page, () -> countByCriteria(criteria));
+    }
+
+    /**
+     * Creates the query selecting the entities matching the criteria in the order of the page, and limits it to the page.
+     * @param kind what the selector selects: the Criteria query is shared by the calls of the same kind.
+     */
+    private <T> TypedQuery<T> createQuery(Object kind, Class<T> type, Selector<T> selector, AnnouncementCriteria criteria, Pageable page) {
+        TypedQuery<T> query = createQuery(List.of(kind, page.getSort()), criteria, specification -> {
+            CriteriaBuilder builder = entityManager.getCriteriaBuilder();
+            CriteriaQuery<T> criteriaQuery = builder.createQuery(type);
+            Root<Announcement> root = criteriaQuery.from(Announcement.class);
+            Predicate predicate = specification.toPredicate(root, criteriaQuery, builder);
+            if (predicate != null) {
+                criteriaQuery.where(predicate);
+            }
+            criteriaQuery.select(selector.select(criteriaQuery, root, builder));
+            if (page.getSort().isSorted()) {
+                criteriaQuery.orderBy(QueryUtils.toOrders(page.getSort(), root, builder));
+            }
+            return criteriaQuery;
+        });
+        if (page.isPaged()) {
+            query.setFirstResult((int) page.getOffset());
+            query.setMaxResults(page.getPageSize());
+        }
+        return query;
+    }
+
+    /**
+     * Creates the {@link Specification} of the criteria, binding its values as parameters, and the query of the Criteria
+     * query built from it, reusing the one of the previous criteria of the same shape.
+     * @param key what the Criteria query selects and in which order, besides the shape of the criteria.
+     * @param criteria The object which holds all the filters, which the entities should match.
+     * @param build builds the Criteria query from the {@link Specification}, when the shape has none yet.
+     * @return the query, with the values of the criteria bound.
+     */
+    @SuppressWarnings("unchecked")
+    private <T> TypedQuery<T> createQuery(
+        List<Object> key,
+        AnnouncementCriteria criteria,
+        Function<Specification<Announcement>, CriteriaQuery<T>> build
+    ) {
+        List<Object> values = new ArrayList<>();
+        Specification<Announcement> specification;
+        boundValues.set(values);
+        try {
+            specification = createSpecification(criteria);
+        } finally {
+            boundValues.remove();
+        }
+        List<Object> shapedKey = new ArrayList<>(key);
+        shapedKey.add(shapeOf(criteria));
+        CriteriaQuery<T> criteriaQuery = (CriteriaQuery<T>) criteriaQueries.get(List.copyOf(shapedKey), k -> build.apply(specification));
+        // Criteria queries only reach the plan cache on demand, keyed by the identity of the query
+        TypedQuery<T> query = entityManager.createQuery(criteriaQuery).setHint(HibernateHints.HINT_QUERY_PLAN_CACHEABLE, true);
+        for (int i = 0; i < values.size(); i++) {
+            query.setParameter(parameterName(i), values.get(i));
+        }
+        return query;
+    }
+
+    /**
+     * Function to convert an {@link AnnouncementCursor} to a {@link Specification} of the entities following it, in the
+     * order of {@link #buildSeekOrders(AnnouncementCursor, Root, CriteriaBuilder)}. The position is bound to the
+     * {@code cursorId} parameter, and the {@code cursorValue} parameter when the cursor has a value.
+     * @param cursor The position after which the entities should be.
+     * @return the matching {@link Specification} of the entity, {@code null} for the first page.
+     */
+    protected Specification<Announcement> buildSeekSpecification(AnnouncementCursor cursor) {
+        if (cursor.isFirst()) {
+            return null;
+        }
+        boolean ascending = cursor.getDirection().isAscending();
+        boolean hasValue = cursor.getValue() != null;
+        return (root, query, builder) -> {
+            Path<Long> id = root.get(Announcement_.id);
+            ParameterExpression<Long> cursorId = builder.parameter(Long.class, CURSOR_ID);
+            Predicate idAfter = ascending ? builder.greaterThan(id, cursorId) : builder.lessThan(id, cursorId);
+            if (AnnouncementCursor.ID.equals(cursor.getProperty())) {
+                return idAfter;
+            }
+            Path<Instant> key = sortKey(cursor, root);
+            if (!hasValue) {
+                // The null dates come last in ascending order, first in descending order
+                Predicate nullAfter = builder.and(builder.isNull(key), idAfter);
+                return ascending ? nullAfter : builder.or(nullAfter, builder.isNotNull(key));
+            }
+            ParameterExpression<Instant> value = builder.parameter(Instant.class, CURSOR_VALUE);
+            Predicate sameAfter = builder.and(builder.equal(key, value), idAfter);
+            return ascending
+                ? builder.or(builder.greaterThan(key, value), sameAfter, builder.isNull(key))
+                : builder.or(builder.lessThan(key, value), sameAfter);
+        };
+    }
+
+    /**
+     * @return the order of the entities paginated with the cursor: its property, with {@code null} dates sorted last, then id.
+     */
+    protected List<Order> buildSeekOrders(AnnouncementCursor cursor, Root<Announcement> root, CriteriaBuilder builder) {
+        boolean ascending = cursor.getDirection().isAscending();
+        Order idOrder = ascending ? builder.asc(root.get(Announcement_.id)) : builder.desc(root.get(Announcement_.id));
+        if (AnnouncementCursor.ID.equals(cursor.getProperty())) {
+            return List.of(idOrder);
+        }
+        Path<Instant> key = sortKey(cursor, root);
+        JpaOrder keyOrder = (JpaOrder) (ascending ? builder.asc(key) : builder.desc(key));
+        return List.of(keyOrder.nullPrecedence(ascending ? NullPrecedence.LAST : NullPrecedence.FIRST), idOrder);
+    }
+
+    private static Path<Instant> sortKey(AnnouncementCursor cursor, Root<Announcement> root) {
+        return AnnouncementCursor.START_DATE.equals(cursor.getProperty())
+            ? root.get(Announcement_.startDate)
+            : root.get(Announcement_.endDate);
+    }
+
+    /**
+     * @return what the query of {@link #buildSeekSpecification(AnnouncementCursor)} depends on besides the bound position.
+     */
+    private static String shapeOf(AnnouncementCursor cursor) {
+        if (cursor.isFirst()) {
+            return cursor.getProperty() + "," + cursor.getDirection() + ",first";
+        }
+        return cursor.getProperty() + "," + cursor.getDirection() + (cursor.getValue() == null ? ",null" : ",value");
     }
 
     /**
@@ -86,4 +423,255 @@ public class AnnouncementQueryService extends QueryService<Announcement> {
         }
         return specification;
     }
+
+    /**
+     * The shape of the criteria: the filters and operators present, with the number of values of the {@code in} and
+     * {@code notIn} operators, everything {@link #createSpecification(AnnouncementCriteria)} depends on but the values.
+     * @param criteria The object which holds all the filters, {@code null} for none.
+     * @return the shape, equal for every criteria whose {@link Specification} builds the same query.
+     */
+    static String shapeOf(AnnouncementCriteria criteria) {
+        StringJoiner shape = new StringJoiner(",");
+        if (criteria == null) {
+            return shape.toString();
+        }
+        if (criteria.getDistinct() != null) {
+            shape.add("distinct=" + criteria.getDistinct());
+        }
+        addShape(shape, "id", criteria.getId());
+        addShape(shape, "language", criteria.getLanguage());
+        addShape(shape, "startDate", criteria.getStartDate());
+        addShape(shape, "endDate", criteria.getEndDate());
+        addShape(shape, "announcementType", criteria.getAnnouncementType());
+        return shape.toString();
+    }
+
+    private static void addShape(StringJoiner shape, String name, Filter<?> filter) {
+        if (filter == null) {
+            return;
+        }
+        StringBuilder operators = new StringBuilder(name);
+        if (filter.getEquals() != null) {
+            operators.append(".equals");
+        }
+        if (filter.getNotEquals() != null) {
+            operators.append(".notEquals");
+        }
+        if (filter.getIn() != null) {
+            operators.append(".in").append(filter.getIn().size());
+        }
+        if (filter.getNotIn() != null) {
+            operators.append(".notIn").append(filter.getNotIn().size());
+        }
+        if (filter.getSpecified() != null) {
+            operators.append(".specified=").append(filter.getSpecified());
+        }
+        if (filter instanceof RangeFilter<?> range) {
+            if (range.getGreaterThan() != null) {
+                operators.append(".greaterThan");
+            }
+            if (range.getGreaterThanOrEqual() != null) {
+                operators.append(".greaterThanOrEqual");
+            }
+            if (range.getLessThan() != null) {
+                operators.append(".lessThan");
+            }
+            if (range.getLessThanOrEqual() != null) {
+                operators.append(".lessThanOrEqual");
+            }
+        }
+        if (filter instanceof StringFilter string) {
+            if (string.getContains() != null) {
+                operators.append(".contains");
+            }
+            if (string.getDoesNotContain() != null) {
+                operators.append(".doesNotContain");
+            }
+        }
+        shape.add(operators);
+    }
+
+    /**
+     * Binds the value to a new parameter of the {@link Specification} being created on this thread.
+     * @return the name of the parameter, or {@code null} outside of {@link #createQuery(List, AnnouncementCriteria, Function)},
+     * where the value is left in the query.
+     */
+    private String bind(Object value) {
+        List<Object> values = boundValues.get();
+        if (values == null) {
+            return null;
+        }
+        values.add(value);
+        return parameterName(values.size() - 1);
+    }
+
+    private static String parameterName(int index) {
+        return "p" + index;
+    }
+
+    /**
+     * Hibernate lets the parameters of a type without a basic type, like the enums, be bound to a collection, which keeps
+     * their query out of the plan cache. The values are bound one by one, so their parameters never are.
+     */
+    private static <X> ParameterExpression<X> parameter(CriteriaBuilder builder, Class<X> type, String name) {
+        ParameterExpression<X> parameter = builder.parameter(type, name);
+        if (parameter instanceof JpaCriteriaParameter<X> criteriaParameter) {
+            criteriaParameter.disallowMultiValuedBinding();
+        }
+        return parameter;
+    }
+
+    @SuppressWarnings("unchecked")
+    private static <X> Class<X> typeOf(X value) {
+        return (Class<X>) (value instanceof Enum<?> constant ? constant.getDeclaringClass() : value.getClass());
+    }
+
+    @Override
+    protected <X> Specification<Announcement> equalsSpecification(Function<Root<Announcement>, Expression<X>> metaclassFunction, X value) {
+        String name = bind(value);
+        if (name == null) {
+            return super.equalsSpecification(metaclassFunction, value);
+        }
+        return (root, query, builder) -> builder.equal(metaclassFunction.apply(root), parameter(builder, typeOf(value), name));
+    }
+
+    @Override
+    protected <X> Specification<Announcement> notEqualsSpecification(Function<Root<Announcement>, Expression<X>> metaclassFunction, X value) {
+        String name = bind(value);
+        if (name == null) {
+            return super.notEqualsSpecification(metaclassFunction, value);
+        }
+        return (root, query, builder) -> builder.not(builder.equal(metaclassFunction.apply(root), parameter(builder, typeOf(value), name)));
+    }
+
+    @Override
+    protected Specification<Announcement> likeUpperSpecification(Function<Root<Announcement>, Expression<String>> metaclassFunction, String value) {
+        String name = bind(wrapLikeQuery(value));
+        if (name == null) {
+            return super.likeUpperSpecification(metaclassFunction, value);
+        }
+        return (root, query, builder) -> builder.like(builder.upper(metaclassFunction.apply(root)), parameter(builder, String.class, name));
+    }
+
+    @Override
+    protected Specification<Announcement> doesNotContainSpecification(
+        Function<Root<Announcement>, Expression<String>> metaclassFunction,
+        String value
+    ) {
+        String name = bind(wrapLikeQuery(value));
+        if (name == null) {
+            return super.doesNotContainSpecification(metaclassFunction, value);
+        }
+        return (root, query, builder) ->
+            builder.not(builder.like(builder.upper(metaclassFunction.apply(root)), parameter(builder, String.class, name)));
+    }
+
+    @Override
+    protected <X> Specification<Announcement> valueIn(Function<Root<Announcement>, Expression<X>> metaclassFunction, Collection<X> values) {
+        List<BoundParameter<X>> parameters = bindAll(values);
+        if (parameters == null) {
+            return super.valueIn(metaclassFunction, values);
+        }
+        return (root, query, builder) -> in(builder, metaclassFunction.apply(root), parameters);
+    }
+
+    @Override
+    protected <X> Specification<Announcement> valueNotIn(Function<Root<Announcement>, Expression<X>> metaclassFunction, Collection<X> values) {
+        List<BoundParameter<X>> parameters = bindAll(values);
+        if (parameters == null) {
+            return super.valueNotIn(metaclassFunction, values);
+        }
+        return (root, query, builder) -> builder.not(in(builder, metaclassFunction.apply(root), parameters));
+    }
+
+    @Override
+    protected <X extends Comparable<? super X>> Specification<Announcement> greaterThanOrEqualTo(
+        Function<Root<Announcement>, Expression<X>> metaclassFunction,
+        X value
+    ) {
+        String name = bind(value);
+        if (name == null) {
+            return super.greaterThanOrEqualTo(metaclassFunction, value);
+        }
+        return (root, query, builder) -> builder.greaterThanOrEqualTo(metaclassFunction.apply(root), parameter(builder, typeOf(value), name));
+    }
+
+    @Override
+    protected <X extends Comparable<? super X>> Specification<Announcement> greaterThan(
+        Function<Root<Announcement>, Expression<X>> metaclassFunction,
+        X value
+    ) {
+        String name = bind(value);
+        if (name == null) {
+            return super.greaterThan(metaclassFunction, value);
+        }
+        return (root, query, builder) -> builder.greaterThan(metaclassFunction.apply(root), parameter(builder, typeOf(value), name));
+    }
+
+    @Override
+    protected <X extends Comparable<? super X>> Specification<Announcement> lessThanOrEqualTo(
+        Function<Root<Announcement>, Expression<X>> metaclassFunction,
+        X value
+    ) {
+        String name = bind(value);
+        if (name == null) {
+            return super.lessThanOrEqualTo(metaclassFunction, value);
+        }
+        return (root, query, builder) -> builder.lessThanOrEqualTo(metaclassFunction.apply(root), parameter(builder, typeOf(value), name));
+    }
+
+    @Override
+    protected <X extends Comparable<? super X>> Specification<Announcement> lessThan(
+        Function<Root<Announcement>, Expression<X>> metaclassFunction,
+        X value
+    ) {
+        String name = bind(value);
+        if (name == null) {
+            return super.lessThan(metaclassFunction, value);
+        }
+        return (root, query, builder) -> builder.lessThan(metaclassFunction.apply(root), parameter(builder, typeOf(value), name));
+    }
+
+    /**
+     * Binds every value to its own parameter, a parameter bound to a collection making the query plan uncacheable.
+     * @return the parameters, or {@code null} when the values are left in the query.
+     */
+    private <X> List<BoundParameter<X>> bindAll(Collection<X> values) {
+        if (boundValues.get() == null || values.isEmpty()) {
+            return null;
+        }
+        List<BoundParameter<X>> parameters = new ArrayList<>();
+        for (X value : values) {
+            parameters.add(new BoundParameter<>(typeOf(value), bind(value)));
+        }
+        return parameters;
+    }
+
+    private static <X> Predicate in(CriteriaBuilder builder, Expression<X> expression, List<BoundParameter<X>> parameters) {
+        CriteriaBuilder.In<X> in = builder.in(expression);
+        for (BoundParameter<X> parameter : parameters) {
+            in = in.value(parameter(builder, parameter.type, parameter.name));
+        }
+        return in;
+    }
+
+    private static final class BoundParameter<X> {
+
+        private final Class<X> type;
+
+        private final String name;
+
+        private BoundParameter(Class<X> type, String name) {
+            this.type = type;
+            this.name = name;
+        }
+    }
+
+    /**
+     * Selects the result of a Criteria query on the entities.
+     */
+    @FunctionalInterface
+    private interface Selector<T> {
+        Selection<? extends T> select(CriteriaQuery<T> query, Root<Announcement> root, CriteriaBuilder builder);
+    }
 }
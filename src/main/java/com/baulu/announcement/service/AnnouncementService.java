@@ -2,9 +2,14 @@ package com.baulu.announcement.service;
 
 import com.baulu.announcement.domain.Announcement;
 import com.baulu.announcement.domain.enumeration.Language;
+import com.baulu.announcement.repository.AnnouncementValidators;
+import com.baulu.announcement.service.dto.ActiveAnnouncementsDTO;
 import com.baulu.announcement.service.dto.AnnouncementRequestDTO;
 import com.baulu.announcement.service.dto.AnnouncementResponseDTO;
+import com.baulu.announcement.service.dto.AnnouncementScheduleDTO;
+import com.baulu.announcement.service.dto.enumaration.LanguageFallback;
 
+import java.time.Duration;
 import java.time.Instant;
 import java.util.List;
 import java.util.Optional;
@@ -45,6 +50,14 @@ public interface AnnouncementService {
      */
     Optional<Announcement> findOne(Long id);
 
+    /**
+     * Get the validators of the "id" announcement, from the cached announcement if any, without loading it otherwise.
+     *
+     * @param id the id of the entity.
+     * @return the validators of the entity.
+     */
+    Optional<AnnouncementValidators> findValidators(Long id);
+
     /**
      * Delete the "id" announcement.
      *
@@ -59,4 +72,48 @@ public interface AnnouncementService {
     void deleteAnnouncement(AnnouncementRequestDTO announcementRequestDTO);
 
     List<Announcement> getAnnouncementsByDateAndLanguage(Instant date, Language selectedLanguage);
+
+    /**
+     * Get the announcements active at {@code date} together with the timeline segment they belong to.
+     *
+     * @param date the instant the announcements must be active at.
+     * @param selectedLanguage the language of the announcements.
+     * @return the active announcements and the window in which they stay the same.
+     */
+    ActiveAnnouncementsDTO getActiveAnnouncements(Instant date, Language selectedLanguage);
+
+    /**
+     * Get the announcements active at {@code date} in several languages, merged according to {@code fallback}.
+     *
+     * @param date the instant the announcements must be active at.
+     * @param selectedLanguages the languages of the announcements, in order of preference.
+     * @param fallback how the announcements of the languages are merged.
+     * @param lookahead if not {@code null}, also return the announcements starting within that duration after {@code date}.
+     * @return the merged active announcements and the window in which they stay the same.
+     */
+    ActiveAnnouncementsDTO getActiveAnnouncements(
+        Instant date,
+        List<Language> selectedLanguages,
+        LanguageFallback fallback,
+        Duration lookahead
+    );
+
+    /**
+     * Get the announcements active at each of {@code instants}, evaluated from a single range query.
+     *
+     * @param selectedLanguage the language of the announcements.
+     * @param instants the instants to evaluate.
+     * @return the announcements active at each instant, in chronological order.
+     */
+    AnnouncementScheduleDTO getSchedule(Language selectedLanguage, List<Instant> instants);
+
+    /**
+     * Load the announcements active at {@code date} or starting within {@code lookahead} in every language, so that the
+     * active announcement index and the second-level cache are populated before serving traffic.
+     *
+     * @param date the instant to warm up for.
+     * @param lookahead how far after {@code date} upcoming announcements are preloaded.
+     * @return the number of announcements loaded.
+     */
+    int warmUp(Instant date, Duration lookahead);
 }
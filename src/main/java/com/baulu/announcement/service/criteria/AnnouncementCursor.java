@@ -0,0 +1,136 @@
+package com.baulu.announcement.service.criteria;
+
+import com.baulu.announcement.domain.Announcement;
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.time.format.DateTimeParseException;
+import java.util.Base64;
+import java.util.Set;
+import org.springframework.data.domain.Sort;
+
+/**
+ * Position in a keyset pagination of {@link Announcement} entities: the sort key and id of the last announcement of the
+ * previous page, in the order the pages are sorted in.
+ * <p>
+ * The announcements are sorted on a single property, {@code id}, {@code startDate} or {@code endDate}, then on {@code id}
+ * in the same direction. A {@code null} date is sorted after every other date. The cursor is encoded as an opaque URL safe
+ * string, which also carries the sort, so that the following pages keep it.
+ */
+public final class AnnouncementCursor {
+
+    public static final String ID = "id";
+
+    public static final String START_DATE = "startDate";
+
+    public static final String END_DATE = "endDate";
+
+    private static final Set<String> PROPERTIES = Set.of(ID, START_DATE, END_DATE);
+
+    private static final String SEPARATOR = ",";
+
+    private final String property;
+
+    private final Sort.Direction direction;
+
+    private final Instant value;
+
+    private final Long id;
+
+    private AnnouncementCursor(String property, Sort.Direction direction, Instant value, Long id) {
+        this.property = property;
+        this.direction = direction;
+        this.value = value;
+        this.id = id;
+    }
+
+    /**
+     * @param sort the requested sort, by {@code id} ascending if unsorted; only its first order is used.
+     * @return the cursor of the first page.
+     * @throws IllegalArgumentException if the announcements cannot be sorted on that property.
+     */
+    public static AnnouncementCursor first(Sort sort) {
+        Sort.Order order = sort.stream().findFirst().orElse(Sort.Order.asc(ID));
+        if (!PROPERTIES.contains(order.getProperty())) {
+            throw new IllegalArgumentException("Cannot paginate by cursor on " + order.getProperty() + ", only on " + PROPERTIES);
+        }
+        return new AnnouncementCursor(order.getProperty(), order.getDirection(), null, null);
+    }
+
+    /**
+     * @param encoded a cursor returned by {@link #encode()}.
+     * @return the decoded cursor.
+     * @throws IllegalArgumentException if {@code encoded} is not a valid cursor.
+     */
+    public static AnnouncementCursor decode(String encoded) {
+        try {
+            String[] parts = new String(Base64.getUrlDecoder().decode(encoded), StandardCharsets.UTF_8).split(SEPARATOR, -1);
+            if (parts.length != 4 || !PROPERTIES.contains(parts[0])) {
+                throw new IllegalArgumentException("Invalid cursor: " + encoded);
+            }
+            Instant value = parts[2].isEmpty() || ID.equals(parts[0]) ? null : Instant.parse(parts[2]);
+            Long id = parts[3].isEmpty() ? null : Long.valueOf(parts[3]);
+            return new AnnouncementCursor(parts[0], Sort.Direction.fromString(parts[1]), value, id);
+        } catch (DateTimeParseException | IllegalArgumentException e) {
+            throw new IllegalArgumentException("Invalid cursor: " + encoded, e);
+        }
+    }
+
+    /**
+     * @param last the last announcement of the current page.
+     * @return the cursor of the page following {@code last}.
+     */
+    public AnnouncementCursor next(Announcement last) {
+        Instant lastValue =
+            switch (property) {
+                case START_DATE -> last.getStartDate();
+                case END_DATE -> last.getEndDate();
+                default -> null;
+            };
+        return new AnnouncementCursor(property, direction, lastValue, last.getId());
+    }
+
+    public String encode() {
+        String raw = String.join(
+            SEPARATOR,
+            property,
+            direction.name(),
+            value == null ? "" : value.toString(),
+            id == null ? "" : id.toString()
+        );
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * @return {@code true} for the cursor of the first page, which does not restrict the announcements.
+     */
+    public boolean isFirst() {
+        return id == null;
+    }
+
+    public String getProperty() {
+        return property;
+    }
+
+    public Sort.Direction getDirection() {
+        return direction;
+    }
+
+    /**
+     * @return the sort key of the last announcement of the previous page, {@code null} when sorted on {@code id}.
+     */
+    public Instant getValue() {
+        return value;
+    }
+
+    /**
+     * @return the id of the last announcement of the previous page, {@code null} for the first page.
+     */
+    public Long getId() {
+        return id;
+    }
+
+    @Override
+    public String toString() {
+        return "AnnouncementCursor{property=" + property + ", direction=" + direction + ", value=" + value + ", id=" + id + "}";
+    }
+}
@@ -0,0 +1,118 @@
+package com.baulu.announcement.service.criteria;
+
+import com.baulu.announcement.domain.Announcement;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Sparse fieldset of {@link Announcement}: the properties a client asked for, so that the others, and above all
+ * {@code announcementData}, are neither read nor serialized.
+ * <p>
+ * The {@code id} is always included. The properties are kept in their declaration order whatever the requested order, so
+ * that every request for the same fields builds the same query and the same representation.
+ */
+public final class AnnouncementFields {
+
+    private static final Map<String, Function<Announcement, Object>> PROPERTIES = properties();
+
+    private final List<String> names;
+
+    private AnnouncementFields(List<String> names) {
+        this.names = Collections.unmodifiableList(names);
+    }
+
+    private static Map<String, Function<Announcement, Object>> properties() {
+        Map<String, Function<Announcement, Object>> properties = new LinkedHashMap<>();
+        properties.put("id", Announcement::getId);
+        properties.put("language", Announcement::getLanguage);
+        properties.put("startDate", Announcement::getStartDate);
+        properties.put("endDate", Announcement::getEndDate);
+        properties.put("announcementType", Announcement::getAnnouncementType);
+        properties.put("announcementData", Announcement::getAnnouncementData);
+        properties.put("version", Announcement::getVersion);
+        properties.put("createdBy", Announcement::getCreatedBy);
+        properties.put("createdDate", Announcement::getCreatedDate);
+        properties.put("lastModifiedBy", Announcement::getLastModifiedBy);
+        properties.put("lastModifiedDate", Announcement::getLastModifiedDate);
+        return Collections.unmodifiableMap(properties);
+    }
+
+    /**
+     * @param fields the comma separated names of the requested properties.
+     * @return the fieldset.
+     * @throws IllegalArgumentException if a name is not a property of {@link Announcement}.
+     */
+    public static AnnouncementFields parse(String fields) {
+        Set<String> requested = Arrays.stream(fields.split(","))
+            .map(String::trim)
+            .filter(name -> !name.isEmpty())
+            .collect(Collectors.toCollection(HashSet::new));
+        if (!PROPERTIES.keySet().containsAll(requested)) {
+            requested.removeAll(PROPERTIES.keySet());
+            throw new IllegalArgumentException("Unknown fields " + requested + ", only " + PROPERTIES.keySet() + " are supported");
+        }
+        List<String> names = new ArrayList<>();
+        for (String name : PROPERTIES.keySet()) {
+            if ("id".equals(name) || requested.contains(name)) {
+                names.add(name);
+            }
+        }
+        return new AnnouncementFields(names);
+    }
+
+    /**
+     * @param name the name of a property of {@link Announcement}.
+     * @return the fieldset with this property too.
+     */
+    public AnnouncementFields including(String name) {
+        return parse(this + "," + name);
+    }
+
+    /**
+     * @return the names of the properties, in declaration order.
+     */
+    public List<String> getNames() {
+        return names;
+    }
+
+    /**
+     * @param values the value of each property, by name.
+     * @return the representation of the announcement, limited to the fieldset.
+     */
+    public Map<String, Object> toMap(Function<String, Object> values) {
+        Map<String, Object> map = new LinkedHashMap<>();
+        names.forEach(name -> map.put(name, values.apply(name)));
+        return map;
+    }
+
+    /**
+     * @param announcement an announcement already read.
+     * @return the representation of the announcement, limited to the fieldset.
+     */
+    public Map<String, Object> toMap(Announcement announcement) {
+        return toMap(name -> PROPERTIES.get(name).apply(announcement));
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        return this == o || (o instanceof AnnouncementFields other && names.equals(other.names));
+    }
+
+    @Override
+    public int hashCode() {
+        return names.hashCode();
+    }
+
+    @Override
+    public String toString() {
+        return String.join(",", names);
+    }
+}
@@ -0,0 +1,132 @@
+package com.baulu.announcement.service.dto;
+
+import com.baulu.announcement.domain.Announcement;
+import com.baulu.announcement.domain.enumeration.Language;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Collectors;
+
+/**
+ * The announcements active for a {@link Language} during one segment of the activation timeline.
+ * <p>
+ * A segment is either the open interval between two consecutive {@code startDate}/{@code endDate} boundaries, or a
+ * single boundary instant ({@code validFrom == validUntil}). A {@code null} bound means the segment is unbounded on that
+ * side. The {@code version} changes whenever the content of the segment is recomputed; {@link #UNVERSIONED} marks a
+ * result that was read straight from the database for a single instant.
+ * <p>
+ * The announcements of several languages merged together are the intersection of their segments, identified by the
+ * {@code cacheKey} made of the versions they were merged from.
+ */
+public class ActiveAnnouncementsDTO {
+
+    public static final long UNVERSIONED = 0L;
+
+    private final Language language;
+
+    private final Instant validFrom;
+
+    private final Instant validUntil;
+
+    private final List<Announcement> announcements;
+
+    private final long version;
+
+    private final String cacheKey;
+
+    public ActiveAnnouncementsDTO(Language language, Instant validFrom, Instant validUntil, List<Announcement> announcements, long version) {
+        this(language, validFrom, validUntil, announcements, version, version == UNVERSIONED ? null : language + "@" + version);
+    }
+
+    public ActiveAnnouncementsDTO(
+        Language language,
+        Instant validFrom,
+        Instant validUntil,
+        List<Announcement> announcements,
+        long version,
+        String cacheKey
+    ) {
+        this.language = language;
+        this.validFrom = validFrom;
+        this.validUntil = validUntil;
+        this.announcements = List.copyOf(announcements);
+        this.version = version;
+        this.cacheKey = cacheKey;
+    }
+
+    public Language getLanguage() {
+        return language;
+    }
+
+    public Instant getValidFrom() {
+        return validFrom;
+    }
+
+    public Instant getValidUntil() {
+        return validUntil;
+    }
+
+    public List<Announcement> getAnnouncements() {
+        return announcements;
+    }
+
+    public long getVersion() {
+        return version;
+    }
+
+    /**
+     * Append the announcements starting soon, after the active ones. The segment bounds stay those of the active
+     * announcements; the upcoming ones are a hint for the client, which knows when they start.
+     *
+     * @param upcoming the announcements starting after this segment's instant, in order of {@code startDate}.
+     * @return the active and upcoming announcements.
+     */
+    public ActiveAnnouncementsDTO withUpcoming(List<Announcement> upcoming) {
+        if (upcoming.isEmpty()) {
+            return this;
+        }
+        List<Announcement> all = new ArrayList<>(announcements);
+        all.addAll(upcoming);
+        String key = cacheKey == null
+            ? null
+            : cacheKey + "+" + upcoming.stream().map(announcement -> String.valueOf(announcement.getId())).collect(Collectors.joining(","));
+        return new ActiveAnnouncementsDTO(language, validFrom, validUntil, all, UNVERSIONED, key);
+    }
+
+    /**
+     * @return a key identifying the content of this result, or {@code null} if it was read straight from the database.
+     */
+    public String getCacheKey() {
+        return cacheKey;
+    }
+
+    public boolean isVersioned() {
+        return version != UNVERSIONED;
+    }
+
+    public boolean isInstant() {
+        return validFrom != null && validFrom.equals(validUntil);
+    }
+
+    /**
+     * @param instant the instant to check.
+     * @return whether this segment is the one in effect at {@code instant}.
+     */
+    public boolean contains(Instant instant) {
+        if (isInstant()) {
+            return validFrom.equals(instant);
+        }
+        return (validFrom == null || instant.isAfter(validFrom)) && (validUntil == null || instant.isBefore(validUntil));
+    }
+
+    @Override
+    public String toString() {
+        return "ActiveAnnouncementsDTO{" +
+            "language=" + language +
+            ", validFrom=" + validFrom +
+            ", validUntil=" + validUntil +
+            ", announcements=" + announcements.size() +
+            ", version=" + version +
+            '}';
+    }
+}
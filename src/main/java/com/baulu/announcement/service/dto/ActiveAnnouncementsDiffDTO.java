@@ -0,0 +1,120 @@
+package com.baulu.announcement.service.dto;
+
+import com.baulu.announcement.domain.Announcement;
+import com.baulu.announcement.domain.enumeration.Language;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+
+/**
+ * The changes between two {@link ActiveAnnouncementsDTO} segments of the same {@link Language}: the announcements that
+ * started or were created, the ones that were edited, and the ids of the ones that ended or were deleted.
+ */
+public class ActiveAnnouncementsDiffDTO {
+
+    private final Language language;
+
+    private final long fromVersion;
+
+    private final long version;
+
+    private final List<Announcement> added;
+
+    private final List<Announcement> updated;
+
+    private final List<Long> removed;
+
+    private ActiveAnnouncementsDiffDTO(
+        Language language,
+        long fromVersion,
+        long version,
+        List<Announcement> added,
+        List<Announcement> updated,
+        List<Long> removed
+    ) {
+        this.language = language;
+        this.fromVersion = fromVersion;
+        this.version = version;
+        this.added = List.copyOf(added);
+        this.updated = List.copyOf(updated);
+        this.removed = List.copyOf(removed);
+    }
+
+    /**
+     * @param previous the segment the client has.
+     * @param current the segment now in effect.
+     * @return what to apply to {@code previous} to get {@code current}.
+     */
+    public static ActiveAnnouncementsDiffDTO between(ActiveAnnouncementsDTO previous, ActiveAnnouncementsDTO current) {
+        Map<Long, Announcement> before = new HashMap<>();
+        for (Announcement announcement : previous.getAnnouncements()) {
+            before.put(announcement.getId(), announcement);
+        }
+        List<Announcement> added = new ArrayList<>();
+        List<Announcement> updated = new ArrayList<>();
+        for (Announcement announcement : current.getAnnouncements()) {
+            Announcement old = before.remove(announcement.getId());
+            if (old == null) {
+                added.add(announcement);
+            } else if (!sameContent(old, announcement)) {
+                updated.add(announcement);
+            }
+        }
+        List<Long> removed = new ArrayList<>(before.keySet());
+        removed.sort(null);
+        return new ActiveAnnouncementsDiffDTO(current.getLanguage(), previous.getVersion(), current.getVersion(), added, updated, removed);
+    }
+
+    private static boolean sameContent(Announcement a, Announcement b) {
+        return (
+            a == b ||
+            (a.getLanguage() == b.getLanguage() &&
+                a.getAnnouncementType() == b.getAnnouncementType() &&
+                Objects.equals(a.getStartDate(), b.getStartDate()) &&
+                Objects.equals(a.getEndDate(), b.getEndDate()) &&
+                Objects.equals(a.getAnnouncementData(), b.getAnnouncementData()))
+        );
+    }
+
+    public Language getLanguage() {
+        return language;
+    }
+
+    public long getFromVersion() {
+        return fromVersion;
+    }
+
+    public long getVersion() {
+        return version;
+    }
+
+    public List<Announcement> getAdded() {
+        return added;
+    }
+
+    public List<Announcement> getUpdated() {
+        return updated;
+    }
+
+    public List<Long> getRemoved() {
+        return removed;
+    }
+
+    public boolean isEmpty() {
+        return added.isEmpty() && updated.isEmpty() && removed.isEmpty();
+    }
+
+    @Override
+    public String toString() {
+        return "ActiveAnnouncementsDiffDTO{" +
+            "language=" + language +
+            ", fromVersion=" + fromVersion +
+            ", version=" + version +
+            ", added=" + added.size() +
+            ", updated=" + updated.size() +
+            ", removed=" + removed +
+            '}';
+    }
+}
@@ -0,0 +1,70 @@
+package com.baulu.announcement.service.dto;
+
+import com.baulu.announcement.domain.Announcement;
+import com.baulu.announcement.domain.enumeration.Language;
+import java.time.Instant;
+import java.util.List;
+
+/**
+ * The announcements of a {@link Language} active at each of a series of instants.
+ * <p>
+ * Every announcement is listed once in {@code announcements}, and each entry only refers to the active ones by id.
+ */
+public class AnnouncementScheduleDTO {
+
+    private final Language language;
+
+    private final List<Announcement> announcements;
+
+    private final List<Entry> entries;
+
+    public AnnouncementScheduleDTO(Language language, List<Announcement> announcements, List<Entry> entries) {
+        this.language = language;
+        this.announcements = List.copyOf(announcements);
+        this.entries = List.copyOf(entries);
+    }
+
+    public Language getLanguage() {
+        return language;
+    }
+
+    public List<Announcement> getAnnouncements() {
+        return announcements;
+    }
+
+    public List<Entry> getEntries() {
+        return entries;
+    }
+
+    /**
+     * The ids of the announcements active at one instant.
+     */
+    public static class Entry {
+
+        private final Instant instant;
+
+        private final List<Long> announcementIds;
+
+        public Entry(Instant instant, List<Long> announcementIds) {
+            this.instant = instant;
+            this.announcementIds = List.copyOf(announcementIds);
+        }
+
+        public Instant getInstant() {
+            return instant;
+        }
+
+        public List<Long> getAnnouncementIds() {
+            return announcementIds;
+        }
+    }
+
+    @Override
+    public String toString() {
+        return "AnnouncementScheduleDTO{" +
+            "language=" + language +
+            ", announcements=" + announcements.size() +
+            ", entries=" + entries.size() +
+            '}';
+    }
+}
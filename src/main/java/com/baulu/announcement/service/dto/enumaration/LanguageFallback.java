@@ -0,0 +1,16 @@
+package com.baulu.announcement.service.dto.enumaration;
+
+/**
+ * How the active announcements of several languages, in order of preference, are merged.
+ */
+public enum LanguageFallback {
+    /**
+     * For each {@link com.baulu.announcement.domain.enumeration.AnnouncementType}, keep the announcements of the first
+     * language that has any.
+     */
+    FIRST_MATCH,
+    /**
+     * Keep the announcements of every language, in the order of the languages.
+     */
+    UNION,
+}
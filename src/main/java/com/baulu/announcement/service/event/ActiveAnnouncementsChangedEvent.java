@@ -0,0 +1,41 @@
+package com.baulu.announcement.service.event;
+
+import com.baulu.announcement.domain.enumeration.Language;
+import com.baulu.announcement.service.dto.ActiveAnnouncementsDTO;
+
+/**
+ * Published by the active announcement index whenever the segment in effect for a {@link Language} is replaced, either
+ * because a boundary was reached or because a write changed the current segment.
+ */
+public class ActiveAnnouncementsChangedEvent {
+
+    private final ActiveAnnouncementsDTO previous;
+
+    private final ActiveAnnouncementsDTO current;
+
+    public ActiveAnnouncementsChangedEvent(ActiveAnnouncementsDTO previous, ActiveAnnouncementsDTO current) {
+        this.previous = previous;
+        this.current = current;
+    }
+
+    public Language getLanguage() {
+        return current.getLanguage();
+    }
+
+    public ActiveAnnouncementsDTO getPrevious() {
+        return previous;
+    }
+
+    public ActiveAnnouncementsDTO getCurrent() {
+        return current;
+    }
+
+    @Override
+    public String toString() {
+        return "ActiveAnnouncementsChangedEvent{" +
+            "language=" + getLanguage() +
+            ", previousVersion=" + previous.getVersion() +
+            ", version=" + current.getVersion() +
+            '}';
+    }
+}
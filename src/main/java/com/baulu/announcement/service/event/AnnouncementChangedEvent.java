@@ -0,0 +1,60 @@
+package com.baulu.announcement.service.event;
+
+import com.baulu.announcement.domain.Announcement;
+import com.baulu.announcement.domain.enumeration.Language;
+
+/**
+ * Published by {@link com.baulu.announcement.service.AnnouncementService} whenever an {@link Announcement} is written.
+ * <p>
+ * Listeners that keep derived state should use a {@code @TransactionalEventListener} so they only observe committed data.
+ */
+public class AnnouncementChangedEvent {
+
+    private final Long id;
+
+    private final Language language;
+
+    private final Announcement announcement;
+
+    private AnnouncementChangedEvent(Long id, Language language, Announcement announcement) {
+        this.id = id;
+        this.language = language;
+        this.announcement = announcement;
+    }
+
+    public static AnnouncementChangedEvent saved(Announcement announcement) {
+        return new AnnouncementChangedEvent(announcement.getId(), announcement.getLanguage(), announcement);
+    }
+
+    public static AnnouncementChangedEvent deleted(Long id, Language language) {
+        return new AnnouncementChangedEvent(id, language, null);
+    }
+
+    public Long getId() {
+        return id;
+    }
+
+    /**
+     * @return the language of the announcement after the write, or before it if it was deleted. {@code null} if a deleted
+     * announcement did not exist.
+     */
+    public Language getLanguage() {
+        return language;
+    }
+
+    /**
+     * @return the state of the announcement after the write, or {@code null} if it was deleted.
+     */
+    public Announcement getAnnouncement() {
+        return announcement;
+    }
+
+    public boolean isDeleted() {
+        return announcement == null;
+    }
+
+    @Override
+    public String toString() {
+        return "AnnouncementChangedEvent{" + "id=" + id + ", deleted=" + isDeleted() + '}';
+    }
+}
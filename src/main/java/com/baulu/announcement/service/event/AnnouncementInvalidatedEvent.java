@@ -0,0 +1,37 @@
+package com.baulu.announcement.service.event;
+
+import com.baulu.announcement.domain.enumeration.Language;
+
+/**
+ * Published when another node of the cluster committed a write to an {@link com.baulu.announcement.domain.Announcement}.
+ * <p>
+ * Unlike {@link AnnouncementChangedEvent} it does not carry the new state, listeners reload what they need from the
+ * database, where the write is already committed.
+ */
+public class AnnouncementInvalidatedEvent {
+
+    private final Long id;
+
+    private final Language language;
+
+    public AnnouncementInvalidatedEvent(Long id, Language language) {
+        this.id = id;
+        this.language = language;
+    }
+
+    public Long getId() {
+        return id;
+    }
+
+    /**
+     * @return the language of the announcement after the write, or before it if it was deleted.
+     */
+    public Language getLanguage() {
+        return language;
+    }
+
+    @Override
+    public String toString() {
+        return "AnnouncementInvalidatedEvent{" + "id=" + id + ", language=" + language + '}';
+    }
+}
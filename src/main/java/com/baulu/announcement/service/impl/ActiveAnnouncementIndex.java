@@ -0,0 +1,355 @@
+package com.baulu.announcement.service.impl;
+
+import com.baulu.announcement.config.ApplicationProperties;
+import com.baulu.announcement.domain.Announcement;
+import com.baulu.announcement.domain.enumeration.Language;
+import com.baulu.announcement.repository.AnnouncementRepository;
+import com.baulu.announcement.service.dto.ActiveAnnouncementsDTO;
+import com.baulu.announcement.service.event.ActiveAnnouncementsChangedEvent;
+import com.baulu.announcement.service.event.AnnouncementChangedEvent;
+import com.baulu.announcement.service.event.AnnouncementInvalidatedEvent;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.TaskScheduler;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+/**
+ * In-process index of the announcements that are active now or later, one {@link AnnouncementTimeline} per {@link Language}.
+ * <p>
+ * Readers only ever see an immutable {@link Snapshot}. Writes made through the
+ * {@link com.baulu.announcement.service.AnnouncementService} publish a new snapshot once their transaction commits, and the
+ * whole index is periodically reloaded from the database to pick up anything written behind the service's back. The writes
+ * of the other nodes arrive as {@link AnnouncementInvalidatedEvent}s, and the announcement is reloaded.
+ * <p>
+ * The snapshot also pins the segment currently in effect for each language. When a {@link TaskScheduler} is available, a task
+ * fires on the next boundary and swaps the following segments in, so lookups for "now" do not even need the binary search.
+ * Every time a pinned segment is replaced, an {@link ActiveAnnouncementsChangedEvent} is published.
+ */
+@Component
+public class ActiveAnnouncementIndex {
+
+    private static final int MAX_RECONCILE_ATTEMPTS = 3;
+
+    private final Logger log = LoggerFactory.getLogger(ActiveAnnouncementIndex.class);
+
+    private final AnnouncementRepository announcementRepository;
+
+    private final ApplicationProperties.ActiveIndex properties;
+
+    private final ApplicationEventPublisher eventPublisher;
+
+    private final AtomicReference<Snapshot> snapshot = new AtomicReference<>();
+
+    /**
+     * Incremented on every incremental update, so that a reload which raced with a write is not published.
+     */
+    private final AtomicLong modifications = new AtomicLong();
+
+    private TaskScheduler taskScheduler;
+
+    private ScheduledFuture<?> nextTransition;
+
+    public ActiveAnnouncementIndex(
+        AnnouncementRepository announcementRepository,
+        ApplicationProperties applicationProperties,
+        ApplicationEventPublisher eventPublisher
+    ) {
+        this.announcementRepository = announcementRepository;
+        this.properties = applicationProperties.getActiveIndex();
+        this.eventPublisher = eventPublisher;
+    }
+
+    @Autowired(required = false)
+    public void setTaskScheduler(TaskScheduler taskScheduler) {
+        this.taskScheduler = taskScheduler;
+    }
+
+    /**
+     * Find the segment of the timeline of {@code language} in effect at {@code date}.
+     *
+     * @param date the instant to look up.
+     * @param language the language of the announcements.
+     * @return the active announcements, or an empty {@link Optional} if the index is disabled or does not cover {@code date}.
+     */
+    public Optional<ActiveAnnouncementsDTO> findActive(Instant date, Language language) {
+        if (!properties.isEnabled()) {
+            return Optional.empty();
+        }
+        Snapshot current = currentSnapshot();
+        if (date.isBefore(current.coverageStart)) {
+            return Optional.empty();
+        }
+        ActiveAnnouncementsDTO segment = current.segments.get(language);
+        if (segment != null && segment.contains(date)) {
+            return Optional.of(segment);
+        }
+        return Optional.of(current.timelines.get(language).at(date));
+    }
+
+    /**
+     * Find the announcements of {@code language} starting in {@code [from, until)}.
+     *
+     * @param from the first instant of the window.
+     * @param until the end of the window, excluded.
+     * @param language the language of the announcements.
+     * @return the announcements in order of {@code startDate}, or an empty {@link Optional} if the index is disabled or
+     * does not cover {@code from}.
+     */
+    public Optional<List<Announcement>> findStartingBetween(Instant from, Instant until, Language language) {
+        if (!properties.isEnabled()) {
+            return Optional.empty();
+        }
+        Snapshot current = currentSnapshot();
+        if (from.isBefore(current.coverageStart)) {
+            return Optional.empty();
+        }
+        return Optional.of(
+            current.timelines
+                .get(language)
+                .members()
+                .stream()
+                .filter(a -> !a.getStartDate().isBefore(from) && a.getStartDate().isBefore(until) && a.getEndDate().isAfter(a.getStartDate()))
+                .sorted(Comparator.comparing(Announcement::getStartDate).thenComparing(Announcement::getId))
+                .toList()
+        );
+    }
+
+    /**
+     * Reload the whole index from the database.
+     */
+    @Scheduled(
+        initialDelayString = "${application.active-index.reconcile-interval:PT5M}",
+        fixedDelayString = "${application.active-index.reconcile-interval:PT5M}"
+    )
+    public void reconcile() {
+        if (!properties.isEnabled()) {
+            return;
+        }
+        for (int attempt = 1; attempt <= MAX_RECONCILE_ATTEMPTS; attempt++) {
+            long seen = modifications.get();
+            Snapshot reloaded = load();
+            synchronized (this) {
+                if (modifications.get() == seen) {
+                    publish(reloaded);
+                    log.debug("Reloaded active announcement index with {} announcements", reloaded.members.size());
+                    return;
+                }
+            }
+            log.debug("Active announcement index changed while reloading, retrying ({}/{})", attempt, MAX_RECONCILE_ATTEMPTS);
+        }
+        log.warn("Could not reload the active announcement index, the next scheduled reconcile will retry");
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onAnnouncementChanged(AnnouncementChangedEvent event) {
+        if (!properties.isEnabled()) {
+            return;
+        }
+        synchronized (this) {
+            Snapshot current = snapshot.get();
+            if (current == null) {
+                // Not loaded yet, the first lookup reads the committed state anyway.
+                return;
+            }
+            publish(current.apply(event));
+            modifications.incrementAndGet();
+        }
+        log.debug("Applied {} to the active announcement index", event);
+    }
+
+    /**
+     * Apply a write committed by another node, reloading the announcement from the database.
+     */
+    @EventListener
+    public void onAnnouncementInvalidated(AnnouncementInvalidatedEvent event) {
+        if (!properties.isEnabled()) {
+            return;
+        }
+        onAnnouncementChanged(
+            announcementRepository
+                .findById(event.getId())
+                .map(AnnouncementChangedEvent::saved)
+                .orElseGet(() -> AnnouncementChangedEvent.deleted(event.getId(), event.getLanguage()))
+        );
+    }
+
+    /**
+     * Swap in the segments in effect now, and schedule the next swap on the earliest upcoming boundary.
+     */
+    synchronized void advance() {
+        Snapshot current = snapshot.get();
+        if (current != null) {
+            publish(current);
+        }
+    }
+
+    private Snapshot currentSnapshot() {
+        Snapshot current = snapshot.get();
+        if (current == null) {
+            synchronized (this) {
+                current = snapshot.get();
+                if (current == null) {
+                    current = publish(load());
+                }
+            }
+        }
+        return current;
+    }
+
+    private synchronized Snapshot publish(Snapshot next) {
+        Instant now = Instant.now();
+        Snapshot pinned = next.pinnedAt(now);
+        Snapshot previous = snapshot.getAndSet(pinned);
+        if (previous != null) {
+            pinned.segments.forEach((language, segment) -> {
+                ActiveAnnouncementsDTO replaced = previous.segments.get(language);
+                if (replaced != null && replaced.getVersion() != segment.getVersion()) {
+                    eventPublisher.publishEvent(new ActiveAnnouncementsChangedEvent(replaced, segment));
+                }
+            });
+        }
+
+        if (nextTransition != null) {
+            nextTransition.cancel(false);
+            nextTransition = null;
+        }
+        Instant transition = pinned.nextTransition();
+        if (taskScheduler != null && transition != null) {
+            nextTransition = taskScheduler.schedule(this::advance, transition);
+        }
+        return pinned;
+    }
+
+    private Snapshot load() {
+        Instant coverageStart = Instant.now().minus(properties.getLookback());
+        Map<Long, Announcement> members = new HashMap<>();
+        for (Announcement announcement : announcementRepository.findAllByEndDateAfter(coverageStart)) {
+            if (Snapshot.covers(coverageStart, announcement)) {
+                members.put(announcement.getId(), copyOf(announcement));
+            }
+        }
+        return Snapshot.of(coverageStart, members);
+    }
+
+    /**
+     * The index outlives the persistence context the entity was loaded in, so it keeps its own detached copy.
+     */
+    static Announcement copyOf(Announcement announcement) {
+        Announcement copy = new Announcement()
+            .id(announcement.getId())
+            .language(announcement.getLanguage())
+            .startDate(announcement.getStartDate())
+            .endDate(announcement.getEndDate())
+            .announcementType(announcement.getAnnouncementType())
+            .announcementData(announcement.getAnnouncementData())
+            .version(announcement.getVersion());
+        copy.setCreatedBy(announcement.getCreatedBy());
+        copy.setCreatedDate(announcement.getCreatedDate());
+        copy.setLastModifiedBy(announcement.getLastModifiedBy());
+        copy.setLastModifiedDate(announcement.getLastModifiedDate());
+        return copy;
+    }
+
+    private static final class Snapshot {
+
+        private final Instant coverageStart;
+
+        private final Map<Long, Announcement> members;
+
+        private final Map<Language, AnnouncementTimeline> timelines;
+
+        private final Map<Language, ActiveAnnouncementsDTO> segments;
+
+        private Snapshot(
+            Instant coverageStart,
+            Map<Long, Announcement> members,
+            Map<Language, AnnouncementTimeline> timelines,
+            Map<Language, ActiveAnnouncementsDTO> segments
+        ) {
+            this.coverageStart = coverageStart;
+            this.members = members;
+            this.timelines = timelines;
+            this.segments = segments;
+        }
+
+        static Snapshot of(Instant coverageStart, Map<Long, Announcement> members) {
+            Map<Language, List<Announcement>> byLanguage = new EnumMap<>(Language.class);
+            for (Announcement announcement : members.values()) {
+                byLanguage.computeIfAbsent(announcement.getLanguage(), k -> new ArrayList<>()).add(announcement);
+            }
+            Map<Language, AnnouncementTimeline> timelines = new EnumMap<>(Language.class);
+            for (Language language : Language.values()) {
+                timelines.put(language, AnnouncementTimeline.of(language, byLanguage.getOrDefault(language, List.of())));
+            }
+            return new Snapshot(coverageStart, Collections.unmodifiableMap(members), timelines, Map.of());
+        }
+
+        static boolean covers(Instant coverageStart, Announcement announcement) {
+            return (
+                announcement.getLanguage() != null &&
+                AnnouncementTimeline.hasWindow(announcement) &&
+                announcement.getEndDate().isAfter(coverageStart)
+            );
+        }
+
+        /**
+         * Build the next snapshot, only touching the segments of the languages affected by the event.
+         */
+        Snapshot apply(AnnouncementChangedEvent event) {
+            Map<Long, Announcement> nextMembers = new HashMap<>(members);
+            Announcement previous = nextMembers.remove(event.getId());
+            Announcement next = null;
+            if (event.getAnnouncement() != null && covers(coverageStart, event.getAnnouncement())) {
+                next = copyOf(event.getAnnouncement());
+                nextMembers.put(next.getId(), next);
+            }
+
+            Map<Language, AnnouncementTimeline> nextTimelines = new EnumMap<>(timelines);
+            if (previous != null && next != null && previous.getLanguage() == next.getLanguage()) {
+                nextTimelines.put(next.getLanguage(), timelines.get(next.getLanguage()).with(previous, next));
+            } else {
+                if (previous != null) {
+                    nextTimelines.put(previous.getLanguage(), timelines.get(previous.getLanguage()).with(previous, null));
+                }
+                if (next != null) {
+                    nextTimelines.put(next.getLanguage(), nextTimelines.get(next.getLanguage()).with(null, next));
+                }
+            }
+            return new Snapshot(coverageStart, Collections.unmodifiableMap(nextMembers), nextTimelines, segments);
+        }
+
+        Snapshot pinnedAt(Instant now) {
+            Map<Language, ActiveAnnouncementsDTO> pinned = new EnumMap<>(Language.class);
+            timelines.forEach((language, timeline) -> pinned.put(language, timeline.at(now)));
+            return new Snapshot(coverageStart, members, timelines, pinned);
+        }
+
+        Instant nextTransition() {
+            Instant transition = null;
+            for (ActiveAnnouncementsDTO segment : segments.values()) {
+                Instant until = segment.isInstant() ? segment.getValidUntil().plusMillis(1) : segment.getValidUntil();
+                if (until != null && (transition == null || until.isBefore(transition))) {
+                    transition = until;
+                }
+            }
+            return transition;
+        }
+    }
+}
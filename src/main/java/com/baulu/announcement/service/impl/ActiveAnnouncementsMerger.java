@@ -0,0 +1,68 @@
+package com.baulu.announcement.service.impl;
+
+import com.baulu.announcement.domain.Announcement;
+import com.baulu.announcement.domain.enumeration.AnnouncementType;
+import com.baulu.announcement.service.dto.ActiveAnnouncementsDTO;
+import com.baulu.announcement.service.dto.enumaration.LanguageFallback;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+/**
+ * Merges the active announcements of several languages, given in order of preference, into a single result.
+ * <p>
+ * The merged result stays valid in the intersection of the segments it was merged from, and is cacheable as long as they
+ * all are.
+ */
+final class ActiveAnnouncementsMerger {
+
+    private ActiveAnnouncementsMerger() {}
+
+    static ActiveAnnouncementsDTO merge(List<ActiveAnnouncementsDTO> segments, LanguageFallback fallback) {
+        if (segments.size() == 1) {
+            return segments.get(0);
+        }
+
+        List<Announcement> announcements = new ArrayList<>();
+        Set<AnnouncementType> claimed = EnumSet.noneOf(AnnouncementType.class);
+        for (ActiveAnnouncementsDTO segment : segments) {
+            Set<AnnouncementType> found = EnumSet.noneOf(AnnouncementType.class);
+            for (Announcement announcement : segment.getAnnouncements()) {
+                if (fallback == LanguageFallback.UNION || !claimed.contains(announcement.getAnnouncementType())) {
+                    announcements.add(announcement);
+                    if (announcement.getAnnouncementType() != null) {
+                        found.add(announcement.getAnnouncementType());
+                    }
+                }
+            }
+            claimed.addAll(found);
+        }
+
+        Instant validFrom = null;
+        Instant validUntil = null;
+        boolean versioned = true;
+        for (ActiveAnnouncementsDTO segment : segments) {
+            if (segment.getValidFrom() != null && (validFrom == null || segment.getValidFrom().isAfter(validFrom))) {
+                validFrom = segment.getValidFrom();
+            }
+            if (segment.getValidUntil() != null && (validUntil == null || segment.getValidUntil().isBefore(validUntil))) {
+                validUntil = segment.getValidUntil();
+            }
+            versioned &= segment.getCacheKey() != null;
+        }
+        String cacheKey = versioned
+            ? fallback + ":" + segments.stream().map(ActiveAnnouncementsDTO::getCacheKey).collect(Collectors.joining(","))
+            : null;
+        return new ActiveAnnouncementsDTO(
+            segments.get(0).getLanguage(),
+            validFrom,
+            validUntil,
+            announcements,
+            ActiveAnnouncementsDTO.UNVERSIONED,
+            cacheKey
+        );
+    }
+}
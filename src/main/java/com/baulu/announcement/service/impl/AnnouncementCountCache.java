@@ -0,0 +1,84 @@
+package com.baulu.announcement.service.impl;
+
+import com.baulu.announcement.config.ApplicationProperties;
+import com.baulu.announcement.service.criteria.AnnouncementCriteria;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import java.util.function.LongSupplier;
+import org.springframework.stereotype.Component;
+
+/**
+ * Keeps the number of announcements matching each {@link AnnouncementCriteria}, so that repeated counts do not reach the
+ * database.
+ * <p>
+ * Every count is stamped with the {@link AnnouncementWriteGeneration} it was computed in, and only served in that
+ * generation: all the counts are invalidated at once by the next write, without walking the cache.
+ */
+@Component
+public class AnnouncementCountCache {
+
+    private final boolean enabled;
+
+    private final AnnouncementWriteGeneration writeGeneration;
+
+    private final Cache<AnnouncementCriteria, StampedCount> counts;
+
+    public AnnouncementCountCache(
+        ApplicationProperties applicationProperties,
+        AnnouncementWriteGeneration writeGeneration,
+        MeterRegistry meterRegistry
+    ) {
+        ApplicationProperties.CountCache properties = applicationProperties.getCountCache();
+        this.enabled = properties.isEnabled();
+        this.writeGeneration = writeGeneration;
+        this.counts = Caffeine.newBuilder()
+            .maximumSize(properties.getMaxSize())
+            .expireAfterWrite(properties.getTimeToLive())
+            .recordStats()
+            .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, counts, "announcementCount");
+    }
+
+    /**
+     * @param criteria the criteria of the counted announcements.
+     * @param counter counts the announcements in the database, when the current generation has no count yet.
+     * @return the number of announcements matching {@code criteria}.
+     */
+    public long get(AnnouncementCriteria criteria, LongSupplier counter) {
+        if (!enabled) {
+            return counter.getAsLong();
+        }
+        AnnouncementCriteria key = normalize(criteria);
+        long current = writeGeneration.current();
+        StampedCount stamped = counts.getIfPresent(key);
+        if (stamped != null && stamped.generation == current) {
+            return stamped.count;
+        }
+        long count = counter.getAsLong();
+        counts.asMap().merge(key, new StampedCount(current, count), (old, computed) -> old.generation > computed.generation ? old : computed);
+        return count;
+    }
+
+    /**
+     * Entities are selected without joins, so {@code distinct} does not change the count.
+     */
+    static AnnouncementCriteria normalize(AnnouncementCriteria criteria) {
+        AnnouncementCriteria key = criteria == null ? new AnnouncementCriteria() : criteria.copy();
+        key.setDistinct(null);
+        return key;
+    }
+
+    private static final class StampedCount {
+
+        private final long generation;
+
+        private final long count;
+
+        private StampedCount(long generation, long count) {
+            this.generation = generation;
+            this.count = count;
+        }
+    }
+}
@@ -0,0 +1,118 @@
+package com.baulu.announcement.service.impl;
+
+import com.baulu.announcement.config.ApplicationProperties;
+import com.baulu.announcement.domain.Announcement;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.persistence.EntityManager;
+import java.util.ArrayList;
+import java.util.List;
+import org.hibernate.CacheMode;
+import org.hibernate.Session;
+import org.hibernate.SessionEventListener;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Component;
+
+/**
+ * Resolves {@link Announcement}s by id, reading them from the Hibernate second-level cache when they are there and
+ * fetching only the misses from the database.
+ * <p>
+ * The ids go through a single Hibernate multi-load, which looks each of them up once in the second-level cache, and
+ * fetches the remaining ones in batches of {@code application.active-query.batch-size} ids. Loading the misses puts them
+ * into the cache in turn. Session checking is not enabled, so the persistence context is not searched before the cache;
+ * the rows fetched for ids already managed still resolve to the managed announcements.
+ * <p>
+ * The lookups of the multi-load are counted as {@code announcement.hydration} hits and misses. Unlike the metrics of the
+ * cache region, they leave out the other loads of announcements, such as {@code findOne}.
+ */
+@Component
+public class AnnouncementHydrator {
+
+    private final Logger log = LoggerFactory.getLogger(AnnouncementHydrator.class);
+
+    private final EntityManager entityManager;
+
+    private final ApplicationProperties.ActiveQuery properties;
+
+    private final Counter hits;
+
+    private final Counter misses;
+
+    public AnnouncementHydrator(EntityManager entityManager, ApplicationProperties applicationProperties, MeterRegistry meterRegistry) {
+        this.entityManager = entityManager;
+        this.properties = applicationProperties.getActiveQuery();
+        this.hits = Counter
+            .builder("announcement.hydration")
+            .description("Announcements resolved by id from the second-level cache")
+            .tag("result", "hit")
+            .register(meterRegistry);
+        this.misses = Counter
+            .builder("announcement.hydration")
+            .description("Announcements resolved by id from the second-level cache")
+            .tag("result", "miss")
+            .register(meterRegistry);
+    }
+
+    /**
+     * Must run inside a transaction, so that the cached entities and the fetched ones share the persistence context.
+     *
+     * @param ids the ids to resolve.
+     * @return the announcements in the order of {@code ids}, skipping the ids that do not exist anymore.
+     */
+    public List<Announcement> hydrate(List<Long> ids) {
+        if (ids.isEmpty()) {
+            return List.of();
+        }
+        Session session = entityManager.unwrap(Session.class);
+        CacheLookups lookups = new CacheLookups();
+        session.addEventListeners(lookups);
+        List<Announcement> loaded;
+        try {
+            loaded = session
+                .byMultipleIds(Announcement.class)
+                .with(CacheMode.NORMAL)
+                .withBatchSize(Math.max(1, properties.getBatchSize()))
+                .enableOrderedReturn(true)
+                .multiLoad(ids);
+        } finally {
+            lookups.recording = false;
+        }
+        hits.increment(lookups.hits);
+        misses.increment(lookups.misses);
+
+        List<Announcement> announcements = new ArrayList<>(ids.size());
+        for (Announcement announcement : loaded) {
+            if (announcement != null) {
+                announcements.add(announcement);
+            }
+        }
+        log.debug("Hydrated {} of {} announcements, {} from the second-level cache", announcements.size(), ids.size(), lookups.hits);
+        return announcements;
+    }
+
+    /**
+     * Counts the second-level cache lookups of the session during one multi-load. Session listeners cannot be removed, so
+     * it stops recording afterwards and ignores the later loads of the transaction.
+     */
+    private static final class CacheLookups implements SessionEventListener {
+
+        private boolean recording = true;
+
+        private int hits;
+
+        private int misses;
+
+        @Override
+        public void cacheGetEnd(boolean hit) {
+            if (!recording) {
+                return;
+            }
+            if (hit) {
+                hits++;
+            } else {
+                misses++;
+            }
+        }
+    }
+}
@@ -0,0 +1,124 @@
+package com.baulu.announcement.service.impl;
+
+import com.baulu.announcement.config.ApplicationProperties;
+import com.baulu.announcement.repository.AnnouncementValidators;
+import com.baulu.announcement.service.criteria.AnnouncementCriteria;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import java.util.List;
+import java.util.Objects;
+import java.util.function.Supplier;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.stereotype.Component;
+
+/**
+ * Keeps the {@link AnnouncementValidators} of the announcements matching each {@link AnnouncementCriteria} and page, so
+ * that repeated searches are answered without reaching the database: the {@code ETag} of the page is derived from them,
+ * and the announcements are resolved by {@link AnnouncementHydrator} from the second-level cache.
+ * <p>
+ * Only the validators are kept, the announcements themselves stay in their second-level cache region, where the writes
+ * update them. Like {@link AnnouncementCountCache}, the validators are stamped with the {@link AnnouncementWriteGeneration}
+ * they were read in, and are only served in that generation, in which no announcement changed since. Unpaged searches are
+ * never cached.
+ */
+@Component
+public class AnnouncementResultCache {
+
+    private final boolean enabled;
+
+    private final AnnouncementWriteGeneration writeGeneration;
+
+    private final Cache<ResultKey, StampedValidators> results;
+
+    public AnnouncementResultCache(
+        ApplicationProperties applicationProperties,
+        AnnouncementWriteGeneration writeGeneration,
+        MeterRegistry meterRegistry
+    ) {
+        ApplicationProperties.ResultCache properties = applicationProperties.getResultCache();
+        this.enabled = properties.isEnabled();
+        this.writeGeneration = writeGeneration;
+        this.results = Caffeine.newBuilder()
+            .maximumSize(properties.getMaxSize())
+            .expireAfterWrite(properties.getTimeToLive())
+            .recordStats()
+            .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, results, "announcementResult");
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * @param criteria the criteria of the announcements.
+     * @param page the page of the announcements.
+     * @param query reads the validators of the page from the database, when the current generation has none for it yet.
+     * @return the validators of the announcements of the page, in their order.
+     */
+    public List<AnnouncementValidators> get(AnnouncementCriteria criteria, Pageable page, Supplier<List<AnnouncementValidators>> query) {
+        if (!enabled || page.isUnpaged()) {
+            return query.get();
+        }
+        ResultKey key = new ResultKey(AnnouncementCountCache.normalize(criteria), page);
+        long current = writeGeneration.current();
+        StampedValidators stamped = results.getIfPresent(key);
+        if (stamped != null && stamped.generation == current) {
+            return stamped.validators;
+        }
+        List<AnnouncementValidators> validators = List.copyOf(query.get());
+        results
+            .asMap()
+            .merge(key, new StampedValidators(current, validators), (old, read) -> old.generation > read.generation ? old : read);
+        return validators;
+    }
+
+    private static final class ResultKey {
+
+        private final AnnouncementCriteria criteria;
+
+        private final long offset;
+
+        private final int size;
+
+        private final Sort sort;
+
+        private ResultKey(AnnouncementCriteria criteria, Pageable page) {
+            this.criteria = criteria;
+            this.offset = page.getOffset();
+            this.size = page.getPageSize();
+            this.sort = page.getSort();
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) {
+                return true;
+            }
+            if (!(o instanceof ResultKey other)) {
+                return false;
+            }
+            return offset == other.offset && size == other.size && criteria.equals(other.criteria) && sort.equals(other.sort);
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(criteria, offset, size, sort);
+        }
+    }
+
+    private static final class StampedValidators {
+
+        private final long generation;
+
+        private final List<AnnouncementValidators> validators;
+
+        private StampedValidators(long generation, List<AnnouncementValidators> validators) {
+            this.generation = generation;
+            this.validators = validators;
+        }
+    }
+}
@@ -1,21 +1,39 @@
 package com.baulu.announcement.service.impl;
 
+import com.baulu.announcement.config.ApplicationProperties;
 import com.baulu.announcement.domain.Announcement;
 import com.baulu.announcement.domain.enumeration.Language;
 import com.baulu.announcement.repository.AnnouncementRepository;
+import com.baulu.announcement.repository.AnnouncementValidators;
 import com.baulu.announcement.service.AnnouncementService;
+import com.baulu.announcement.service.dto.ActiveAnnouncementsDTO;
 import com.baulu.announcement.service.dto.AnnouncementRequestDTO;
 import com.baulu.announcement.service.dto.AnnouncementResponseDTO;
+import com.baulu.announcement.service.dto.AnnouncementScheduleDTO;
+import com.baulu.announcement.service.dto.enumaration.LanguageFallback;
 import com.baulu.announcement.service.dto.enumaration.RequestType;
+import com.baulu.announcement.service.event.AnnouncementChangedEvent;
+import io.micrometer.core.instrument.MeterRegistry;
 import jakarta.ws.rs.NotFoundException;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.event.TransactionalEventListener;
 
+import java.time.Duration;
 import java.time.Instant;
+import java.util.ArrayList;
+import java.util.EnumMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.TreeMap;
+import java.util.function.Supplier;
 
 /**
  * Service Implementation for managing {@link com.baulu.announcement.domain.Announcement}.
@@ -28,20 +46,56 @@ public class AnnouncementServiceImpl implements AnnouncementService {
 
     private final AnnouncementRepository announcementRepository;
 
-    public AnnouncementServiceImpl(AnnouncementRepository announcementRepository) {
+    private final ActiveAnnouncementIndex activeAnnouncementIndex;
+
+    private final AnnouncementHydrator announcementHydrator;
+
+    private final ApplicationEventPublisher eventPublisher;
+
+    private final ApplicationProperties.ActiveQuery activeQuery;
+
+    private final ApplicationProperties.Coalescing coalescing;
+
+    private final SingleFlight<Long, Optional<Announcement>> findOneFlight;
+
+    private final SingleFlight<List<Object>, List<Announcement>> activeFlight;
+
+    private final Cache announcementByIdCache;
+
+    public AnnouncementServiceImpl(
+        AnnouncementRepository announcementRepository,
+        ActiveAnnouncementIndex activeAnnouncementIndex,
+        AnnouncementHydrator announcementHydrator,
+        ApplicationEventPublisher eventPublisher,
+        ApplicationProperties applicationProperties,
+        MeterRegistry meterRegistry,
+        CacheManager cacheManager
+    ) {
         this.announcementRepository = announcementRepository;
+        this.activeAnnouncementIndex = activeAnnouncementIndex;
+        this.announcementHydrator = announcementHydrator;
+        this.eventPublisher = eventPublisher;
+        this.activeQuery = applicationProperties.getActiveQuery();
+        this.coalescing = applicationProperties.getCoalescing();
+        this.findOneFlight = new SingleFlight<>("findOne", coalescing.getMaxWait(), meterRegistry);
+        this.activeFlight = new SingleFlight<>("active", coalescing.getMaxWait(), meterRegistry);
+        this.announcementByIdCache = cacheManager.getCache(AnnouncementRepository.ANNOUNCEMENT_BY_ID_CACHE);
     }
 
     @Override
     public Announcement save(Announcement announcement) {
         log.debug("Request to save Announcement : {}", announcement);
-        return announcementRepository.save(announcement);
+        return saveAndPublish(announcement);
     }
 
     @Override
     public Announcement update(Announcement announcement) {
         log.debug("Request to update Announcement : {}", announcement);
-        return announcementRepository.save(announcement);
+        if (announcement.getVersion() == null) {
+            // Without a version the update is not checked for conflicts, and would be taken for a new entity
+            announcementRepository.findValidatorsById(announcement.getId()).ifPresent(current -> announcement.setVersion(current.getVersion()));
+        }
+        return saveAndPublish(announcement);
     }
 
     @Override
@@ -69,20 +123,45 @@ public class AnnouncementServiceImpl implements AnnouncementService {
 
                 return existingAnnouncement;
             })
-            .map(announcementRepository::save);
+            .map(this::saveAndPublish);
     }
 
     @Override
     @Transactional(readOnly = true)
     public Optional<Announcement> findOne(Long id) {
         log.debug("Request to get Announcement : {}", id);
-        return announcementRepository.findById(id);
+        // Served stale while it is refreshed in the background, see application.local-cache.caches.announcementById
+        try {
+            Announcement cached = announcementByIdCache.get(id, () ->
+                coalesce(findOneFlight, id, () -> announcementRepository.findById(id))
+                    .map(ActiveAnnouncementIndex::copyOf)
+                    .orElseThrow(() -> new AnnouncementNotFoundException(id))
+            );
+            // The local tier and the coalesced lookups hand the same instance to every caller, each one gets its own copy
+            return Optional.of(ActiveAnnouncementIndex.copyOf(cached));
+        } catch (Cache.ValueRetrievalException e) {
+            if (e.getCause() instanceof AnnouncementNotFoundException) {
+                return Optional.empty();
+            }
+            throw e;
+        }
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public Optional<AnnouncementValidators> findValidators(Long id) {
+        log.debug("Request to get the validators of Announcement : {}", id);
+        Cache.ValueWrapper cached = announcementByIdCache.get(id);
+        if (cached != null) {
+            return Optional.ofNullable((Announcement) cached.get()).map(AnnouncementValidators::of);
+        }
+        return announcementRepository.findValidatorsById(id);
     }
 
     @Override
     public void delete(Long id) {
         log.debug("Request to delete Announcement : {}", id);
-        announcementRepository.deleteById(id);
+        deleteAndPublish(id);
     }
 
     @Override
@@ -96,7 +175,7 @@ public class AnnouncementServiceImpl implements AnnouncementService {
             .startDate(announcementRequestDTO.getStartDate())
             .language(announcementRequestDTO.getSelectedLanguage());
 
-        newAnnouncement = announcementRepository.save(newAnnouncement);
+        newAnnouncement = saveAndPublish(newAnnouncement);
 
         return new AnnouncementResponseDTO()
             .announcement(newAnnouncement)
@@ -120,7 +199,7 @@ public class AnnouncementServiceImpl implements AnnouncementService {
             .startDate(announcementRequestDTO.getStartDate())
             .endDate(announcementRequestDTO.getEndDate());
 
-        updatedAnnouncement = this.announcementRepository.save(updatedAnnouncement);
+        updatedAnnouncement = saveAndPublish(updatedAnnouncement);
 
         return new AnnouncementResponseDTO()
             .announcement(updatedAnnouncement)
@@ -136,31 +215,166 @@ public class AnnouncementServiceImpl implements AnnouncementService {
         Optional.ofNullable(announcementRequestDTO.getAnnouncementId())
             .orElseThrow(() -> new IllegalArgumentException("Id can not be null"));
 
-        this.announcementRepository.deleteById(announcementRequestDTO.getAnnouncementId());
+        deleteAndPublish(announcementRequestDTO.getAnnouncementId());
     }
 
     @Override
+    @Transactional(readOnly = true)
     public List<Announcement> getAnnouncementsByDateAndLanguage(Instant date, Language selectedLanguage) {
-        log.info("Retrieving announcements for date: {} and language: {}", date, selectedLanguage);
+        return getActiveAnnouncements(date, selectedLanguage).getAnnouncements();
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public ActiveAnnouncementsDTO getActiveAnnouncements(Instant date, Language selectedLanguage) {
+        if (selectedLanguage == null) {
+            throw new IllegalArgumentException("Language parameter cannot be null");
+        }
+        return getActiveAnnouncements(date, List.of(selectedLanguage), LanguageFallback.FIRST_MATCH, null);
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public ActiveAnnouncementsDTO getActiveAnnouncements(
+        Instant date,
+        List<Language> selectedLanguages,
+        LanguageFallback fallback,
+        Duration lookahead
+    ) {
+        log.info("Retrieving announcements for date: {} and languages: {}", date, selectedLanguages);
 
         if (date == null) {
             throw new IllegalArgumentException("Date parameter cannot be null");
         }
-        if (selectedLanguage == null) {
+        if (selectedLanguages == null || selectedLanguages.isEmpty() || selectedLanguages.contains(null)) {
             throw new IllegalArgumentException("Language parameter cannot be null");
         }
+        if (fallback == null) {
+            throw new IllegalArgumentException("Fallback parameter cannot be null");
+        }
+        if (lookahead != null && lookahead.isNegative()) {
+            throw new IllegalArgumentException("Lookahead parameter cannot be negative");
+        }
+        List<Language> languages = selectedLanguages.stream().distinct().toList();
+
+        Map<Language, ActiveAnnouncementsDTO> segments = new EnumMap<>(Language.class);
+        List<Language> notIndexed = new ArrayList<>();
+        for (Language language : languages) {
+            activeAnnouncementIndex.findActive(date, language).ifPresentOrElse(
+                segment -> segments.put(language, segment),
+                () -> notIndexed.add(language)
+            );
+        }
+        if (!notIndexed.isEmpty()) {
+            List<Announcement> announcements = coalesce(activeFlight, List.of(date, notIndexed), () -> findByDateAndLanguages(date, notIndexed));
+            for (Language language : notIndexed) {
+                List<Announcement> ofLanguage = announcements.stream().filter(a -> a.getLanguage() == language).toList();
+                segments.put(language, new ActiveAnnouncementsDTO(language, date, date, ofLanguage, ActiveAnnouncementsDTO.UNVERSIONED));
+            }
+        }
 
-        List<Announcement> announcements = announcementRepository.findByDateAndLanguage(date, selectedLanguage);
+        if (lookahead != null && !lookahead.isZero()) {
+            Instant until = date.plus(lookahead);
+            segments.replaceAll((language, segment) ->
+                segment.withUpcoming(
+                    activeAnnouncementIndex
+                        .findStartingBetween(date, until, language)
+                        .orElseGet(() -> announcementRepository.findAllStartingBetween(date, until, language))
+                )
+            );
+        }
+
+        ActiveAnnouncementsDTO activeAnnouncements = ActiveAnnouncementsMerger.merge(
+            languages.stream().map(segments::get).toList(),
+            fallback
+        );
 
-        if (announcements.isEmpty()) {
-            log.info("No announcements found for date: {} and language: {}", date, selectedLanguage);
+        if (activeAnnouncements.getAnnouncements().isEmpty()) {
+            log.info("No announcements found for date: {} and languages: {}", date, languages);
         } else {
-            log.info("{} announcements found for date: {} and language: {}", announcements.size(), date, selectedLanguage);
+            log.info("{} announcements found for date: {} and languages: {}", activeAnnouncements.getAnnouncements().size(), date, languages);
         }
 
-        return announcements;
+        return activeAnnouncements;
     }
 
+    @Override
+    @Transactional(readOnly = true)
+    public AnnouncementScheduleDTO getSchedule(Language selectedLanguage, List<Instant> instants) {
+        if (selectedLanguage == null) {
+            throw new IllegalArgumentException("Language parameter cannot be null");
+        }
+        if (instants == null) {
+            throw new IllegalArgumentException("Instants parameter cannot be null");
+        }
+        log.debug("Request to get the schedule of language: {} at {} instants", selectedLanguage, instants.size());
+        List<Instant> sorted = instants.stream().distinct().sorted().toList();
+        if (sorted.isEmpty()) {
+            return new AnnouncementScheduleDTO(selectedLanguage, List.of(), List.of());
+        }
+
+        List<List<Announcement>> activeAt = AnnouncementTimeline.sweep(
+            announcementRepository.findAllOverlapping(sorted.get(0), sorted.get(sorted.size() - 1), selectedLanguage),
+            sorted
+        );
+        Map<Long, Announcement> announcements = new TreeMap<>();
+        List<AnnouncementScheduleDTO.Entry> entries = new ArrayList<>(sorted.size());
+        for (int i = 0; i < sorted.size(); i++) {
+            List<Announcement> active = activeAt.get(i);
+            active.forEach(announcement -> announcements.putIfAbsent(announcement.getId(), announcement));
+            entries.add(new AnnouncementScheduleDTO.Entry(sorted.get(i), active.stream().map(Announcement::getId).toList()));
+        }
+        return new AnnouncementScheduleDTO(selectedLanguage, new ArrayList<>(announcements.values()), entries);
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public int warmUp(Instant date, Duration lookahead) {
+        log.debug("Request to warm up the announcements active at {} or starting within {}", date, lookahead);
+        int loaded = 0;
+        for (Language language : Language.values()) {
+            // Loading the entities puts them in the second-level cache, and the lookup below loads the index.
+            loaded += announcementRepository.findAllOverlapping(date, date.plus(lookahead), language).size();
+            getActiveAnnouncements(date, List.of(language), LanguageFallback.FIRST_MATCH, lookahead);
+        }
+        return loaded;
+    }
+
+    /**
+     * Evict the written announcement again once the write is committed, a read that raced with it may have cached the
+     * previous state.
+     */
+    @TransactionalEventListener(fallbackExecution = true)
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public void onAnnouncementChanged(AnnouncementChangedEvent event) {
+        announcementByIdCache.evict(event.getId());
+    }
+
+    private <K, V> V coalesce(SingleFlight<K, V> flight, K key, Supplier<V> lookup) {
+        return coalescing.isEnabled() ? flight.execute(key, lookup) : lookup.get();
+    }
+
+    private List<Announcement> findByDateAndLanguages(Instant date, List<Language> selectedLanguages) {
+        if (activeQuery.getMode() == ApplicationProperties.ActiveQuery.Mode.ID_FIRST) {
+            return announcementHydrator.hydrate(announcementRepository.findIdsByDateAndLanguageIn(date, selectedLanguages));
+        }
+        return announcementRepository.findByDateAndLanguageIn(date, selectedLanguages);
+    }
+
+    private Announcement saveAndPublish(Announcement announcement) {
+        Announcement result = announcementRepository.save(announcement);
+        announcementByIdCache.evict(result.getId());
+        eventPublisher.publishEvent(AnnouncementChangedEvent.saved(result));
+        return result;
+    }
+
+    private void deleteAndPublish(Long id) {
+        // Loads the entity deleteById loads anyway, so it costs no extra query.
+        Language language = announcementRepository.findById(id).map(Announcement::getLanguage).orElse(null);
+        announcementRepository.deleteById(id);
+        announcementByIdCache.evict(id);
+        eventPublisher.publishEvent(AnnouncementChangedEvent.deleted(id, language));
+    }
 
     private void validateRequest(AnnouncementRequestDTO requestDTO, RequestType expectedType) {
         if (requestDTO.getRequestType() != expectedType) {
@@ -192,4 +406,14 @@ public class AnnouncementServiceImpl implements AnnouncementService {
             throw new IllegalArgumentException(message);
         }
     }
+
+    /**
+     * Aborts the cache load of an unknown id, so that the miss is not cached.
+     */
+    private static final class AnnouncementNotFoundException extends RuntimeException {
+
+        private AnnouncementNotFoundException(Long id) {
+            super("Announcement " + id + " not found", null, false, false);
+        }
+    }
 }
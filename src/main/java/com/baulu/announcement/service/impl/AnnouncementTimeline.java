@@ -0,0 +1,253 @@
+package com.baulu.announcement.service.impl;
+
+import com.baulu.announcement.domain.Announcement;
+import com.baulu.announcement.domain.enumeration.Language;
+import com.baulu.announcement.service.dto.ActiveAnnouncementsDTO;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.TreeMap;
+import java.util.TreeSet;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Immutable, precomputed activation timeline of the {@link Announcement}s of one {@link Language}.
+ * <p>
+ * Every distinct {@code startDate}/{@code endDate} is a boundary. With {@code m} boundaries the timeline holds
+ * {@code 2m + 1} segments: the open intervals before, between and after the boundaries, and the boundary instants
+ * themselves, because with {@code startDate < instant < endDate} an announcement is never active exactly on its own
+ * boundaries. A lookup is a binary search over the boundaries that returns the precomputed segment.
+ */
+final class AnnouncementTimeline {
+
+    private static final AtomicLong VERSIONS = new AtomicLong();
+
+    private static final Comparator<Announcement> BY_ID = Comparator.comparing(Announcement::getId);
+
+    private final Language language;
+
+    private final Map<Long, Announcement> members;
+
+    private final Instant[] boundaries;
+
+    private final ActiveAnnouncementsDTO[] segments;
+
+    private AnnouncementTimeline(Language language, Map<Long, Announcement> members, Instant[] boundaries, ActiveAnnouncementsDTO[] segments) {
+        this.language = language;
+        this.members = members;
+        this.boundaries = boundaries;
+        this.segments = segments;
+    }
+
+    static boolean hasWindow(Announcement announcement) {
+        return announcement.getStartDate() != null && announcement.getEndDate() != null;
+    }
+
+    /**
+     * Build the timeline with a single sweep over the sorted boundaries.
+     */
+    static AnnouncementTimeline of(Language language, Collection<Announcement> announcements) {
+        Map<Long, Announcement> members = new HashMap<>();
+        Map<Instant, List<Announcement>> starting = new HashMap<>();
+        Map<Instant, List<Announcement>> ending = new HashMap<>();
+        for (Announcement announcement : announcements) {
+            if (hasWindow(announcement)) {
+                members.put(announcement.getId(), announcement);
+                starting.computeIfAbsent(announcement.getStartDate(), k -> new ArrayList<>()).add(announcement);
+                ending.computeIfAbsent(announcement.getEndDate(), k -> new ArrayList<>()).add(announcement);
+            }
+        }
+        Instant[] boundaries = boundariesOf(members.values());
+
+        ActiveAnnouncementsDTO[] segments = new ActiveAnnouncementsDTO[boundaries.length * 2 + 1];
+        TreeMap<Long, Announcement> active = new TreeMap<>();
+        for (int j = 0; j < boundaries.length; j++) {
+            Instant boundary = boundaries[j];
+            segments[2 * j] = segment(language, j == 0 ? null : boundaries[j - 1], boundary, active.values());
+            for (Announcement announcement : ending.getOrDefault(boundary, List.of())) {
+                active.remove(announcement.getId());
+            }
+            segments[2 * j + 1] = segment(language, boundary, boundary, active.values());
+            for (Announcement announcement : starting.getOrDefault(boundary, List.of())) {
+                active.put(announcement.getId(), announcement);
+            }
+        }
+        segments[boundaries.length * 2] = segment(
+            language,
+            boundaries.length == 0 ? null : boundaries[boundaries.length - 1],
+            null,
+            active.values()
+        );
+        return new AnnouncementTimeline(language, Collections.unmodifiableMap(members), boundaries, segments);
+    }
+
+    /**
+     * Evaluate the active announcements at each of the sorted {@code instants} with a single sweep, without building the
+     * segments in between.
+     *
+     * @param announcements the announcements to evaluate.
+     * @param instants the instants, in ascending order.
+     * @return for each instant, the announcements active at it ordered by id.
+     */
+    static List<List<Announcement>> sweep(Collection<Announcement> announcements, List<Instant> instants) {
+        List<Announcement> byStart = new ArrayList<>();
+        for (Announcement announcement : announcements) {
+            if (hasWindow(announcement)) {
+                byStart.add(announcement);
+            }
+        }
+        List<Announcement> byEnd = new ArrayList<>(byStart);
+        byStart.sort(Comparator.comparing(Announcement::getStartDate));
+        byEnd.sort(Comparator.comparing(Announcement::getEndDate));
+
+        List<List<Announcement>> result = new ArrayList<>(instants.size());
+        TreeMap<Long, Announcement> active = new TreeMap<>();
+        int started = 0;
+        int ended = 0;
+        for (Instant instant : instants) {
+            while (started < byStart.size() && byStart.get(started).getStartDate().isBefore(instant)) {
+                Announcement announcement = byStart.get(started++);
+                active.put(announcement.getId(), announcement);
+            }
+            while (ended < byEnd.size() && !byEnd.get(ended).getEndDate().isAfter(instant)) {
+                active.remove(byEnd.get(ended++).getId());
+            }
+            result.add(List.copyOf(active.values()));
+        }
+        return result;
+    }
+
+    int size() {
+        return members.size();
+    }
+
+    Collection<Announcement> members() {
+        return members.values();
+    }
+
+    /**
+     * @param instant the instant to look up.
+     * @return the segment in effect at {@code instant}.
+     */
+    ActiveAnnouncementsDTO at(Instant instant) {
+        return segments[segmentIndex(boundaries, instant)];
+    }
+
+    /**
+     * Replace {@code previous} by {@code next}, recomputing only the segments that overlap either of their windows.
+     * Segments outside of that range are shared with this timeline and keep their version.
+     *
+     * @param previous the announcement leaving this timeline, or {@code null}.
+     * @param next the announcement entering this timeline, or {@code null}.
+     * @return the updated timeline.
+     */
+    AnnouncementTimeline with(Announcement previous, Announcement next) {
+        if (previous != null && !members.containsKey(previous.getId())) {
+            previous = null;
+        }
+        if (next != null && !hasWindow(next)) {
+            next = null;
+        }
+        if (previous == null && next == null) {
+            return this;
+        }
+
+        Map<Long, Announcement> nextMembers = new HashMap<>(members);
+        if (previous != null) {
+            nextMembers.remove(previous.getId());
+            previous = members.get(previous.getId());
+        }
+        if (next != null) {
+            nextMembers.put(next.getId(), next);
+        }
+        Instant[] nextBoundaries = boundariesOf(nextMembers.values());
+
+        Instant lo = earliest(previous == null ? null : previous.getStartDate(), next == null ? null : next.getStartDate());
+        Instant hi = latest(previous == null ? null : previous.getEndDate(), next == null ? null : next.getEndDate());
+
+        ActiveAnnouncementsDTO[] nextSegments = new ActiveAnnouncementsDTO[nextBoundaries.length * 2 + 1];
+        for (int i = 0; i < nextSegments.length; i++) {
+            Instant from = i == 0 ? null : nextBoundaries[(i - 1) / 2];
+            Instant until = i == nextSegments.length - 1 ? null : nextBoundaries[i / 2];
+            boolean instant = i % 2 == 1;
+
+            ActiveAnnouncementsDTO old = instant ? at(from) : segmentAfter(from);
+            boolean outsideChange = (until != null && !until.isAfter(lo)) || (from != null && !from.isBefore(hi));
+            if (outsideChange && sameBounds(old, from, until)) {
+                nextSegments[i] = old;
+                continue;
+            }
+
+            List<Announcement> active = new ArrayList<>(old.getAnnouncements());
+            if (previous != null) {
+                active.remove(previous);
+            }
+            if (next != null && (instant ? isActiveAt(next, from) : covers(next, from, until))) {
+                active.remove(next);
+                active.add(next);
+                active.sort(BY_ID);
+            }
+            nextSegments[i] = segment(language, from, until, active);
+        }
+        return new AnnouncementTimeline(language, Collections.unmodifiableMap(nextMembers), nextBoundaries, nextSegments);
+    }
+
+    private ActiveAnnouncementsDTO segmentAfter(Instant from) {
+        if (from == null) {
+            return segments[0];
+        }
+        int j = Arrays.binarySearch(boundaries, from);
+        return j >= 0 ? segments[2 * j + 2] : segments[2 * (-j - 1)];
+    }
+
+    private static int segmentIndex(Instant[] boundaries, Instant instant) {
+        int j = Arrays.binarySearch(boundaries, instant);
+        return j >= 0 ? 2 * j + 1 : 2 * (-j - 1);
+    }
+
+    private static boolean sameBounds(ActiveAnnouncementsDTO segment, Instant from, Instant until) {
+        return Objects.equals(segment.getValidFrom(), from) && Objects.equals(segment.getValidUntil(), until);
+    }
+
+    private static boolean isActiveAt(Announcement announcement, Instant instant) {
+        return announcement.getStartDate().isBefore(instant) && announcement.getEndDate().isAfter(instant);
+    }
+
+    private static boolean covers(Announcement announcement, Instant from, Instant until) {
+        return from != null && until != null && !announcement.getStartDate().isAfter(from) && !announcement.getEndDate().isBefore(until);
+    }
+
+    private static Instant[] boundariesOf(Collection<Announcement> announcements) {
+        TreeSet<Instant> boundaries = new TreeSet<>();
+        for (Announcement announcement : announcements) {
+            boundaries.add(announcement.getStartDate());
+            boundaries.add(announcement.getEndDate());
+        }
+        return boundaries.toArray(Instant[]::new);
+    }
+
+    private static Instant earliest(Instant a, Instant b) {
+        if (a == null) {
+            return b;
+        }
+        return b == null || a.isBefore(b) ? a : b;
+    }
+
+    private static Instant latest(Instant a, Instant b) {
+        if (a == null) {
+            return b;
+        }
+        return b == null || a.isAfter(b) ? a : b;
+    }
+
+    private static ActiveAnnouncementsDTO segment(Language language, Instant from, Instant until, Collection<Announcement> active) {
+        return new ActiveAnnouncementsDTO(language, from, until, new ArrayList<>(active), VERSIONS.incrementAndGet());
+    }
+}
@@ -0,0 +1,41 @@
+package com.baulu.announcement.service.impl;
+
+import com.baulu.announcement.service.event.AnnouncementChangedEvent;
+import com.baulu.announcement.service.event.AnnouncementInvalidatedEvent;
+import java.util.concurrent.atomic.AtomicLong;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+/**
+ * Counts the committed writes to the announcements, local or from another node, so that the values derived from the
+ * announcements can be stamped with the generation they were computed in and dropped all at once on the next write.
+ * <p>
+ * A value must be stamped with the generation read before computing it: a computation racing with a write is then stamped
+ * with the old generation and never served.
+ */
+@Component
+public class AnnouncementWriteGeneration {
+
+    private final Logger log = LoggerFactory.getLogger(AnnouncementWriteGeneration.class);
+
+    private final AtomicLong generation = new AtomicLong();
+
+    public long current() {
+        return generation.get();
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onAnnouncementChanged(AnnouncementChangedEvent event) {
+        log.debug("Starting a new write generation after {}", event);
+        generation.incrementAndGet();
+    }
+
+    @EventListener
+    public void onAnnouncementInvalidated(AnnouncementInvalidatedEvent event) {
+        log.debug("Starting a new write generation after {}", event);
+        generation.incrementAndGet();
+    }
+}
@@ -0,0 +1,94 @@
+package com.baulu.announcement.service.impl;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.function.Supplier;
+
+/**
+ * Coalesces identical concurrent lookups: the first caller for a key runs the lookup, and the callers arriving while it is
+ * in flight wait for its result instead of running their own.
+ * <p>
+ * Waiting is bounded: a caller that waited {@code maxWait} runs the lookup itself, so a stuck query cannot hold every
+ * request for the key. Failures are shared like results. Nothing is kept once the lookup completes, this is not a cache.
+ *
+ * @param <K> the type of the lookup key, compared with {@code equals}.
+ * @param <V> the type of the result.
+ */
+final class SingleFlight<K, V> {
+
+    private final ConcurrentMap<K, CompletableFuture<V>> inFlight = new ConcurrentHashMap<>();
+
+    private final Duration maxWait;
+
+    private final Counter executed;
+
+    private final Counter coalesced;
+
+    private final Counter timedOut;
+
+    SingleFlight(String name, Duration maxWait, MeterRegistry meterRegistry) {
+        this.maxWait = maxWait;
+        this.executed = counter(meterRegistry, name, "executed");
+        this.coalesced = counter(meterRegistry, name, "coalesced");
+        this.timedOut = counter(meterRegistry, name, "timeout");
+    }
+
+    private static Counter counter(MeterRegistry meterRegistry, String name, String result) {
+        return Counter
+            .builder("announcement.singleflight")
+            .description("Lookups run, or shared with an identical lookup already in flight")
+            .tag("name", name)
+            .tag("result", result)
+            .register(meterRegistry);
+    }
+
+    V execute(K key, Supplier<V> lookup) {
+        CompletableFuture<V> own = new CompletableFuture<>();
+        CompletableFuture<V> existing = inFlight.putIfAbsent(key, own);
+        if (existing == null) {
+            return lead(key, own, lookup);
+        }
+        try {
+            V result = existing.get(maxWait.toMillis(), TimeUnit.MILLISECONDS);
+            coalesced.increment();
+            return result;
+        } catch (TimeoutException e) {
+            timedOut.increment();
+            executed.increment();
+            return lookup.get();
+        } catch (ExecutionException e) {
+            coalesced.increment();
+            if (e.getCause() instanceof RuntimeException) {
+                throw (RuntimeException) e.getCause();
+            }
+            if (e.getCause() instanceof Error) {
+                throw (Error) e.getCause();
+            }
+            throw new IllegalStateException(e.getCause());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while waiting for the lookup of " + key, e);
+        }
+    }
+
+    private V lead(K key, CompletableFuture<V> own, Supplier<V> lookup) {
+        executed.increment();
+        try {
+            V result = lookup.get();
+            own.complete(result);
+            return result;
+        } catch (RuntimeException | Error e) {
+            own.completeExceptionally(e);
+            throw e;
+        } finally {
+            inFlight.remove(key, own);
+        }
+    }
+}
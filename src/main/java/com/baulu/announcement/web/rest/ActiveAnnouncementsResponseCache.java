@@ -0,0 +1,118 @@
+package com.baulu.announcement.web.rest;
+
+import com.baulu.announcement.service.criteria.AnnouncementFields;
+import com.baulu.announcement.service.dto.ActiveAnnouncementsDTO;
+import com.baulu.announcement.service.event.AnnouncementChangedEvent;
+import com.baulu.announcement.service.event.AnnouncementInvalidatedEvent;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import java.util.List;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.util.DigestUtils;
+
+/**
+ * Keeps the JSON encoding of the active announcement segments, so that {@code /get/all/active} serializes each segment,
+ * and its {@code announcementData}, only once.
+ * <p>
+ * Entries are keyed by {@link ActiveAnnouncementsDTO#getCacheKey()}, made of the language and segment version: every
+ * {@code date} falling into the same unchanged segment shares an entry, and a recomputed segment gets a new version. The
+ * cache is still emptied on every write, local or from another node: the upcoming announcements of a segment are not part
+ * of its version, and the stale entries are released.
+ * A sparse fieldset is encoded in its own entry, under the same key followed by its fields.
+ */
+@Component
+public class ActiveAnnouncementsResponseCache {
+
+    private static final int MAXIMUM_SIZE = 256;
+
+    private final Logger log = LoggerFactory.getLogger(ActiveAnnouncementsResponseCache.class);
+
+    private final ObjectMapper objectMapper;
+
+    private final Cache<String, EncodedResponse> cache = Caffeine.newBuilder().maximumSize(MAXIMUM_SIZE).build();
+
+    public ActiveAnnouncementsResponseCache(ObjectMapper objectMapper) {
+        this.objectMapper = objectMapper;
+    }
+
+    /**
+     * @param activeAnnouncements the segment to encode.
+     * @return the encoded segment and its strong ETag.
+     */
+    public EncodedResponse get(ActiveAnnouncementsDTO activeAnnouncements) {
+        if (activeAnnouncements.getCacheKey() == null) {
+            return encode(activeAnnouncements);
+        }
+        return cache.get(activeAnnouncements.getCacheKey(), k -> encode(activeAnnouncements));
+    }
+
+    /**
+     * @param activeAnnouncements the segment to encode.
+     * @param fields the fields of the announcements to encode.
+     * @return the encoded fields of the segment and their strong ETag.
+     */
+    public EncodedResponse get(ActiveAnnouncementsDTO activeAnnouncements, AnnouncementFields fields) {
+        if (activeAnnouncements.getCacheKey() == null) {
+            return encode(activeAnnouncements, fields);
+        }
+        return cache.get(activeAnnouncements.getCacheKey() + "?fields=" + fields, k -> encode(activeAnnouncements, fields));
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onAnnouncementChanged(AnnouncementChangedEvent event) {
+        log.debug("Clearing the encoded active announcements after {}", event);
+        cache.invalidateAll();
+    }
+
+    @EventListener
+    public void onAnnouncementInvalidated(AnnouncementInvalidatedEvent event) {
+        log.debug("Clearing the encoded active announcements after {}", event);
+        cache.invalidateAll();
+    }
+
+    private EncodedResponse encode(ActiveAnnouncementsDTO activeAnnouncements) {
+        return encode(activeAnnouncements, activeAnnouncements.getAnnouncements());
+    }
+
+    private EncodedResponse encode(ActiveAnnouncementsDTO activeAnnouncements, AnnouncementFields fields) {
+        return encode(activeAnnouncements, activeAnnouncements.getAnnouncements().stream().map(fields::toMap).toList());
+    }
+
+    private EncodedResponse encode(ActiveAnnouncementsDTO activeAnnouncements, List<?> announcements) {
+        try {
+            byte[] body = objectMapper.writeValueAsBytes(announcements);
+            return new EncodedResponse(body, "\"" + DigestUtils.md5DigestAsHex(body) + "\"");
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Could not encode " + activeAnnouncements, e);
+        }
+    }
+
+    /**
+     * An already encoded JSON body with the ETag derived from its content.
+     */
+    public static final class EncodedResponse {
+
+        private final byte[] body;
+
+        private final String eTag;
+
+        EncodedResponse(byte[] body, String eTag) {
+            this.body = body;
+            this.eTag = eTag;
+        }
+
+        public byte[] getBody() {
+            return body;
+        }
+
+        public String getETag() {
+            return eTag;
+        }
+    }
+}
@@ -0,0 +1,378 @@
+package com.baulu.announcement.web.rest;
+
+import com.baulu.announcement.config.ApplicationProperties;
+import com.baulu.announcement.domain.enumeration.Language;
+import com.baulu.announcement.service.AnnouncementService;
+import com.baulu.announcement.service.dto.ActiveAnnouncementsDTO;
+import com.baulu.announcement.service.dto.ActiveAnnouncementsDiffDTO;
+import com.baulu.announcement.service.event.ActiveAnnouncementsChangedEvent;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import java.io.IOException;
+import java.time.Instant;
+import java.util.EnumMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.context.event.EventListener;
+import org.springframework.http.MediaType;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.stereotype.Component;
+import org.springframework.web.servlet.mvc.method.annotation.ResponseBodyEmitter;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+/**
+ * Pushes the active announcements of a {@link Language} to Server-Sent Events subscribers: a {@code snapshot} event on
+ * subscription, then a {@code diff} event every time the segment in effect changes content.
+ * <p>
+ * The event id is the segment version, qualified by the epoch of this node, a random id drawn at startup: segment versions
+ * are only meaningful within the node that computed them. A client reconnecting with {@code Last-Event-ID} gets a single
+ * {@code diff} from the segment it had, as long as the id is from this epoch and the segment is still among the last
+ * {@code application.active-stream.history-size} ones, and a new {@code snapshot} otherwise.
+ * <p>
+ * Subscriptions are asynchronous requests, so an idle connection holds no thread. Each event is encoded once, in order, by
+ * a single thread, and queued to every subscriber. The queues are bounded and drained by a small pool of sender threads,
+ * so a slow client only delays itself: a subscriber whose queue is full is completed, and resumes from its
+ * {@code Last-Event-ID} when it reconnects.
+ * <p>
+ * Writes to the servlet response block, so a stalled client would keep its sender thread. Every
+ * {@code application.active-stream.send-timeout}, the subscribers whose write started longer ago than that are removed,
+ * and the pool gets an extra thread for each of them until its write returns, when the subscriber is completed.
+ */
+@Component
+public class ActiveAnnouncementsStream {
+
+    static final String SNAPSHOT = "snapshot";
+
+    static final String DIFF = "diff";
+
+    private static final long IDLE = Long.MIN_VALUE;
+
+    private static final long ABANDONED = Long.MAX_VALUE;
+
+    private final Logger log = LoggerFactory.getLogger(ActiveAnnouncementsStream.class);
+
+    private final AnnouncementService announcementService;
+
+    private final ObjectMapper objectMapper;
+
+    private final ApplicationProperties.ActiveStream properties;
+
+    private final String epoch = UUID.randomUUID().toString();
+
+    private final Map<Language, Channel> channels = new EnumMap<>(Language.class);
+
+    private final ExecutorService broadcaster = Executors.newSingleThreadExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "active-announcements-stream");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    private final ThreadPoolExecutor senders;
+
+    private final Counter dropped;
+
+    public ActiveAnnouncementsStream(
+        AnnouncementService announcementService,
+        ObjectMapper objectMapper,
+        ApplicationProperties applicationProperties,
+        MeterRegistry meterRegistry
+    ) {
+        this.announcementService = announcementService;
+        this.objectMapper = objectMapper;
+        this.properties = applicationProperties.getActiveStream();
+        CustomizableThreadFactory threadFactory = new CustomizableThreadFactory("active-announcements-sender-");
+        threadFactory.setDaemon(true);
+        int senderThreads = Math.max(1, properties.getSenderThreads());
+        this.senders = new ThreadPoolExecutor(
+            senderThreads,
+            senderThreads,
+            0,
+            TimeUnit.MILLISECONDS,
+            new LinkedBlockingQueue<>(),
+            threadFactory
+        );
+        this.dropped = Counter
+            .builder("announcement.stream.dropped")
+            .description("Server-Sent Events subscriptions completed because the client fell behind")
+            .register(meterRegistry);
+        for (Language language : Language.values()) {
+            Channel channel = new Channel();
+            channels.put(language, channel);
+            Gauge
+                .builder("announcement.stream.subscribers", channel.subscribers, Map::size)
+                .description("Open Server-Sent Events subscriptions")
+                .tag("language", language.name())
+                .register(meterRegistry);
+        }
+    }
+
+    /**
+     * @param language the language to follow.
+     * @param lastEventId the id of the last event the client received, or {@code null}.
+     * @return the emitter of the new subscription.
+     */
+    public SseEmitter subscribe(Language language, String lastEventId) {
+        return subscribe(language, lastEventId, new SseEmitter(properties.getTimeout().toMillis()));
+    }
+
+    SseEmitter subscribe(Language language, String lastEventId, SseEmitter emitter) {
+        Channel channel = channels.get(language);
+        Subscriber subscriber = new Subscriber(emitter, properties.getSendQueueSize());
+        emitter.onCompletion(() -> channel.subscribers.remove(emitter));
+        emitter.onTimeout(emitter::complete);
+        emitter.onError(e -> channel.subscribers.remove(emitter));
+
+        Long lastVersion = versionOf(lastEventId);
+        synchronized (channel) {
+            ActiveAnnouncementsDTO current = channel.current;
+            if (current == null) {
+                current = announcementService.getActiveAnnouncements(Instant.now(), language);
+                if (current.isVersioned()) {
+                    channel.advance(current, properties.getHistorySize());
+                }
+            }
+            ActiveAnnouncementsDTO known = lastVersion == null ? null : channel.history.get(lastVersion);
+            if (known == null) {
+                subscriber.pending.add(event(SNAPSHOT, current.getVersion(), current.getAnnouncements()));
+            } else {
+                ActiveAnnouncementsDiffDTO diff = ActiveAnnouncementsDiffDTO.between(known, current);
+                if (!diff.isEmpty()) {
+                    subscriber.pending.add(event(DIFF, diff.getVersion(), diff));
+                }
+            }
+            channel.subscribers.put(emitter, subscriber);
+        }
+        // The subscriber starts out claimed by this thread, so the first event is written before the diffs queued since.
+        subscriber.drain();
+        log.debug("New {} announcement stream subscriber, resuming from {}", language, lastEventId);
+        return emitter;
+    }
+
+    @EventListener
+    public void onActiveAnnouncementsChanged(ActiveAnnouncementsChangedEvent event) {
+        broadcaster.execute(() -> broadcast(event));
+    }
+
+    @Scheduled(
+        initialDelayString = "${application.active-stream.heartbeat-interval:PT15S}",
+        fixedDelayString = "${application.active-stream.heartbeat-interval:PT15S}"
+    )
+    public void heartbeat() {
+        broadcaster.execute(() -> channels.values().forEach(channel -> sendAll(channel, SseEmitter.event().comment("heartbeat").build())));
+    }
+
+    @Scheduled(
+        initialDelayString = "${application.active-stream.send-timeout:PT10S}",
+        fixedDelayString = "${application.active-stream.send-timeout:PT10S}"
+    )
+    public void abandonStalledSends() {
+        long timeout = properties.getSendTimeout().toNanos();
+        long now = System.nanoTime();
+        channels.values().forEach(channel ->
+            channel.subscribers.forEach((emitter, subscriber) -> {
+                if (subscriber.abandonIfStalled(now, timeout)) {
+                    log.debug("Dropping an announcement stream subscriber whose write is stalled");
+                    channel.subscribers.remove(emitter);
+                    dropped.increment();
+                }
+            })
+        );
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        broadcaster.shutdownNow();
+        senders.shutdownNow();
+        channels.values().forEach(channel -> channel.subscribers.keySet().forEach(SseEmitter::complete));
+    }
+
+    private void broadcast(ActiveAnnouncementsChangedEvent event) {
+        Channel channel = channels.get(event.getLanguage());
+        synchronized (channel) {
+            ActiveAnnouncementsDTO previous = channel.current == null ? event.getPrevious() : channel.current;
+            if (previous.getVersion() == event.getCurrent().getVersion()) {
+                return;
+            }
+            channel.advance(event.getCurrent(), properties.getHistorySize());
+            ActiveAnnouncementsDiffDTO diff = ActiveAnnouncementsDiffDTO.between(previous, event.getCurrent());
+            if (diff.isEmpty() || channel.subscribers.isEmpty()) {
+                return;
+            }
+            log.debug("Pushing {} to {} subscribers", diff, channel.subscribers.size());
+            sendAll(channel, event(DIFF, diff.getVersion(), diff));
+        }
+    }
+
+    private void sendAll(Channel channel, Set<ResponseBodyEmitter.DataWithMediaType> event) {
+        channel.subscribers.forEach((emitter, subscriber) -> {
+            if (!subscriber.offer(event)) {
+                log.debug("Dropping an announcement stream subscriber that fell behind");
+                channel.subscribers.remove(emitter);
+                dropped.increment();
+            }
+        });
+    }
+
+    private Long versionOf(String eventId) {
+        if (eventId == null || !eventId.startsWith(epoch + ":")) {
+            return null;
+        }
+        try {
+            return Long.valueOf(eventId.substring(epoch.length() + 1));
+        } catch (NumberFormatException e) {
+            return null;
+        }
+    }
+
+    private Set<ResponseBodyEmitter.DataWithMediaType> event(String name, long version, Object data) {
+        try {
+            return SseEmitter
+                .event()
+                .id(epoch + ":" + version)
+                .name(name)
+                .data(objectMapper.writeValueAsString(data), MediaType.APPLICATION_JSON)
+                .build();
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Could not encode the " + name + " event " + version, e);
+        }
+    }
+
+    private static final class Channel {
+
+        private final Map<SseEmitter, Subscriber> subscribers = new ConcurrentHashMap<>();
+
+        private final LinkedHashMap<Long, ActiveAnnouncementsDTO> history = new LinkedHashMap<>();
+
+        private ActiveAnnouncementsDTO current;
+
+        void advance(ActiveAnnouncementsDTO segment, int historySize) {
+            current = segment;
+            history.put(segment.getVersion(), segment);
+            while (history.size() > Math.max(1, historySize)) {
+                history.remove(history.keySet().iterator().next());
+            }
+        }
+    }
+
+    /**
+     * The events queued to one client, written by at most one sender thread at a time so that they stay in order.
+     */
+    private final class Subscriber {
+
+        private final SseEmitter emitter;
+
+        private final BlockingQueue<Set<ResponseBodyEmitter.DataWithMediaType>> pending;
+
+        private final AtomicBoolean sending = new AtomicBoolean(true);
+
+        /**
+         * When the write in progress started, {@link #IDLE} between writes, or {@link #ABANDONED} once it outlasted the
+         * send timeout.
+         */
+        private final AtomicLong sendStarted = new AtomicLong(IDLE);
+
+        private volatile boolean behind;
+
+        private Subscriber(SseEmitter emitter, int queueSize) {
+            this.emitter = emitter;
+            this.pending = new ArrayBlockingQueue<>(Math.max(1, queueSize));
+        }
+
+        /**
+         * @return {@code false} if the queue is full, the subscriber is then completed by its sender.
+         */
+        boolean offer(Set<ResponseBodyEmitter.DataWithMediaType> event) {
+            if (!pending.offer(event)) {
+                // Completing takes the emitter lock, held by a sender blocked on a slow client, so it is left to the sender
+                behind = true;
+                pending.clear();
+                schedule();
+                return false;
+            }
+            schedule();
+            return true;
+        }
+
+        private void schedule() {
+            if (sending.compareAndSet(false, true)) {
+                try {
+                    senders.execute(this::drain);
+                } catch (RejectedExecutionException e) {
+                    sending.set(false);
+                }
+            }
+        }
+
+        void drain() {
+            do {
+                Set<ResponseBodyEmitter.DataWithMediaType> event;
+                while (!behind && (event = pending.poll()) != null) {
+                    sendStarted.set(System.nanoTime());
+                    try {
+                        emitter.send(event);
+                    } catch (IOException | IllegalStateException e) {
+                        if (sendStarted.getAndSet(IDLE) == ABANDONED) {
+                            removeSender();
+                        }
+                        emitter.completeWithError(e);
+                        return;
+                    }
+                    if (sendStarted.getAndSet(IDLE) == ABANDONED) {
+                        removeSender();
+                        emitter.complete();
+                        return;
+                    }
+                }
+                if (behind) {
+                    emitter.complete();
+                    return;
+                }
+                sending.set(false);
+            } while (!pending.isEmpty() && sending.compareAndSet(false, true));
+        }
+
+        /**
+         * @return {@code true} if the write in progress started more than {@code timeout} nanoseconds before {@code now};
+         * its thread is then replaced until the write returns.
+         */
+        boolean abandonIfStalled(long now, long timeout) {
+            long started = sendStarted.get();
+            if (started == IDLE || started == ABANDONED || now - started <= timeout || !sendStarted.compareAndSet(started, ABANDONED)) {
+                return false;
+            }
+            addSender();
+            return true;
+        }
+    }
+
+    private synchronized void addSender() {
+        // The maximum size is raised first, as the core size cannot exceed it
+        senders.setMaximumPoolSize(senders.getMaximumPoolSize() + 1);
+        senders.setCorePoolSize(senders.getCorePoolSize() + 1);
+    }
+
+    private synchronized void removeSender() {
+        senders.setCorePoolSize(senders.getCorePoolSize() - 1);
+        senders.setMaximumPoolSize(senders.getMaximumPoolSize() - 1);
+    }
+}
@@ -1,18 +1,30 @@
 package com.baulu.announcement.web.rest;
 
+import com.baulu.announcement.config.ApplicationProperties;
 import com.baulu.announcement.domain.Announcement;
 import com.baulu.announcement.domain.enumeration.Language;
 import com.baulu.announcement.repository.AnnouncementRepository;
+import com.baulu.announcement.repository.AnnouncementValidators;
 import com.baulu.announcement.service.AnnouncementQueryService;
 import com.baulu.announcement.service.AnnouncementService;
 import com.baulu.announcement.service.criteria.AnnouncementCriteria;
+import com.baulu.announcement.service.criteria.AnnouncementCursor;
+import com.baulu.announcement.service.criteria.AnnouncementFields;
+import com.baulu.announcement.service.dto.ActiveAnnouncementsDTO;
 import com.baulu.announcement.service.dto.AnnouncementRequestDTO;
 import com.baulu.announcement.service.dto.AnnouncementResponseDTO;
+import com.baulu.announcement.service.dto.AnnouncementScheduleDTO;
+import com.baulu.announcement.service.dto.enumaration.LanguageFallback;
 import com.baulu.announcement.web.rest.errors.BadRequestAlertException;
 import java.net.URI;
 import java.net.URISyntaxException;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
 import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
 import java.util.List;
+import java.util.Map;
 import java.util.Objects;
 import java.util.Optional;
 import org.slf4j.Logger;
@@ -20,9 +32,16 @@ import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.http.CacheControl;
 import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
+import org.springframework.util.DigestUtils;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 import org.springframework.web.servlet.support.ServletUriComponentsBuilder;
 import tech.jhipster.web.util.HeaderUtil;
 import tech.jhipster.web.util.PaginationUtil;
@@ -39,6 +58,12 @@ public class AnnouncementResource {
 
     private static final String ENTITY_NAME = "bauluAnnouncementAnnouncement";
 
+    static final String NEXT_REFRESH_HEADER = "X-Next-Refresh";
+
+    static final String NEXT_REFRESH_JITTER_HEADER = "X-Next-Refresh-Jitter";
+
+    static final String NEXT_CURSOR_HEADER = "X-Next-Cursor";
+
     @Value("${jhipster.clientApp.name}")
     private String applicationName;
 
@@ -48,14 +73,26 @@ public class AnnouncementResource {
 
     private final AnnouncementQueryService announcementQueryService;
 
+    private final ActiveAnnouncementsResponseCache activeAnnouncementsResponseCache;
+
+    private final ActiveAnnouncementsStream activeAnnouncementsStream;
+
+    private final ApplicationProperties applicationProperties;
+
     public AnnouncementResource(
         AnnouncementService announcementService,
         AnnouncementRepository announcementRepository,
-        AnnouncementQueryService announcementQueryService
+        AnnouncementQueryService announcementQueryService,
+        ActiveAnnouncementsResponseCache activeAnnouncementsResponseCache,
+        ActiveAnnouncementsStream activeAnnouncementsStream,
+        ApplicationProperties applicationProperties
     ) {
         this.announcementService = announcementService;
         this.announcementRepository = announcementRepository;
         this.announcementQueryService = announcementQueryService;
+        this.activeAnnouncementsResponseCache = activeAnnouncementsResponseCache;
+        this.activeAnnouncementsStream = activeAnnouncementsStream;
+        this.applicationProperties = applicationProperties;
     }
 
     /**
@@ -148,21 +185,105 @@ public class AnnouncementResource {
 
     /**
      * {@code GET  /announcements} : get all the announcements.
+     * <p>
+     * The strong {@code ETag} is derived from the total count and the id and version of each announcement of the page, read
+     * without their {@code announcementData}, so that {@code If-None-Match} is answered without loading them. Otherwise the
+     * announcements of these ids are resolved from the second-level cache, without searching them again, and the
+     * {@code ETag} returned is the one of these announcements as read. There is no {@code Last-Modified}: a deleted
+     * announcement would not make it any later.
+     *
+     * <p>
+     * With a {@code cursor}, empty for the first page, the announcements are paginated by cursor instead: the page starts
+     * after the cursor, {@code page} is ignored, and the total count is not computed. The {@code X-Next-Cursor} header and
+     * the {@code next} link give the cursor of the following page, if any. Only the first order of {@code sort} is used,
+     * on {@code id}, {@code startDate} or {@code endDate}, and it is kept by the following cursors.
      *
      * @param pageable the pagination information.
      * @param criteria the criteria which the requested entities should match.
-     * @return the {@link ResponseEntity} with status {@code 200 (OK)} and the list of announcements in body.
+     * @param cursor the cursor returned with the previous page, empty for the first page.
+     * @param webRequest the current request, used to evaluate {@code If-None-Match}.
+     * @return the {@link ResponseEntity} with status {@code 200 (OK)} and the list of announcements in body,
+     * or with status {@code 304 (Not Modified)} if the client already has it,
+     * or with status {@code 400 (Bad Request)} if the cursor or its sort is invalid.
      */
     @GetMapping("")
     public ResponseEntity<List<Announcement>> getAllAnnouncements(
         AnnouncementCriteria criteria,
-        @org.springdoc.core.annotations.ParameterObject Pageable pageable
+        @org.springdoc.core.annotations.ParameterObject Pageable pageable,
+        @RequestParam(value = "cursor", required = false) String cursor,
+        WebRequest webRequest
     ) {
         log.debug("REST request to get Announcements by criteria: {}", criteria);
+        if (cursor != null) {
+            return getAnnouncementsAfter(criteria, pageable, cursor);
+        }
 
-        Page<Announcement> page = announcementQueryService.findByCriteria(criteria, pageable);
+        Page<AnnouncementValidators> validators = announcementQueryService.findValidatorsByCriteria(criteria, pageable);
+        String eTag = eTag(validators);
+        if (isNotModified(webRequest, eTag, null)) {
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(eTag).build();
+        }
+        Page<Announcement> page = announcementQueryService.findByValidators(validators);
         HttpHeaders headers = PaginationUtil.generatePaginationHttpHeaders(ServletUriComponentsBuilder.fromCurrentRequest(), page);
-        return ResponseEntity.ok().headers(headers).body(page.getContent());
+        // An announcement written since its validators were read is returned as it is now, with the ETag of what is returned
+        return ResponseEntity.ok().headers(headers).eTag(eTag(page.map(AnnouncementValidators::of))).body(page.getContent());
+    }
+
+    /**
+     * {@code GET  /announcements?fields=} : get the given fields of all the announcements.
+     * <p>
+     * Only the columns of the requested fields are read, so listings leave out {@code announcementData}. The {@code id} is
+     * always returned. The page is read once, with the version of each announcement, and conditional requests are answered
+     * with an {@code ETag} derived like the one of {@link #getAllAnnouncements}, that also depends on the fields.
+     *
+     * @param fields the comma separated fields to return.
+     * @param pageable the pagination information.
+     * @param criteria the criteria which the requested entities should match.
+     * @param webRequest the current request, used to evaluate {@code If-None-Match}.
+     * @return the {@link ResponseEntity} with status {@code 200 (OK)} and the fields of the announcements in body,
+     * or with status {@code 304 (Not Modified)} if the client already has them,
+     * or with status {@code 400 (Bad Request)} if a field is unknown or a cursor is given.
+     */
+    @GetMapping(value = "", params = "fields")
+    public ResponseEntity<List<Map<String, Object>>> getAllAnnouncementFields(
+        @RequestParam("fields") String fields,
+        AnnouncementCriteria criteria,
+        @org.springdoc.core.annotations.ParameterObject Pageable pageable,
+        WebRequest webRequest
+    ) {
+        log.debug("REST request to get fields {} of Announcements by criteria: {}", fields, criteria);
+        AnnouncementFields fieldset = parseFields(fields);
+        if (webRequest.getParameter("cursor") != null) {
+            throw new BadRequestAlertException("Fields cannot be combined with a cursor", ENTITY_NAME, "fieldscursor");
+        }
+
+        // The version is read along the fields, so that the ETag is the one of the rows returned
+        Page<Map<String, Object>> rows = announcementQueryService.findFieldsByCriteria(criteria, fieldset.including("version"), pageable);
+        String eTag = eTag(rows.map(row -> new AnnouncementValidators((Long) row.get("id"), (Long) row.get("version"), null)), fieldset);
+        if (isNotModified(webRequest, eTag, null)) {
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(eTag).build();
+        }
+        Page<Map<String, Object>> page = rows.map(row -> fieldset.toMap(row::get));
+        HttpHeaders headers = PaginationUtil.generatePaginationHttpHeaders(ServletUriComponentsBuilder.fromCurrentRequest(), page);
+        return ResponseEntity.ok().headers(headers).eTag(eTag).body(page.getContent());
+    }
+
+    private ResponseEntity<List<Announcement>> getAnnouncementsAfter(AnnouncementCriteria criteria, Pageable pageable, String cursor) {
+        AnnouncementCursor position;
+        try {
+            position = cursor.isEmpty() ? AnnouncementCursor.first(pageable.getSort()) : AnnouncementCursor.decode(cursor);
+        } catch (IllegalArgumentException e) {
+            throw new BadRequestAlertException(e.getMessage(), ENTITY_NAME, "cursorinvalid");
+        }
+        Slice<Announcement> slice = announcementQueryService.findByCriteria(criteria, position, pageable.getPageSize());
+        HttpHeaders headers = new HttpHeaders();
+        if (slice.hasNext()) {
+            String next = position.next(slice.getContent().get(slice.getNumberOfElements() - 1)).encode();
+            String link = ServletUriComponentsBuilder.fromCurrentRequest().replaceQueryParam("cursor", next).replaceQueryParam("page").toUriString();
+            headers.set(NEXT_CURSOR_HEADER, next);
+            headers.set(HttpHeaders.LINK, "<" + link + ">; rel=\"next\"");
+        }
+        return ResponseEntity.ok().headers(headers).body(slice.getContent());
     }
 
     /**
@@ -179,15 +300,133 @@ public class AnnouncementResource {
 
     /**
      * {@code GET  /announcements/:id} : get the "id" announcement.
+     * <p>
+     * The strong {@code ETag} is made of the id and version of the announcement, and {@code Last-Modified} is its last
+     * modification date. Both are read without its {@code announcementData}, so that a conditional request is answered
+     * without loading it. A full response carries the ones of the announcement it returns.
      *
      * @param id the id of the announcement to retrieve.
-     * @return the {@link ResponseEntity} with status {@code 200 (OK)} and with body the announcement, or with status {@code 404 (Not Found)}.
+     * @param webRequest the current request, used to evaluate {@code If-None-Match} and {@code If-Modified-Since}.
+     * @return the {@link ResponseEntity} with status {@code 200 (OK)} and with body the announcement,
+     * or with status {@code 304 (Not Modified)} if the client already has it, or with status {@code 404 (Not Found)}.
      */
     @GetMapping("/{id}")
-    public ResponseEntity<Announcement> getAnnouncement(@PathVariable("id") Long id) {
+    public ResponseEntity<Announcement> getAnnouncement(@PathVariable("id") Long id, WebRequest webRequest) {
         log.debug("REST request to get Announcement : {}", id);
+        Optional<AnnouncementValidators> validators = announcementService.findValidators(id);
+        if (validators.isPresent() && isNotModified(webRequest, validators.orElseThrow(), null)) {
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED).headers(validatorHeaders(validators.orElseThrow(), null)).build();
+        }
+        // The validators returned are the ones of the announcement read, which may have been written since
         Optional<Announcement> announcement = announcementService.findOne(id);
-        return ResponseUtil.wrapOrNotFound(announcement);
+        return ResponseUtil.wrapOrNotFound(
+            announcement,
+            announcement.map(read -> validatorHeaders(AnnouncementValidators.of(read), null)).orElse(null)
+        );
+    }
+
+    /**
+     * {@code GET  /announcements/:id?fields=} : get the given fields of the "id" announcement.
+     * <p>
+     * Only the columns of the requested fields are read. Conditional requests are answered like
+     * {@link #getAnnouncement}, with an {@code ETag} that also depends on the fields.
+     *
+     * @param id the id of the announcement to retrieve.
+     * @param fields the comma separated fields to return.
+     * @param webRequest the current request, used to evaluate {@code If-None-Match} and {@code If-Modified-Since}.
+     * @return the {@link ResponseEntity} with status {@code 200 (OK)} and with body the fields of the announcement,
+     * or with status {@code 304 (Not Modified)} if the client already has them, or with status {@code 404 (Not Found)},
+     * or with status {@code 400 (Bad Request)} if a field is unknown.
+     */
+    @GetMapping(value = "/{id}", params = "fields")
+    public ResponseEntity<Map<String, Object>> getAnnouncementFields(
+        @PathVariable("id") Long id,
+        @RequestParam("fields") String fields,
+        WebRequest webRequest
+    ) {
+        log.debug("REST request to get fields {} of Announcement : {}", fields, id);
+        AnnouncementFields fieldset = parseFields(fields);
+        Optional<AnnouncementValidators> validators = announcementService.findValidators(id);
+        if (validators.isPresent() && isNotModified(webRequest, validators.orElseThrow(), fieldset)) {
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED).headers(validatorHeaders(validators.orElseThrow(), fieldset)).build();
+        }
+        // The validators are read along the fields, so that they are the ones of the fields returned
+        AnnouncementFields read = fieldset.including("version").including("lastModifiedDate");
+        Optional<Map<String, Object>> row = announcementQueryService.findFields(id, read);
+        return ResponseUtil.wrapOrNotFound(
+            row.map(values -> fieldset.toMap(values::get)),
+            row
+                .map(values -> new AnnouncementValidators(id, (Long) values.get("version"), (Instant) values.get("lastModifiedDate")))
+                .map(current -> validatorHeaders(current, fieldset))
+                .orElse(null)
+        );
+    }
+
+    private AnnouncementFields parseFields(String fields) {
+        try {
+            return AnnouncementFields.parse(fields);
+        } catch (IllegalArgumentException e) {
+            throw new BadRequestAlertException(e.getMessage(), ENTITY_NAME, "fieldsinvalid");
+        }
+    }
+
+    private static boolean isNotModified(WebRequest webRequest, AnnouncementValidators validators, AnnouncementFields fields) {
+        return isNotModified(webRequest, eTag(validators, fields), validators.getLastModifiedDate());
+    }
+
+    /**
+     * Evaluates {@code If-None-Match}, or {@code If-Modified-Since} without it, like {@link WebRequest#checkNotModified}
+     * but without writing the validators to the response: the caller sets them once, from the representation it returns.
+     */
+    static boolean isNotModified(WebRequest webRequest, String eTag, Instant lastModifiedDate) {
+        HttpHeaders requestHeaders = new HttpHeaders();
+        for (String name : List.of(HttpHeaders.IF_NONE_MATCH, HttpHeaders.IF_MODIFIED_SINCE)) {
+            String[] values = webRequest.getHeaderValues(name);
+            if (values != null) {
+                requestHeaders.addAll(name, List.of(values));
+            }
+        }
+        List<String> ifNoneMatch = requestHeaders.getIfNoneMatch();
+        if (!ifNoneMatch.isEmpty()) {
+            // Weak comparison, as for any GET
+            return ifNoneMatch.stream().anyMatch(tag -> "*".equals(tag) || eTag.equals(tag.startsWith("W/") ? tag.substring(2) : tag));
+        }
+        long ifModifiedSince = requestHeaders.getIfModifiedSince();
+        return (
+            lastModifiedDate != null &&
+            ifModifiedSince != -1 &&
+            lastModifiedDate.truncatedTo(ChronoUnit.SECONDS).toEpochMilli() <= ifModifiedSince
+        );
+    }
+
+    private static HttpHeaders validatorHeaders(AnnouncementValidators validators, AnnouncementFields fields) {
+        HttpHeaders headers = new HttpHeaders();
+        headers.setETag(eTag(validators, fields));
+        if (validators.getLastModifiedDate() != null) {
+            headers.setLastModified(validators.getLastModifiedDate());
+        }
+        return headers;
+    }
+
+    /**
+     * The id and version of the announcement, followed by the fields of a sparse fieldset, which is another representation.
+     */
+    private static String eTag(AnnouncementValidators validators, AnnouncementFields fields) {
+        String eTag = validators.getId() + "-" + validators.getVersion();
+        return "\"" + (fields == null ? eTag : eTag + "-" + String.join("-", fields.getNames())) + "\"";
+    }
+
+    private static String eTag(Page<AnnouncementValidators> page) {
+        return eTag(page, null);
+    }
+
+    private static String eTag(Page<AnnouncementValidators> page, AnnouncementFields fields) {
+        StringBuilder state = new StringBuilder().append(page.getTotalElements());
+        page.forEach(validators -> state.append(',').append(validators.getId()).append('-').append(validators.getVersion()));
+        if (fields != null) {
+            state.append(";fields=").append(fields);
+        }
+        return "\"" + DigestUtils.md5DigestAsHex(state.toString().getBytes(StandardCharsets.UTF_8)) + "\"";
     }
 
     /**
@@ -238,11 +477,198 @@ public class AnnouncementResource {
             .build();
     }
 
+    /**
+     * {@code GET  /announcements/get/all/active} : get the announcements active at a given date.
+     * <p>
+     * Several languages can be given in order of preference, their announcements are then merged according to
+     * {@code fallback}. With a {@code lookahead}, the announcements starting within it are appended after the active ones,
+     * so that the client can activate them itself on their {@code startDate}. The {@code X-Next-Refresh} header tells the
+     * client when to call again: on the next change of the active announcements, or at the end of the lookahead. It is
+     * left out when that change is unknown, because the announcements were read from the database. The response is the same
+     * for every client, so {@code X-Next-Refresh-Jitter} tells each client how long it may randomly delay its refresh, so
+     * that they do not all call at once. The JSON body of each result is encoded once and served from {@link ActiveAnnouncementsResponseCache}.
+     * With {@code fields}, only these fields of the announcements are encoded; the announcements themselves come from the
+     * in-memory index or the second-level cache, so their data is left out of the response rather than of a query.
+     * <p>
+     * The response can be kept by shared HTTP caches, see {@link #cacheHeaders}. Without {@code date}, the announcements
+     * active now are returned under the same URL to every client, so that these caches absorb most of the requests.
+     *
+     * @param date the date the announcements must be active at, now by default.
+     * @param selectedLanguages the languages of the announcements, in order of preference.
+     * @param fallback how the announcements of several languages are merged, {@code FIRST_MATCH} by default.
+     * @param lookahead how long after {@code date} upcoming announcements are included, in ISO-8601 format.
+     * @param fields the comma separated fields of the announcements to return, all of them by default.
+     * @param webRequest the current request, used to evaluate {@code If-None-Match}.
+     * @return the {@link ResponseEntity} with status {@code 200 (OK)} and the list of announcements in body,
+     * or with status {@code 304 (Not Modified)} if the client already has it,
+     * or with status {@code 400 (Bad Request)} if the lookahead or a field is invalid.
+     */
     @GetMapping("/get/all/active")
-    public ResponseEntity<List<Announcement>> getAnnouncementsByDateAndLanguage(@RequestParam(value = "date") Instant date,
-                                                                                @RequestParam(value = "selectedLanguage")Language selectedLanguage) {
-        log.debug("Rest request to get announcement by date: {} and language: {}", date, selectedLanguage);
-        List<Announcement> announcements = this.announcementService.getAnnouncementsByDateAndLanguage(date, selectedLanguage);
-        return ResponseEntity.ok().body(announcements);
+    public ResponseEntity<byte[]> getAnnouncementsByDateAndLanguage(@RequestParam(value = "date", required = false) Instant date,
+                                                                    @RequestParam(value = "selectedLanguage") List<Language> selectedLanguages,
+                                                                    @RequestParam(value = "fallback", defaultValue = "FIRST_MATCH") LanguageFallback fallback,
+                                                                    @RequestParam(value = "lookahead", required = false) Duration lookahead,
+                                                                    @RequestParam(value = "fields", required = false) String fields,
+                                                                    WebRequest webRequest) {
+        log.debug("Rest request to get announcement by date: {} and languages: {}", date, selectedLanguages);
+        ApplicationProperties.ActiveResponse activeResponse = applicationProperties.getActiveResponse();
+        if (lookahead != null && (lookahead.isNegative() || lookahead.compareTo(activeResponse.getMaxLookahead()) > 0)) {
+            throw new BadRequestAlertException("Lookahead must be between 0 and " + activeResponse.getMaxLookahead(), ENTITY_NAME, "lookaheadinvalid");
+        }
+        AnnouncementFields fieldset = fields != null ? parseFields(fields) : null;
+        Instant now = Instant.now();
+        Instant at = date != null ? date : now;
+        ActiveAnnouncementsDTO activeAnnouncements = this.announcementService.getActiveAnnouncements(at, selectedLanguages, fallback, lookahead);
+        ActiveAnnouncementsResponseCache.EncodedResponse response = fieldset != null
+            ? this.activeAnnouncementsResponseCache.get(activeAnnouncements, fieldset)
+            : this.activeAnnouncementsResponseCache.get(activeAnnouncements);
+        HttpHeaders headers = new HttpHeaders();
+        Instant nextRefresh = nextRefresh(at, lookahead, activeAnnouncements, activeResponse);
+        if (nextRefresh != null) {
+            headers.set(NEXT_REFRESH_HEADER, nextRefresh.toString());
+            headers.set(NEXT_REFRESH_JITTER_HEADER, activeResponse.getRefreshJitter().toString());
+        }
+        headers.addAll(cacheHeaders(date == null, now, lookahead, activeAnnouncements, activeResponse));
+        if (isNotModified(webRequest, response.getETag(), null)) {
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED).headers(headers).eTag(response.getETag()).build();
+        }
+        return ResponseEntity.ok().headers(headers).eTag(response.getETag()).contentType(MediaType.APPLICATION_JSON).body(response.getBody());
+    }
+
+    /**
+     * The next change a client cannot apply by itself, capped, or {@code null} if the next boundary is unknown. It does not
+     * depend on the client, as the response may be served to others by shared HTTP caches.
+     */
+    static Instant nextRefresh(
+        Instant date,
+        Duration lookahead,
+        ActiveAnnouncementsDTO activeAnnouncements,
+        ApplicationProperties.ActiveResponse activeResponse
+    ) {
+        Instant next;
+        if (lookahead != null && !lookahead.isZero()) {
+            next = date.plus(lookahead);
+        } else if (activeAnnouncements.getCacheKey() == null) {
+            // Read from the database for this instant only, its bounds are not those of a segment
+            return null;
+        } else {
+            next = activeAnnouncements.getValidUntil();
+        }
+        Instant latest = date.plus(activeResponse.getMaxRefreshInterval());
+        if (next == null || next.isAfter(latest)) {
+            return latest;
+        }
+        return next.isAfter(date) ? next : date.plusMillis(1);
+    }
+
+    /**
+     * The {@code Cache-Control} and {@code Expires} headers telling HTTP caches how long they may keep a response, then
+     * serve it stale while revalidating it, in whole seconds.
+     * <p>
+     * Both are capped by the configuration, because writes cannot be pushed to these caches. A response for a given
+     * {@code date} only changes on writes. A response for now must also be revalidated before the next activation boundary,
+     * and before the end of the lookahead, when the client may need the announcements starting after it. An unknown
+     * boundary, when the announcements were read from the database, is taken as immediate.
+     */
+    static HttpHeaders cacheHeaders(
+        boolean current,
+        Instant now,
+        Duration lookahead,
+        ActiveAnnouncementsDTO activeAnnouncements,
+        ApplicationProperties.ActiveResponse activeResponse
+    ) {
+        Duration maxAge = activeResponse.getMaxAge();
+        Duration staleWhileRevalidate = activeResponse.getStaleWhileRevalidate();
+        if (current) {
+            Instant validUntil = activeAnnouncements.getValidUntil();
+            Duration remaining = validUntil == null ? null : Duration.between(now, validUntil);
+            if (lookahead != null && !lookahead.isZero() && (remaining == null || lookahead.compareTo(remaining) < 0)) {
+                remaining = lookahead;
+            }
+            if (remaining != null) {
+                remaining = remaining.isNegative() ? Duration.ZERO : remaining;
+                maxAge = min(maxAge, remaining);
+                staleWhileRevalidate = min(staleWhileRevalidate, remaining.minus(maxAge));
+            }
+        }
+        maxAge = Duration.ofSeconds(maxAge.getSeconds());
+        staleWhileRevalidate = Duration.ofSeconds(staleWhileRevalidate.getSeconds());
+
+        HttpHeaders headers = new HttpHeaders();
+        headers.setCacheControl(
+            maxAge.isZero()
+                ? CacheControl.noCache().cachePublic()
+                : CacheControl.maxAge(maxAge).cachePublic().staleWhileRevalidate(staleWhileRevalidate)
+        );
+        headers.setExpires(now.plus(maxAge).toEpochMilli());
+        return headers;
+    }
+
+    private static Duration min(Duration a, Duration b) {
+        return a.compareTo(b) <= 0 ? a : b;
+    }
+
+    /**
+     * {@code GET  /announcements/get/all/schedule} : preview the announcements active at a series of instants.
+     * <p>
+     * The instants are either listed in {@code instants}, or every {@code step} from {@code from} to {@code to}, both
+     * included.
+     *
+     * @param selectedLanguage the language of the announcements.
+     * @param instants the instants to evaluate.
+     * @param from the first instant of the range.
+     * @param to the last instant of the range.
+     * @param step the interval between two instants of the range, in ISO-8601 format.
+     * @return the {@link ResponseEntity} with status {@code 200 (OK)} and the schedule in body,
+     * or with status {@code 400 (Bad Request)} if the instants are invalid or too many.
+     */
+    @GetMapping("/get/all/schedule")
+    public ResponseEntity<AnnouncementScheduleDTO> getAnnouncementSchedule(@RequestParam(value = "selectedLanguage") Language selectedLanguage,
+                                                                           @RequestParam(value = "instants", required = false) List<Instant> instants,
+                                                                           @RequestParam(value = "from", required = false) Instant from,
+                                                                           @RequestParam(value = "to", required = false) Instant to,
+                                                                           @RequestParam(value = "step", required = false) Duration step) {
+        log.debug("Rest request to get the announcement schedule of language: {} from: {} to: {} every: {}", selectedLanguage, from, to, step);
+        int maxInstants = applicationProperties.getSchedule().getMaxInstants();
+        List<Instant> evaluated = instants;
+        if (evaluated == null || evaluated.isEmpty()) {
+            if (from == null || to == null || step == null) {
+                throw new BadRequestAlertException("Either instants or from, to and step are required", ENTITY_NAME, "schedulerangerequired");
+            }
+            if (to.isBefore(from) || step.isNegative() || step.isZero()) {
+                throw new BadRequestAlertException("Invalid schedule range", ENTITY_NAME, "schedulerangeinvalid");
+            }
+            if (Duration.between(from, to).dividedBy(step) >= maxInstants) {
+                throw new BadRequestAlertException("Too many instants, at most " + maxInstants + " allowed", ENTITY_NAME, "scheduletoolarge");
+            }
+            evaluated = new ArrayList<>();
+            for (Instant instant = from; !instant.isAfter(to); instant = instant.plus(step)) {
+                evaluated.add(instant);
+            }
+        }
+        if (evaluated.size() > maxInstants) {
+            throw new BadRequestAlertException("Too many instants, at most " + maxInstants + " allowed", ENTITY_NAME, "scheduletoolarge");
+        }
+        return ResponseEntity.ok(announcementService.getSchedule(selectedLanguage, evaluated));
+    }
+
+    /**
+     * {@code GET  /announcements/get/all/active/stream} : follow the announcements active now as Server-Sent Events.
+     * <p>
+     * The stream starts with a {@code snapshot} event holding the active announcements, followed by a {@code diff} event
+     * with the {@code added}, {@code updated} and {@code removed} announcements every time they change. See
+     * {@link ActiveAnnouncementsStream}.
+     *
+     * @param selectedLanguage the language of the announcements.
+     * @param lastEventId the id of the last event received before reconnecting, sent by {@code EventSource}.
+     * @param version the id of the last event received, for clients that cannot set {@code Last-Event-ID}.
+     * @return the event stream.
+     */
+    @GetMapping(value = "/get/all/active/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public SseEmitter streamActiveAnnouncements(@RequestParam(value = "selectedLanguage") Language selectedLanguage,
+                                                @RequestHeader(value = "Last-Event-ID", required = false) String lastEventId,
+                                                @RequestParam(value = "version", required = false) String version) {
+        log.debug("Rest request to stream active announcements of language: {} from version: {}", selectedLanguage, lastEventId != null ? lastEventId : version);
+        return this.activeAnnouncementsStream.subscribe(selectedLanguage, lastEventId != null ? lastEventId : version);
     }
 }
@@ -0,0 +1,82 @@
+package com.baulu.announcement.config;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.tuple;
+import static org.awaitility.Awaitility.await;
+
+import com.baulu.announcement.domain.Announcement;
+import com.baulu.announcement.domain.enumeration.Language;
+import com.baulu.announcement.service.event.AnnouncementChangedEvent;
+import com.baulu.announcement.service.event.AnnouncementInvalidatedEvent;
+import com.hazelcast.config.Config;
+import com.hazelcast.core.Hazelcast;
+import com.hazelcast.core.HazelcastInstance;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+
+class AnnouncementInvalidationBusTest {
+
+    private static HazelcastInstance hazelcastInstance;
+
+    private final List<Object> firstEvents = new CopyOnWriteArrayList<>();
+
+    private final List<Object> secondEvents = new CopyOnWriteArrayList<>();
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    @BeforeAll
+    static void startHazelcast() {
+        Config config = new Config();
+        config.setClusterName("invalidation-bus-test");
+        config.getNetworkConfig().getJoin().getMulticastConfig().setEnabled(false);
+        config.getNetworkConfig().getJoin().getAutoDetectionConfig().setEnabled(false);
+        hazelcastInstance = Hazelcast.newHazelcastInstance(config);
+    }
+
+    @AfterAll
+    static void stopHazelcast() {
+        hazelcastInstance.shutdown();
+    }
+
+    @Test
+    void committedWritesReachTheOtherNodesOnly() {
+        AnnouncementInvalidationBus first = bus(firstEvents);
+        bus(secondEvents);
+
+        first.onAnnouncementChanged(AnnouncementChangedEvent.saved(new Announcement().id(1L).language(Language.ENGLISH)));
+        first.onAnnouncementChanged(AnnouncementChangedEvent.deleted(2L, Language.TURKISH));
+
+        await().untilAsserted(() -> assertThat(secondEvents).hasSize(2));
+        assertThat(secondEvents)
+            .map(AnnouncementInvalidatedEvent.class::cast)
+            .extracting(AnnouncementInvalidatedEvent::getId, AnnouncementInvalidatedEvent::getLanguage)
+            .containsExactly(tuple(1L, Language.ENGLISH), tuple(2L, Language.TURKISH));
+        assertThat(firstEvents).isEmpty();
+        assertThat(meterRegistry.get("announcement.invalidation.lag").timer().count()).isEqualTo(2);
+    }
+
+    @Test
+    void cacheInvalidationsReachTheOtherNodesAsThemselves() {
+        AnnouncementInvalidationBus first = bus(firstEvents);
+        bus(secondEvents);
+
+        first.publish(CacheInvalidation.evict("announcementById", 1L));
+
+        await().untilAsserted(() -> assertThat(secondEvents).hasSize(1));
+        assertThat(secondEvents)
+            .singleElement()
+            .isInstanceOfSatisfying(CacheInvalidation.class, invalidation -> {
+                assertThat(invalidation.getCacheName()).isEqualTo("announcementById");
+                assertThat(invalidation.getKey()).isEqualTo(1L);
+            });
+        assertThat(firstEvents).isEmpty();
+    }
+
+        private AnnouncementInvalidationBus bus(List<Object> events) {
+        return new AnnouncementInvalidationBus(hazelcastInstance, events::add, new ApplicationProperties(), meterRegistry);
+    }
+}
@@ -0,0 +1,65 @@
+package com.baulu.announcement.config;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import com.hazelcast.config.Config;
+import com.hazelcast.config.EvictionPolicy;
+import com.hazelcast.config.InMemoryFormat;
+import com.hazelcast.config.MapConfig;
+import com.hazelcast.config.MaxSizePolicy;
+import java.time.Duration;
+import java.util.List;
+import org.junit.jupiter.api.Test;
+import tech.jhipster.config.JHipsterProperties;
+
+class CacheConfigurationTest {
+
+    private static final String DOMAIN = "com.baulu.announcement.domain.*";
+
+    @Test
+    void policyIsMergedIntoTheDeclaredMapConfig() {
+        Config config = new Config();
+        config.addMapConfig(CacheConfiguration.initializeDomainMapConfig(new JHipsterProperties(), new ApplicationProperties().getNearCache()));
+        ApplicationProperties.HazelcastMap policy = new ApplicationProperties.HazelcastMap();
+        policy.setName(DOMAIN);
+        policy.setEvictionPolicy(EvictionPolicy.LFU);
+        policy.setMaxSizePolicy(MaxSizePolicy.PER_NODE);
+        policy.setMaxSize(500);
+        policy.setInMemoryFormat(InMemoryFormat.OBJECT);
+        policy.setBackupCount(0);
+        policy.setAsyncBackupCount(1);
+        policy.setReadBackupData(true);
+        policy.setTimeToLive(Duration.ofMinutes(2));
+
+        CacheConfiguration.applyMapPolicies(config, List.of(policy));
+
+        MapConfig mapConfig = config.getMapConfig(DOMAIN);
+        assertThat(mapConfig.getEvictionConfig().getEvictionPolicy()).isEqualTo(EvictionPolicy.LFU);
+        assertThat(mapConfig.getEvictionConfig().getMaxSizePolicy()).isEqualTo(MaxSizePolicy.PER_NODE);
+        assertThat(mapConfig.getEvictionConfig().getSize()).isEqualTo(500);
+        assertThat(mapConfig.getInMemoryFormat()).isEqualTo(InMemoryFormat.OBJECT);
+        assertThat(mapConfig.getBackupCount()).isZero();
+        assertThat(mapConfig.getAsyncBackupCount()).isEqualTo(1);
+        assertThat(mapConfig.isReadBackupData()).isTrue();
+        assertThat(mapConfig.getTimeToLiveSeconds()).isEqualTo(120);
+        assertThat(mapConfig.getNearCacheConfig()).isNotNull();
+    }
+
+    @Test
+    void policyOfANewPatternStartsFromTheDefaultMapConfig() {
+        Config config = new Config();
+        MapConfig defaultMapConfig = new MapConfig("default").setBackupCount(2);
+        defaultMapConfig.getEvictionConfig().setSize(100);
+        config.addMapConfig(defaultMapConfig);
+        ApplicationProperties.HazelcastMap policy = new ApplicationProperties.HazelcastMap();
+        policy.setName("spring-*");
+        policy.setMaxSize(0);
+
+        CacheConfiguration.applyMapPolicies(config, List.of(policy));
+
+        MapConfig mapConfig = config.getMapConfigs().get("spring-*");
+        assertThat(mapConfig.getBackupCount()).isEqualTo(2);
+        assertThat(mapConfig.getEvictionConfig().getSize()).isEqualTo(Integer.MAX_VALUE);
+        assertThat(config.getMapConfig("default").getEvictionConfig().getSize()).isEqualTo(100);
+    }
+}
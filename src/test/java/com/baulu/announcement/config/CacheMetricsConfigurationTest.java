@@ -0,0 +1,60 @@
+package com.baulu.announcement.config;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import com.hazelcast.config.Config;
+import com.hazelcast.core.Hazelcast;
+import com.hazelcast.core.HazelcastInstance;
+import com.hazelcast.spring.cache.HazelcastCacheManager;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.assertj.core.api.InstanceOfAssertFactories;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+
+class CacheMetricsConfigurationTest {
+
+    private static HazelcastInstance hazelcastInstance;
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    @BeforeAll
+    static void startHazelcast() {
+        Config config = new Config();
+        config.setClusterName("cache-metrics-test");
+        config.getNetworkConfig().getJoin().getMulticastConfig().setEnabled(false);
+        config.getNetworkConfig().getJoin().getAutoDetectionConfig().setEnabled(false);
+        hazelcastInstance = Hazelcast.newHazelcastInstance(config);
+    }
+
+    @AfterAll
+    static void stopHazelcast() {
+        hazelcastInstance.shutdown();
+    }
+
+    @Test
+    void mapsAndLocalTiersAreRegistered() {
+        hazelcastInstance.getMap("existing-region").put(1L, "one");
+        CacheMetricsConfiguration configuration = new CacheMetricsConfiguration(hazelcastInstance, meterRegistry);
+        hazelcastInstance.getMap("created-region").put(1L, "one");
+        TwoTierCacheManager cacheManager = new TwoTierCacheManager(
+            new HazelcastCacheManager(hazelcastInstance),
+            invalidation -> {},
+            new ApplicationProperties().getLocalCache(),
+            meterRegistry
+        );
+        cacheManager.getCache("spring-cache").put(1L, "one");
+
+        assertThat(meterRegistry.find("cache.gets").tags("cache", "existing-region", "cache.manager", "hazelcast").meters()).isNotEmpty();
+        assertThat(meterRegistry.find("cache.gets").tags("cache", "created-region", "cache.manager", "hazelcast").meters()).isNotEmpty();
+        assertThat(meterRegistry.find("cache.gets").tags("cache", "spring-cache", "cache.manager", "hazelcast").meters()).isNotEmpty();
+        assertThat(meterRegistry.find("cache.gets").tags("cache", "spring-cache", "cache.manager", "cacheManager").meters()).isNotEmpty();
+
+        CacheStatisticsEndpoint endpoint = configuration.cacheStatisticsEndpoint(cacheManager);
+        assertThat(endpoint.caches()).containsKeys("maps", "caches");
+        assertThat(endpoint.caches().get("caches")).asInstanceOf(InstanceOfAssertFactories.MAP).containsOnlyKeys("spring-cache");
+        assertThat(endpoint.cache("spring-cache")).containsKeys("map", "local");
+        assertThat(endpoint.cache("existing-region")).containsOnlyKeys("map");
+        assertThat(endpoint.cache("missing")).isNull();
+    }
+}
@@ -0,0 +1,89 @@
+package com.baulu.announcement.config;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import com.baulu.announcement.domain.Announcement;
+import com.baulu.announcement.domain.enumeration.AnnouncementType;
+import com.baulu.announcement.domain.enumeration.Language;
+import com.hazelcast.config.Config;
+import com.hazelcast.core.Hazelcast;
+import com.hazelcast.core.HazelcastInstance;
+import com.hazelcast.internal.serialization.Data;
+import com.hazelcast.internal.serialization.SerializationService;
+import com.hazelcast.spi.impl.SerializationServiceSupport;
+import java.io.Serializable;
+import java.time.Instant;
+import java.util.UUID;
+import org.hibernate.cache.spi.entry.StandardCacheEntryImpl;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+
+class HazelcastSerializersTest {
+
+    private static final int TYPE_COMPACT = -55;
+
+    private static HazelcastInstance hazelcastInstance;
+
+    private static SerializationService serializationService;
+
+    @BeforeAll
+    static void startHazelcast() {
+        Config config = new Config();
+        config.setClusterName("serializers-test");
+        config.getNetworkConfig().getJoin().getMulticastConfig().setEnabled(false);
+        config.getNetworkConfig().getJoin().getAutoDetectionConfig().setEnabled(false);
+        CacheConfiguration.initializeSerializationConfig(config.getSerializationConfig());
+        hazelcastInstance = Hazelcast.newHazelcastInstance(config);
+        serializationService = ((SerializationServiceSupport) hazelcastInstance).getSerializationService();
+    }
+
+    @AfterAll
+    static void stopHazelcast() {
+        hazelcastInstance.shutdown();
+    }
+
+    @Test
+    void announcementRoundTrip() {
+        Announcement announcement = new Announcement()
+            .id(42L)
+            .language(Language.TURKISH)
+            .announcementType(AnnouncementType.IMAGE)
+            .startDate(Instant.parse("2024-01-01T10:15:30.123456789Z"))
+            .endDate(null)
+            .announcementData("data")
+            .version(7L);
+        announcement.setCreatedBy("admin");
+        announcement.setLastModifiedBy(null);
+        announcement.setLastModifiedDate(Instant.parse("2024-01-02T00:00:00Z"));
+
+        Data data = serializationService.toData(announcement);
+        Announcement read = serializationService.toObject(data);
+
+        assertThat(data.getType()).isEqualTo(TYPE_COMPACT);
+        assertThat(read).usingRecursiveComparison().isEqualTo(announcement);
+    }
+
+    @Test
+    void cacheEntryRoundTrip() {
+        Serializable[] state = {
+            "data",
+            AnnouncementType.TEXT,
+            Instant.parse("2024-01-02T00:00:00Z"),
+            Language.ENGLISH,
+            Instant.parse("2024-01-01T00:00:00.5Z"),
+            null,
+            1L,
+            UUID.fromString("0f8fad5b-d9cb-469f-a165-70867728950e"),
+        };
+        StandardCacheEntryImpl entry = CacheEntryStreamSerializer.newEntry(state, Announcement.class.getName(), 3);
+
+        Data data = serializationService.toData(entry);
+        StandardCacheEntryImpl read = serializationService.toObject(data);
+
+        assertThat(data.getType()).isEqualTo(CacheEntryStreamSerializer.TYPE_ID);
+        assertThat(read.getDisassembledState()).containsExactly(state);
+        assertThat(read.getSubclass()).isEqualTo(Announcement.class.getName());
+        assertThat(read.getVersion()).isEqualTo(3);
+    }
+}
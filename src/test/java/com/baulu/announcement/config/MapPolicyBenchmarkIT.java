@@ -0,0 +1,163 @@
+package com.baulu.announcement.config;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import com.baulu.announcement.domain.Announcement;
+import com.baulu.announcement.domain.enumeration.AnnouncementType;
+import com.baulu.announcement.domain.enumeration.Language;
+import com.hazelcast.config.Config;
+import com.hazelcast.config.InMemoryFormat;
+import com.hazelcast.config.JoinConfig;
+import com.hazelcast.config.MapConfig;
+import com.hazelcast.core.Hazelcast;
+import com.hazelcast.core.HazelcastInstance;
+import com.hazelcast.map.IMap;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.Timeout;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import tech.jhipster.config.JHipsterProperties;
+
+/**
+ * Read and write latency of the {@code Announcement} region on a local 3-node cluster, for several
+ * {@link ApplicationProperties.HazelcastMap} policies. The near cache is disabled so that only the map policy is measured.
+ * <p>
+ * Disabled by default, run it with:
+ * <pre>
+ * ./mvnw verify -Dit.test=MapPolicyBenchmarkIT -Dbenchmark=true
+ * </pre>
+ */
+@EnabledIfSystemProperty(named = "benchmark", matches = "true")
+class MapPolicyBenchmarkIT {
+
+    private static final Logger log = LoggerFactory.getLogger(MapPolicyBenchmarkIT.class);
+
+    private static final String REGION = "com.baulu.announcement.domain.Announcement";
+
+    private static final int MEMBERS = 3;
+
+    private static final int ENTRIES = 1_000;
+
+    private static final int WARMUP_OPERATIONS = 20_000;
+
+    private static final int MEASURED_OPERATIONS = 50_000;
+
+    @Test
+    @Timeout(value = 30, unit = TimeUnit.MINUTES)
+    void compareAnnouncementRegionPolicies() {
+        Map<String, ApplicationProperties.HazelcastMap> policies = new LinkedHashMap<>();
+        policies.put("BINARY, sync backup", policy(InMemoryFormat.BINARY, 1, 0, false));
+        policies.put("OBJECT, sync backup", policy(InMemoryFormat.OBJECT, 1, 0, false));
+        policies.put("BINARY, async backup", policy(InMemoryFormat.BINARY, 0, 1, false));
+        policies.put("BINARY, sync backup, read backup data", policy(InMemoryFormat.BINARY, 1, 0, true));
+
+        Map<String, double[]> results = new LinkedHashMap<>();
+        policies.forEach((name, policy) -> results.put(name, measure(name, policy)));
+
+        results.forEach((name, result) -> log.info("{}: get avg={}us, put avg={}us", name, result[0], result[1]));
+        assertThat(results.values()).allSatisfy(result -> assertThat(Arrays.stream(result).min().orElse(0)).isPositive());
+    }
+
+    private double[] measure(String name, ApplicationProperties.HazelcastMap policy) {
+        String clusterName = "map-policy-benchmark-" + name.replaceAll("\\W+", "-");
+        List<HazelcastInstance> members = new ArrayList<>();
+        try {
+            for (int i = 0; i < MEMBERS; i++) {
+                members.add(Hazelcast.newHazelcastInstance(memberConfig(clusterName, policy)));
+            }
+            IMap<Long, Announcement> writer = members.get(0).getMap(REGION);
+            IMap<Long, Announcement> reader = members.get(MEMBERS - 1).getMap(REGION);
+            Random random = new Random(42);
+            String data = "x".repeat(2048);
+            for (long id = 0; id < ENTRIES; id++) {
+                writer.put(id, announcement(id, data));
+            }
+            for (int i = 0; i < WARMUP_OPERATIONS; i++) {
+                reader.get((long) random.nextInt(ENTRIES));
+                writer.put((long) random.nextInt(ENTRIES), announcement(random.nextInt(ENTRIES), data));
+            }
+
+            long[] gets = new long[MEASURED_OPERATIONS];
+            long[] puts = new long[MEASURED_OPERATIONS];
+            for (int i = 0; i < MEASURED_OPERATIONS; i++) {
+                long id = random.nextInt(ENTRIES);
+                long start = System.nanoTime();
+                reader.get(id);
+                gets[i] = System.nanoTime() - start;
+                Announcement updated = announcement(id, data);
+                start = System.nanoTime();
+                writer.set(id, updated);
+                puts[i] = System.nanoTime() - start;
+            }
+            long memory = members.stream().mapToLong(member -> member.getMap(REGION).getLocalMapStats().getOwnedEntryMemoryCost()).sum();
+            log.info(
+                "{}: get p50={}us p99={}us, put p50={}us p99={}us, owned entry memory={} bytes",
+                name,
+                percentile(gets, 50),
+                percentile(gets, 99),
+                percentile(puts, 50),
+                percentile(puts, 99),
+                memory
+            );
+            return new double[] { Arrays.stream(gets).average().orElse(0) / 1_000.0, Arrays.stream(puts).average().orElse(0) / 1_000.0 };
+        } finally {
+            members.forEach(HazelcastInstance::shutdown);
+        }
+    }
+
+    private static double percentile(long[] nanos, int percentile) {
+        long[] sorted = nanos.clone();
+        Arrays.sort(sorted);
+        return sorted[sorted.length * percentile / 100] / 1_000.0;
+    }
+
+    private static Announcement announcement(long id, String data) {
+        return new Announcement()
+            .id(id)
+            .language(Language.ENGLISH)
+            .announcementType(AnnouncementType.TEXT)
+            .startDate(Instant.EPOCH)
+            .endDate(Instant.EPOCH.plusSeconds(id))
+            .announcementData(data);
+    }
+
+    private static ApplicationProperties.HazelcastMap policy(
+        InMemoryFormat inMemoryFormat,
+        int backupCount,
+        int asyncBackupCount,
+        boolean readBackupData
+    ) {
+        ApplicationProperties.HazelcastMap policy = new ApplicationProperties.HazelcastMap();
+        policy.setName(REGION);
+        policy.setInMemoryFormat(inMemoryFormat);
+        policy.setBackupCount(backupCount);
+        policy.setAsyncBackupCount(asyncBackupCount);
+        policy.setReadBackupData(readBackupData);
+        return policy;
+    }
+
+    private static Config memberConfig(String clusterName, ApplicationProperties.HazelcastMap policy) {
+        ApplicationProperties.NearCache nearCache = new ApplicationProperties().getNearCache();
+        nearCache.setEnabled(false);
+        Config config = new Config();
+        config.setClusterName(clusterName);
+        config.getNetworkConfig().setPort(5801).setPortAutoIncrement(true);
+        JoinConfig join = config.getNetworkConfig().getJoin();
+        join.getMulticastConfig().setEnabled(false);
+        join.getAutoDetectionConfig().setEnabled(false);
+        join.getTcpIpConfig().setEnabled(true).addMember("127.0.0.1:5801").addMember("127.0.0.1:5802").addMember("127.0.0.1:5803");
+        config.addMapConfig(new MapConfig("default"));
+        config.addMapConfig(CacheConfiguration.initializeDomainMapConfig(new JHipsterProperties(), nearCache));
+        CacheConfiguration.applyMapPolicies(config, List.of(policy));
+        return config;
+    }
+}
@@ -0,0 +1,123 @@
+package com.baulu.announcement.config;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import com.baulu.announcement.domain.Announcement;
+import com.baulu.announcement.domain.enumeration.AnnouncementType;
+import com.baulu.announcement.domain.enumeration.Language;
+import com.hazelcast.config.Config;
+import com.hazelcast.config.JoinConfig;
+import com.hazelcast.core.Hazelcast;
+import com.hazelcast.core.HazelcastInstance;
+import com.hazelcast.map.IMap;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.Timeout;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import tech.jhipster.config.JHipsterProperties;
+
+/**
+ * Latency of the entity region reads done by {@code findOne} on a second-level cache hit, on a local 3-node cluster with
+ * and without the near cache configured by {@link CacheConfiguration}.
+ * <p>
+ * Disabled by default, run it with:
+ * <pre>
+ * ./mvnw verify -Dit.test=NearCacheBenchmarkIT -Dbenchmark=true
+ * </pre>
+ */
+@EnabledIfSystemProperty(named = "benchmark", matches = "true")
+class NearCacheBenchmarkIT {
+
+    private static final Logger log = LoggerFactory.getLogger(NearCacheBenchmarkIT.class);
+
+    private static final String REGION = "com.baulu.announcement.domain.Announcement";
+
+    private static final int MEMBERS = 3;
+
+    private static final int ENTRIES = 1_000;
+
+    private static final int WARMUP_READS = 20_000;
+
+    private static final int MEASURED_READS = 100_000;
+
+    @Test
+    @Timeout(value = 30, unit = TimeUnit.MINUTES)
+    void findOneLatency() {
+        double withoutNearCache = measure(false);
+        double withNearCache = measure(true);
+
+        log.info("Average region read: {}us without near cache, {}us with near cache", withoutNearCache, withNearCache);
+        assertThat(withNearCache).isLessThan(withoutNearCache);
+    }
+
+    private double measure(boolean nearCacheEnabled) {
+        ApplicationProperties.NearCache nearCache = new ApplicationProperties().getNearCache();
+        nearCache.setEnabled(nearCacheEnabled);
+        String clusterName = "near-cache-benchmark-" + nearCacheEnabled;
+
+        List<HazelcastInstance> members = new ArrayList<>();
+        try {
+            for (int i = 0; i < MEMBERS; i++) {
+                members.add(Hazelcast.newHazelcastInstance(memberConfig(clusterName, nearCache)));
+            }
+            IMap<Long, Announcement> writer = members.get(0).getMap(REGION);
+            String data = "x".repeat(2048);
+            for (long id = 0; id < ENTRIES; id++) {
+                writer.put(
+                    id,
+                    new Announcement()
+                        .id(id)
+                        .language(Language.ENGLISH)
+                        .announcementType(AnnouncementType.TEXT)
+                        .startDate(Instant.EPOCH)
+                        .endDate(Instant.EPOCH.plusSeconds(id))
+                        .announcementData(data)
+                );
+            }
+
+            IMap<Long, Announcement> reader = members.get(MEMBERS - 1).getMap(REGION);
+            Random random = new Random(42);
+            for (int i = 0; i < WARMUP_READS; i++) {
+                reader.get((long) random.nextInt(ENTRIES));
+            }
+            long[] nanos = new long[MEASURED_READS];
+            for (int i = 0; i < MEASURED_READS; i++) {
+                long id = random.nextInt(ENTRIES);
+                long start = System.nanoTime();
+                reader.get(id);
+                nanos[i] = System.nanoTime() - start;
+            }
+            Arrays.sort(nanos);
+            double average = Arrays.stream(nanos).average().orElse(0) / 1_000.0;
+            log.info(
+                "nearCache={} avg={}us p50={}us p99={}us",
+                nearCacheEnabled,
+                average,
+                nanos[MEASURED_READS / 2] / 1_000.0,
+                nanos[MEASURED_READS * 99 / 100] / 1_000.0
+            );
+            return average;
+        } finally {
+            members.forEach(HazelcastInstance::shutdown);
+        }
+    }
+
+    private static Config memberConfig(String clusterName, ApplicationProperties.NearCache nearCache) {
+        Config config = new Config();
+        config.setClusterName(clusterName);
+        config.getNetworkConfig().setPort(5801).setPortAutoIncrement(true);
+        JoinConfig join = config.getNetworkConfig().getJoin();
+        join.getMulticastConfig().setEnabled(false);
+        join.getAutoDetectionConfig().setEnabled(false);
+        join.getTcpIpConfig().setEnabled(true).addMember("127.0.0.1:5801").addMember("127.0.0.1:5802").addMember("127.0.0.1:5803");
+        config.addMapConfig(CacheConfiguration.initializeDomainMapConfig(new JHipsterProperties(), nearCache));
+        return config;
+    }
+}
@@ -0,0 +1,130 @@
+package com.baulu.announcement.config;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import com.baulu.announcement.domain.Announcement;
+import com.baulu.announcement.domain.enumeration.AnnouncementType;
+import com.baulu.announcement.domain.enumeration.Language;
+import com.hazelcast.config.Config;
+import com.hazelcast.core.Hazelcast;
+import com.hazelcast.core.HazelcastInstance;
+import com.hazelcast.internal.serialization.Data;
+import com.hazelcast.internal.serialization.SerializationService;
+import com.hazelcast.spi.impl.SerializationServiceSupport;
+import java.io.Serializable;
+import java.time.Instant;
+import java.util.concurrent.TimeUnit;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.Timeout;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Serialized size and round-trip time of an {@link Announcement} and of its second-level cache entry, with the serializers
+ * registered by {@link CacheConfiguration} and with the Hazelcast defaults.
+ * <p>
+ * Disabled by default, run it with:
+ * <pre>
+ * ./mvnw verify -Dit.test=SerializationBenchmarkIT -Dbenchmark=true
+ * </pre>
+ */
+@EnabledIfSystemProperty(named = "benchmark", matches = "true")
+class SerializationBenchmarkIT {
+
+    private static final Logger log = LoggerFactory.getLogger(SerializationBenchmarkIT.class);
+
+    private static final int[] DATA_LENGTHS = { 256, 2048, 65536 };
+
+    private static final int WARMUP_ROUND_TRIPS = 50_000;
+
+    private static final int MEASURED_ROUND_TRIPS = 200_000;
+
+    @Test
+    @Timeout(value = 30, unit = TimeUnit.MINUTES)
+    void compareWithDefaultSerialization() {
+        HazelcastInstance defaults = Hazelcast.newHazelcastInstance(memberConfig("serialization-benchmark-default", false));
+        HazelcastInstance custom = Hazelcast.newHazelcastInstance(memberConfig("serialization-benchmark-custom", true));
+        try {
+            for (int length : DATA_LENGTHS) {
+                Announcement announcement = announcement(length);
+                Serializable[] state = {
+                    announcement.getAnnouncementData(),
+                    announcement.getAnnouncementType(),
+                    announcement.getEndDate(),
+                    announcement.getLanguage(),
+                    announcement.getStartDate(),
+                };
+                Object entry = CacheEntryStreamSerializer.newEntry(state, Announcement.class.getName(), null);
+
+                Result defaultAnnouncement = measure(serializationService(defaults), announcement);
+                Result customAnnouncement = measure(serializationService(custom), announcement);
+                Result defaultEntry = measure(serializationService(defaults), entry);
+                Result customEntry = measure(serializationService(custom), entry);
+                log.info("Announcement, data of {} chars: default {}, custom {}", length, defaultAnnouncement, customAnnouncement);
+                log.info("Cache entry, data of {} chars: default {}, custom {}", length, defaultEntry, customEntry);
+
+                assertThat(customAnnouncement.size).isLessThan(defaultAnnouncement.size);
+                assertThat(customEntry.size).isLessThan(defaultEntry.size);
+            }
+        } finally {
+            defaults.shutdown();
+            custom.shutdown();
+        }
+    }
+
+    private static Result measure(SerializationService serializationService, Object value) {
+        for (int i = 0; i < WARMUP_ROUND_TRIPS; i++) {
+            serializationService.toObject(serializationService.toData(value));
+        }
+        long start = System.nanoTime();
+        for (int i = 0; i < MEASURED_ROUND_TRIPS; i++) {
+            serializationService.toObject(serializationService.toData(value));
+        }
+        double nanos = (System.nanoTime() - start) / (double) MEASURED_ROUND_TRIPS;
+        Data data = serializationService.toData(value);
+        return new Result(data.totalSize(), nanos / 1_000.0);
+    }
+
+    private static SerializationService serializationService(HazelcastInstance hazelcastInstance) {
+        return ((SerializationServiceSupport) hazelcastInstance).getSerializationService();
+    }
+
+    private static Announcement announcement(int length) {
+        return new Announcement()
+            .id(1L)
+            .language(Language.ENGLISH)
+            .announcementType(AnnouncementType.TEXT)
+            .startDate(Instant.parse("2024-01-01T00:00:00Z"))
+            .endDate(Instant.parse("2024-02-01T00:00:00Z"))
+            .announcementData("x".repeat(length));
+    }
+
+    private static Config memberConfig(String clusterName, boolean customSerializers) {
+        Config config = new Config();
+        config.setClusterName(clusterName);
+        config.getNetworkConfig().getJoin().getMulticastConfig().setEnabled(false);
+        config.getNetworkConfig().getJoin().getAutoDetectionConfig().setEnabled(false);
+        if (customSerializers) {
+            CacheConfiguration.initializeSerializationConfig(config.getSerializationConfig());
+        }
+        return config;
+    }
+
+    private static class Result {
+
+        private final int size;
+
+        private final double roundTripMicros;
+
+        Result(int size, double roundTripMicros) {
+            this.size = size;
+            this.roundTripMicros = roundTripMicros;
+        }
+
+        @Override
+        public String toString() {
+            return size + " bytes in " + String.format("%.3f", roundTripMicros) + "us";
+        }
+    }
+}
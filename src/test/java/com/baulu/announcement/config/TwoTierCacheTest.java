@@ -0,0 +1,191 @@
+package com.baulu.announcement.config;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.IntStream;
+import org.junit.jupiter.api.Test;
+import org.springframework.cache.concurrent.ConcurrentMapCache;
+
+class TwoTierCacheTest {
+
+    private final ConcurrentMapCache remote = new ConcurrentMapCache("announcements");
+
+    private final List<CacheInvalidation> published = new ArrayList<>();
+
+    private final ApplicationProperties.LocalCache.Tier tier = new ApplicationProperties.LocalCache.Tier();
+
+    private final TwoTierCache first = new TwoTierCache(remote, tier, published::add);
+
+    private final TwoTierCache second = new TwoTierCache(remote, tier, published::add);
+
+    private final MutableClock clock = new MutableClock();
+
+    @Test
+    void remoteHitFillsTheLocalTier() {
+        remote.put(1L, "one");
+
+        assertThat(first.get(1L, String.class)).isEqualTo("one");
+        remote.evict(1L);
+        assertThat(first.get(1L, String.class)).isEqualTo("one");
+    }
+
+    @Test
+    void putIsWrittenThroughAndPublished() {
+        first.put(1L, "one");
+
+        assertThat(remote.get(1L, String.class)).isEqualTo("one");
+        assertThat(published).singleElement().satisfies(invalidation -> {
+            assertThat(invalidation.getCacheName()).isEqualTo("announcements");
+            assertThat(invalidation.getKey()).isEqualTo(1L);
+            assertThat(invalidation.isClear()).isFalse();
+        });
+    }
+
+    @Test
+    void invalidationDropsTheLocalCopyOnTheOtherNode() {
+        first.put(1L, "one");
+        assertThat(second.get(1L, String.class)).isEqualTo("one");
+
+        first.put(1L, "uno");
+        assertThat(second.get(1L, String.class)).isEqualTo("one");
+        published.forEach(second::invalidateLocal);
+
+        assertThat(second.get(1L, String.class)).isEqualTo("uno");
+    }
+
+    @Test
+    void clearIsPublished() {
+        first.put(1L, "one");
+        assertThat(second.get(1L)).isNotNull();
+
+        first.clear();
+        published.forEach(second::invalidateLocal);
+
+        assertThat(published).last().satisfies(invalidation -> assertThat(invalidation.isClear()).isTrue());
+        assertThat(second.get(1L)).isNull();
+    }
+
+    @Test
+    void loaderResultIsKeptInBothTiers() {
+        assertThat(first.get(1L, () -> "one")).isEqualTo("one");
+
+        assertThat(remote.get(1L, String.class)).isEqualTo("one");
+        assertThat(first.getLocalCache().getIfPresent(1L)).isNotNull();
+        assertThat(published).isEmpty();
+    }
+
+    @Test
+    void freshValueIsServedWithoutReloading() {
+        TwoTierCache cache = refreshingCache(new AtomicBoolean(true));
+        AtomicInteger loads = new AtomicInteger();
+
+        cache.get(1L, loads::incrementAndGet);
+        clock.advance(Duration.ofMinutes(9));
+
+        assertThat(cache.get(1L, loads::incrementAndGet)).isEqualTo(1);
+        assertThat(loads).hasValue(1);
+    }
+
+    @Test
+    void staleValueIsServedWhileItIsReloaded() {
+        TwoTierCache cache = refreshingCache(new AtomicBoolean(true));
+        AtomicInteger loads = new AtomicInteger();
+
+        cache.get(1L, loads::incrementAndGet);
+        clock.advance(Duration.ofMinutes(10));
+
+        assertThat(cache.get(1L, loads::incrementAndGet)).isEqualTo(1);
+        assertThat(cache.get(1L, Integer.class)).isEqualTo(2);
+        assertThat(published).hasSize(2);
+    }
+
+    @Test
+    void staleValueIsNotReloadedWithoutTheLock() {
+        TwoTierCache cache = refreshingCache(new AtomicBoolean(false));
+        AtomicInteger loads = new AtomicInteger();
+
+        cache.get(1L, loads::incrementAndGet);
+        clock.advance(Duration.ofMinutes(10));
+
+        assertThat(cache.get(1L, loads::incrementAndGet)).isEqualTo(1);
+        assertThat(loads).hasValue(1);
+    }
+
+    @Test
+    void tooStaleValueIsReloadedByTheCaller() {
+        TwoTierCache cache = refreshingCache(new AtomicBoolean(true));
+        AtomicInteger loads = new AtomicInteger();
+
+        cache.get(1L, loads::incrementAndGet);
+        clock.advance(Duration.ofMinutes(11));
+
+        assertThat(cache.get(1L)).isNull();
+        assertThat(cache.get(1L, loads::incrementAndGet)).isEqualTo(2);
+    }
+
+    @Test
+    void valueIsReloadedEarlierTheSlowerItLoads() {
+        ApplicationProperties.LocalCache.Tier tier = refreshingTier();
+        RefreshableValue slow = new RefreshableValue("slow", 1_000, 1_000);
+        RefreshableValue fast = new RefreshableValue("fast", 1_000, 0);
+
+        long slowRefreshes = IntStream.range(0, 1_000).filter(i -> slow.shouldRefresh(500, tier.getBeta())).count();
+        long fastRefreshes = IntStream.range(0, 1_000).filter(i -> fast.shouldRefresh(500, tier.getBeta())).count();
+
+        assertThat(slowRefreshes).isBetween(500L, 700L);
+        assertThat(fastRefreshes).isZero();
+    }
+
+    private TwoTierCache refreshingCache(AtomicBoolean lockAvailable) {
+        TwoTierCache.RefreshLock lock = new TwoTierCache.RefreshLock() {
+            @Override
+            public boolean tryLock(Object key) {
+                return lockAvailable.get();
+            }
+
+            @Override
+            public void unlock(Object key) {}
+        };
+        return new TwoTierCache(remote, refreshingTier(), published::add, lock, Runnable::run, clock);
+    }
+
+    private static ApplicationProperties.LocalCache.Tier refreshingTier() {
+        ApplicationProperties.LocalCache.Tier tier = new ApplicationProperties.LocalCache.Tier();
+        tier.setRefreshAfter(Duration.ofMinutes(10));
+        tier.setMaxStale(Duration.ofMinutes(1));
+        return tier;
+    }
+
+    private static class MutableClock extends Clock {
+
+        private Instant now = Instant.parse("2024-01-01T00:00:00Z");
+
+        void advance(Duration duration) {
+            now = now.plus(duration);
+        }
+
+        @Override
+        public ZoneId getZone() {
+            return ZoneOffset.UTC;
+        }
+
+        @Override
+        public Clock withZone(ZoneId zone) {
+            return this;
+        }
+
+        @Override
+        public Instant instant() {
+            return now;
+        }
+    }
+}
@@ -0,0 +1,63 @@
+package com.baulu.announcement.config;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.awaitility.Awaitility.await;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import com.baulu.announcement.service.AnnouncementService;
+import java.time.Duration;
+import java.util.concurrent.CountDownLatch;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.actuate.health.Status;
+
+class WarmUpHealthIndicatorTest {
+
+    private final AnnouncementService announcementService = mock(AnnouncementService.class);
+
+    private final ApplicationProperties applicationProperties = new ApplicationProperties();
+
+    private final WarmUpHealthIndicator warmUp = new WarmUpHealthIndicator(announcementService, applicationProperties);
+
+    @Test
+    void downUntilWarmUpCompletes() {
+        CountDownLatch release = new CountDownLatch(1);
+        when(announcementService.warmUp(any(), any())).thenAnswer(invocation -> {
+            release.await();
+            return 3;
+        });
+
+        warmUp.onStartup();
+        assertThat(warmUp.health().getStatus()).isEqualTo(Status.DOWN);
+
+        release.countDown();
+        await().untilAsserted(() -> assertThat(warmUp.health().getStatus()).isEqualTo(Status.UP));
+        assertThat(warmUp.health().getDetails()).containsEntry("state", "complete").containsEntry("loaded", 3);
+    }
+
+    @Test
+    void upAfterTimeout() {
+        applicationProperties.getWarmUp().setTimeout(Duration.ofMillis(50));
+        CountDownLatch never = new CountDownLatch(1);
+        when(announcementService.warmUp(any(), any())).thenAnswer(invocation -> {
+            never.await();
+            return 0;
+        });
+
+        warmUp.onStartup();
+
+        await().untilAsserted(() -> assertThat(warmUp.health().getStatus()).isEqualTo(Status.UP));
+        assertThat(warmUp.health().getDetails()).containsEntry("state", "timed out");
+        never.countDown();
+    }
+
+    @Test
+    void upRightAwayWhenDisabled() {
+        applicationProperties.getWarmUp().setEnabled(false);
+
+        warmUp.onStartup();
+
+        assertThat(warmUp.health().getStatus()).isEqualTo(Status.UP);
+    }
+}
@@ -0,0 +1,180 @@
+package com.baulu.announcement.repository;
+
+import com.baulu.announcement.IntegrationTest;
+import com.baulu.announcement.domain.Announcement;
+import com.baulu.announcement.domain.enumeration.AnnouncementType;
+import com.baulu.announcement.domain.enumeration.Language;
+import jakarta.persistence.EntityManager;
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.Timeout;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.support.TransactionTemplate;
+
+/**
+ * Repeatable latency benchmark of the active announcement query, with and without the
+ * {@code idx_announcement_active_window} index and with the former {@code SELECT DISTINCT} query.
+ * <p>
+ * Disabled by default, run it with:
+ * <pre>
+ * ./mvnw verify -Dit.test=AnnouncementActiveQueryBenchmarkIT -Dbenchmark=true [-Dbenchmark.rows=10000,100000,1000000]
+ * </pre>
+ */
+@IntegrationTest
+@EnabledIfSystemProperty(named = "benchmark", matches = "true")
+class AnnouncementActiveQueryBenchmarkIT {
+
+    private static final Logger log = LoggerFactory.getLogger(AnnouncementActiveQueryBenchmarkIT.class);
+
+    private static final String DISTINCT_QUERY =
+        "SELECT DISTINCT announcement FROM Announcement announcement " +
+        "where announcement.startDate < :date and announcement.endDate > :date and announcement.language = :selectedLanguage";
+
+    private static final long FIRST_ID = 1_000_000_000L;
+
+    private static final Instant ORIGIN = Instant.parse("2024-01-01T00:00:00Z");
+
+    private static final Duration SPAN = Duration.ofDays(365);
+
+    private static final int WARMUP_QUERIES = 20;
+
+    private static final int MEASURED_QUERIES = 200;
+
+    @Autowired
+    private AnnouncementRepository announcementRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private EntityManager em;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @AfterEach
+    void cleanUp() {
+        deleteRows();
+        createIndex();
+    }
+
+    @Test
+    @Timeout(value = 30, unit = TimeUnit.MINUTES)
+    void activeQueryLatency() {
+        for (String rows : System.getProperty("benchmark.rows", "10000,100000,1000000").split(",")) {
+            int count = Integer.parseInt(rows.trim());
+            deleteRows();
+            insertRows(count);
+
+            dropIndex();
+            report(count, "DISTINCT, no index", () -> distinctQuery(randomInstant(), randomLanguage()));
+            report(count, "no DISTINCT, no index", () -> announcementRepository.findByDateAndLanguage(randomInstant(), randomLanguage()));
+
+            createIndex();
+            report(count, "DISTINCT, index", () -> distinctQuery(randomInstant(), randomLanguage()));
+            report(count, "no DISTINCT, index", () -> announcementRepository.findByDateAndLanguage(randomInstant(), randomLanguage()));
+        }
+    }
+
+    private final Random random = new Random(42);
+
+    private Instant randomInstant() {
+        return ORIGIN.plusSeconds((long) (random.nextDouble() * SPAN.toSeconds()));
+    }
+
+    private Language randomLanguage() {
+        return Language.values()[random.nextInt(Language.values().length)];
+    }
+
+    private List<Announcement> distinctQuery(Instant date, Language language) {
+        return em
+            .createQuery(DISTINCT_QUERY, Announcement.class)
+            .setParameter("date", date)
+            .setParameter("selectedLanguage", language)
+            .getResultList();
+    }
+
+    private void report(int rows, String variant, Supplier<List<Announcement>> query) {
+        long[] nanos = new long[MEASURED_QUERIES];
+        long results = 0;
+        for (int i = 0; i < WARMUP_QUERIES + MEASURED_QUERIES; i++) {
+            long start = System.nanoTime();
+            int size = transactionTemplate.execute(status -> {
+                List<Announcement> result = query.get();
+                em.clear();
+                return result.size();
+            });
+            if (i >= WARMUP_QUERIES) {
+                nanos[i - WARMUP_QUERIES] = System.nanoTime() - start;
+                results += size;
+            }
+        }
+        Arrays.sort(nanos);
+        log.info(
+            "rows={} variant='{}' avgResults={} p50={}ms p95={}ms p99={}ms",
+            rows,
+            variant,
+            results / MEASURED_QUERIES,
+            nanos[MEASURED_QUERIES / 2] / 1_000_000.0,
+            nanos[MEASURED_QUERIES * 95 / 100] / 1_000_000.0,
+            nanos[MEASURED_QUERIES * 99 / 100] / 1_000_000.0
+        );
+    }
+
+    private void insertRows(int count) {
+        Random data = new Random(count);
+        String payload = "x".repeat(512);
+        List<Object[]> batch = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            Instant start = ORIGIN.plusSeconds((long) (data.nextDouble() * SPAN.toSeconds()));
+            Instant end = start.plus(Duration.ofHours(1 + data.nextInt(24 * 14)));
+            batch.add(
+                new Object[] {
+                    FIRST_ID + i,
+                    Language.values()[data.nextInt(Language.values().length)].name(),
+                    Timestamp.from(start),
+                    Timestamp.from(end),
+                    AnnouncementType.TEXT.name(),
+                    payload,
+                }
+            );
+            if (batch.size() == 5_000 || i == count - 1) {
+                jdbcTemplate.batchUpdate(
+                    "insert into announcement (id, language, start_date, end_date, announcement_type, announcement_data) values (?, ?, ?, ?, ?, ?)",
+                    batch
+                );
+                batch.clear();
+            }
+        }
+        jdbcTemplate.execute("UPDATE STATISTICS announcement");
+    }
+
+    private void deleteRows() {
+        jdbcTemplate.update("delete from announcement where id >= ?", FIRST_ID);
+    }
+
+    private void dropIndex() {
+        jdbcTemplate.execute(
+            "IF EXISTS (SELECT 1 FROM sys.indexes WHERE name = 'idx_announcement_active_window') DROP INDEX idx_announcement_active_window ON announcement"
+        );
+    }
+
+    private void createIndex() {
+        jdbcTemplate.execute(
+            "IF NOT EXISTS (SELECT 1 FROM sys.indexes WHERE name = 'idx_announcement_active_window') CREATE INDEX idx_announcement_active_window ON announcement (language, start_date, end_date)"
+        );
+    }
+}
@@ -0,0 +1,309 @@
+package com.baulu.announcement.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import com.baulu.announcement.config.ApplicationProperties;
+import com.baulu.announcement.domain.Announcement;
+import com.baulu.announcement.domain.Announcement_;
+import com.baulu.announcement.domain.enumeration.AnnouncementType;
+import com.baulu.announcement.domain.enumeration.Language;
+import com.baulu.announcement.service.criteria.AnnouncementCriteria;
+import com.baulu.announcement.service.impl.AnnouncementCountCache;
+import com.baulu.announcement.service.impl.AnnouncementResultCache;
+import com.baulu.announcement.service.impl.AnnouncementWriteGeneration;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityManagerFactory;
+import jakarta.persistence.TypedQuery;
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.CriteriaQuery;
+import jakarta.persistence.criteria.Predicate;
+import jakarta.persistence.criteria.Root;
+import java.lang.reflect.Proxy;
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.function.LongFunction;
+import javax.sql.DataSource;
+import org.hibernate.boot.model.naming.CamelCaseToUnderscoresNamingStrategy;
+import org.hibernate.dialect.SQLServerDialect;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.Timeout;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.results.RunResult;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.openjdk.jmh.runner.options.TimeValue;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.data.jpa.repository.query.QueryUtils;
+import org.springframework.orm.jpa.LocalContainerEntityManagerFactoryBean;
+import org.springframework.orm.jpa.vendor.HibernateJpaVendorAdapter;
+import tech.jhipster.service.QueryService;
+
+/**
+ * Cost per request of turning {@link AnnouncementCriteria} into an executed query, with a {@link Specification} building a
+ * Criteria query for every request as before, and with {@link AnnouncementQueryService} binding the values to the
+ * Criteria query cached for the shape of the criteria.
+ * <p>
+ * Hibernate runs against a JDBC driver stub returning no rows, so that only the query building, interpretation and SQL
+ * translation are measured.
+ * <p>
+ * Disabled by default, run it with:
+ * <pre>
+ * ./mvnw verify -Dit.test=AnnouncementQueryBenchmarkIT -Dbenchmark=true
+ * </pre>
+ */
+@EnabledIfSystemProperty(named = "benchmark", matches = "true")
+public class AnnouncementQueryBenchmarkIT {
+
+    private static final Logger log = LoggerFactory.getLogger(AnnouncementQueryBenchmarkIT.class);
+
+    private static final Pageable PAGE = PageRequest.of(0, 20, Sort.by(Sort.Direction.DESC, "startDate", "id"));
+
+    /**
+     * The filter shapes of the traffic, with values changing from one request to the other.
+     */
+    private static final List<LongFunction<AnnouncementCriteria>> SHAPES = List.of(
+        value -> new AnnouncementCriteria(),
+        value -> {
+            AnnouncementCriteria criteria = new AnnouncementCriteria();
+            criteria.language().setEquals(Language.values()[(int) (value % Language.values().length)]);
+            return criteria;
+        },
+        value -> {
+            AnnouncementCriteria criteria = new AnnouncementCriteria();
+            criteria.announcementType().setIn(List.of(AnnouncementType.values()));
+            criteria.language().setEquals(Language.values()[(int) (value % Language.values().length)]);
+            return criteria;
+        },
+        value -> {
+            Instant now = Instant.EPOCH.plusSeconds(value);
+            AnnouncementCriteria criteria = new AnnouncementCriteria();
+            criteria.startDate().setLessThanOrEqual(now);
+            criteria.endDate().setGreaterThan(now);
+            return criteria;
+        },
+        value -> {
+            Instant now = Instant.EPOCH.plusSeconds(value);
+            AnnouncementCriteria criteria = new AnnouncementCriteria();
+            criteria.startDate().setGreaterThanOrEqual(now.minus(7, ChronoUnit.DAYS));
+            criteria.startDate().setLessThan(now);
+            criteria.endDate().setSpecified(true);
+            return criteria;
+        },
+        value -> {
+            AnnouncementCriteria criteria = new AnnouncementCriteria();
+            criteria.id().setGreaterThan(value);
+            criteria.setDistinct(true);
+            return criteria;
+        }
+    );
+
+    @Test
+    @Timeout(value = 30, unit = TimeUnit.MINUTES)
+    void compareWithSpecifications() throws RunnerException {
+        Options options = new OptionsBuilder()
+            .include(AnnouncementQueryBenchmarkIT.class.getName() + "\\.")
+            .forks(1)
+            .warmupIterations(3)
+            .warmupTime(TimeValue.seconds(2))
+            .measurementIterations(5)
+            .measurementTime(TimeValue.seconds(2))
+            .build();
+        Collection<RunResult> results = new Runner(options).run();
+
+        double specification = score(results, "specification");
+        double cached = score(results, "cached");
+        log.info("Per request: specification {} us, cached {} us", specification, cached);
+        assertThat(cached).isLessThan(specification);
+    }
+
+    private static double score(Collection<RunResult> results, String benchmark) {
+        return results
+            .stream()
+            .filter(result -> result.getParams().getBenchmark().endsWith("." + benchmark))
+            .findFirst()
+            .orElseThrow()
+            .getPrimaryResult()
+            .getScore();
+    }
+
+    @Benchmark
+    @BenchmarkMode(Mode.AverageTime)
+    @OutputTimeUnit(TimeUnit.MICROSECONDS)
+    public List<Announcement> specification(Queries queries) {
+        return queries.specificationQueries.findByCriteria(queries.next(), PAGE);
+    }
+
+    @Benchmark
+    @BenchmarkMode(Mode.AverageTime)
+    @OutputTimeUnit(TimeUnit.MICROSECONDS)
+    public List<Announcement> cached(Queries queries) {
+        return queries.announcementQueryService.findByCriteria(queries.next(), PAGE).getContent();
+    }
+
+    @State(Scope.Thread)
+    public static class Queries {
+
+        private LocalContainerEntityManagerFactoryBean factory;
+
+        private EntityManager entityManager;
+
+        private SpecificationQueries specificationQueries;
+
+        private AnnouncementQueryService announcementQueryService;
+
+        private long requests;
+
+        @Setup(Level.Trial)
+        public void setUp() {
+            factory = new LocalContainerEntityManagerFactoryBean();
+            factory.setDataSource(stub(DataSource.class));
+            factory.setPackagesToScan(Announcement.class.getPackageName());
+            factory.setJpaVendorAdapter(new HibernateJpaVendorAdapter());
+            factory.setJpaPropertyMap(
+                Map.of(
+                    "hibernate.dialect",
+                    SQLServerDialect.class.getName(),
+                    "hibernate.temp.use_jdbc_metadata_defaults",
+                    "false",
+                    "hibernate.physical_naming_strategy",
+                    CamelCaseToUnderscoresNamingStrategy.class.getName(),
+                    "hibernate.type.preferred_instant_jdbc_type",
+                    "TIMESTAMP",
+                    "hibernate.query.in_clause_parameter_padding",
+                    "true",
+                    "hibernate.criteria.copy_tree",
+                    "false"
+                )
+            );
+            factory.afterPropertiesSet();
+            EntityManagerFactory entityManagerFactory = factory.getObject();
+            entityManager = entityManagerFactory.createEntityManager();
+            specificationQueries = new SpecificationQueries(entityManager);
+            // The result cache is disabled, so that every request builds its query, and no hydrator is needed
+            ApplicationProperties applicationProperties = new ApplicationProperties();
+            applicationProperties.getResultCache().setEnabled(false);
+            AnnouncementWriteGeneration writeGeneration = new AnnouncementWriteGeneration();
+            SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+            announcementQueryService = new AnnouncementQueryService(
+                entityManager,
+                new AnnouncementCountCache(applicationProperties, writeGeneration, meterRegistry),
+                new AnnouncementResultCache(applicationProperties, writeGeneration, meterRegistry),
+                null
+            );
+        }
+
+        @TearDown(Level.Trial)
+        public void tearDown() {
+            entityManager.close();
+            factory.destroy();
+        }
+
+        AnnouncementCriteria next() {
+            requests++;
+            return SHAPES.get((int) (requests % SHAPES.size())).apply(requests);
+        }
+    }
+
+    /**
+     * The queries as built before the Criteria queries were cached: a {@link Specification} and a Criteria query per request.
+     */
+    static class SpecificationQueries extends QueryService<Announcement> {
+
+        private final EntityManager entityManager;
+
+        SpecificationQueries(EntityManager entityManager) {
+            this.entityManager = entityManager;
+        }
+
+        List<Announcement> findByCriteria(AnnouncementCriteria criteria, Pageable page) {
+            Specification<Announcement> specification = createSpecification(criteria);
+            CriteriaBuilder builder = entityManager.getCriteriaBuilder();
+            CriteriaQuery<Announcement> query = builder.createQuery(Announcement.class);
+            Root<Announcement> root = query.from(Announcement.class);
+            Predicate predicate = specification.toPredicate(root, query, builder);
+            if (predicate != null) {
+                query.where(predicate);
+            }
+            query.orderBy(QueryUtils.toOrders(page.getSort(), root, builder));
+            TypedQuery<Announcement> typedQuery = entityManager.createQuery(query);
+            typedQuery.setFirstResult((int) page.getOffset());
+            typedQuery.setMaxResults(page.getPageSize());
+            return typedQuery.getResultList();
+        }
+
+        Specification<Announcement> createSpecification(AnnouncementCriteria criteria) {
+            Specification<Announcement> specification = Specification.where(null);
+            if (criteria.getDistinct() != null) {
+                specification = specification.and(distinct(criteria.getDistinct()));
+            }
+            if (criteria.getId() != null) {
+                specification = specification.and(buildRangeSpecification(criteria.getId(), Announcement_.id));
+            }
+            if (criteria.getLanguage() != null) {
+                specification = specification.and(buildSpecification(criteria.getLanguage(), Announcement_.language));
+            }
+            if (criteria.getStartDate() != null) {
+                specification = specification.and(buildRangeSpecification(criteria.getStartDate(), Announcement_.startDate));
+            }
+            if (criteria.getEndDate() != null) {
+                specification = specification.and(buildRangeSpecification(criteria.getEndDate(), Announcement_.endDate));
+            }
+            if (criteria.getAnnouncementType() != null) {
+                specification = specification.and(buildSpecification(criteria.getAnnouncementType(), Announcement_.announcementType));
+            }
+            return specification;
+        }
+    }
+
+    /**
+     * @return a JDBC object doing nothing, whose queries return no rows.
+     */
+    @SuppressWarnings("unchecked")
+    private static <T> T stub(Class<T> type) {
+        return (T) Proxy.newProxyInstance(
+            AnnouncementQueryBenchmarkIT.class.getClassLoader(),
+            new Class<?>[] { type },
+            (proxy, method, args) -> {
+                Class<?> returned = method.getReturnType();
+                return switch (method.getName()) {
+                    case "equals" -> proxy == args[0];
+                    case "hashCode" -> System.identityHashCode(proxy);
+                    case "toString" -> type.getSimpleName() + " stub";
+                    default -> {
+                        if (returned == boolean.class) {
+                            yield false;
+                        } else if (returned == int.class) {
+                            yield 0;
+                        } else if (returned == long.class) {
+                            yield 0L;
+                        } else if (returned.isInterface() && returned.getPackageName().equals("java.sql")) {
+                            yield stub(returned);
+                        }
+                        yield null;
+                    }
+                };
+            }
+        );
+    }
+}
@@ -0,0 +1,126 @@
+package com.baulu.announcement.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+
+import com.baulu.announcement.config.ApplicationProperties;
+import com.baulu.announcement.domain.Announcement;
+import com.baulu.announcement.domain.enumeration.AnnouncementType;
+import com.baulu.announcement.domain.enumeration.Language;
+import com.baulu.announcement.repository.AnnouncementValidators;
+import com.baulu.announcement.service.criteria.AnnouncementCriteria;
+import com.baulu.announcement.service.impl.AnnouncementCountCache;
+import com.baulu.announcement.service.impl.AnnouncementHydrator;
+import com.baulu.announcement.service.impl.AnnouncementResultCache;
+import com.baulu.announcement.service.impl.AnnouncementWriteGeneration;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.persistence.EntityManager;
+import java.time.Instant;
+import java.util.List;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+
+class AnnouncementQueryServiceTest {
+
+    @Test
+    void criteriaDifferingByTheirValuesHaveTheSameShape() {
+        AnnouncementCriteria english = activeCriteria(Language.ENGLISH, Instant.parse("2026-10-17T10:00:00Z"));
+        AnnouncementCriteria turkish = activeCriteria(Language.TURKISH, Instant.parse("2026-10-18T10:00:00Z"));
+
+        assertThat(AnnouncementQueryService.shapeOf(turkish)).isEqualTo(AnnouncementQueryService.shapeOf(english));
+        assertThat(AnnouncementQueryService.shapeOf(english)).isEqualTo(
+            "language.equals,startDate.lessThanOrEqual,endDate.greaterThan"
+        );
+    }
+
+    @Test
+    void shapeCountsTheValuesOfTheLists() {
+        AnnouncementCriteria one = new AnnouncementCriteria();
+        one.announcementType().setIn(List.of(AnnouncementType.TEXT));
+        AnnouncementCriteria two = new AnnouncementCriteria();
+        two.announcementType().setIn(List.of(AnnouncementType.TEXT, AnnouncementType.IMAGE));
+
+        assertThat(AnnouncementQueryService.shapeOf(one)).isEqualTo("announcementType.in1");
+        assertThat(AnnouncementQueryService.shapeOf(two)).isEqualTo("announcementType.in2");
+    }
+
+    @Test
+    void shapeKeepsWhatIsNotBound() {
+        AnnouncementCriteria criteria = new AnnouncementCriteria();
+        criteria.setDistinct(true);
+        criteria.endDate().setSpecified(false);
+        AnnouncementCriteria specified = new AnnouncementCriteria();
+        specified.endDate().setSpecified(true);
+
+        assertThat(AnnouncementQueryService.shapeOf(criteria)).isEqualTo("distinct=true,endDate.specified=false");
+        assertThat(AnnouncementQueryService.shapeOf(specified)).isEqualTo("endDate.specified=true");
+        assertThat(AnnouncementQueryService.shapeOf(null)).isEmpty();
+    }
+
+    @Test
+    void validatorsAreHydratedWithoutSearchingAgain() {
+        AnnouncementHydrator hydrator = mock(AnnouncementHydrator.class);
+        AnnouncementQueryService service = new AnnouncementQueryService(
+            mock(EntityManager.class),
+            mock(AnnouncementCountCache.class),
+            mock(AnnouncementResultCache.class),
+            hydrator
+        );
+        Announcement second = new Announcement().id(2L);
+        when(hydrator.hydrate(List.of(2L, 1L))).thenReturn(List.of(second));
+        PageRequest pageable = PageRequest.of(1, 2);
+        Page<AnnouncementValidators> validators = new PageImpl<>(
+            List.of(new AnnouncementValidators(2L, 0L, null), new AnnouncementValidators(1L, 3L, null)),
+            pageable,
+            5
+        );
+
+        Page<Announcement> page = service.findByValidators(validators);
+
+        assertThat(page.getContent()).containsExactly(second);
+        assertThat(page.getPageable()).isEqualTo(pageable);
+        assertThat(page.getTotalElements()).isEqualTo(5);
+    }
+
+    @Test
+    void repeatedSearchesAreServedFromTheResultCache() {
+        ApplicationProperties applicationProperties = new ApplicationProperties();
+        AnnouncementWriteGeneration writeGeneration = new AnnouncementWriteGeneration();
+        AnnouncementResultCache resultCache = new AnnouncementResultCache(applicationProperties, writeGeneration, new SimpleMeterRegistry());
+        EntityManager entityManager = mock(EntityManager.class);
+        AnnouncementHydrator hydrator = mock(AnnouncementHydrator.class);
+        AnnouncementQueryService service = new AnnouncementQueryService(
+            entityManager,
+            new AnnouncementCountCache(applicationProperties, writeGeneration, new SimpleMeterRegistry()),
+            resultCache,
+            hydrator
+        );
+        AnnouncementCriteria criteria = activeCriteria(Language.ENGLISH, Instant.parse("2026-10-17T10:00:00Z"));
+        PageRequest pageable = PageRequest.of(0, 20, Sort.by("id"));
+        // As read by a previous search in the current generation
+        resultCache.get(criteria, pageable, () -> List.of(new AnnouncementValidators(1L, 2L, null)));
+        Announcement announcement = new Announcement().id(1L);
+        when(hydrator.hydrate(List.of(1L))).thenReturn(List.of(announcement));
+
+        Page<AnnouncementValidators> validators = service.findValidatorsByCriteria(criteria.copy(), pageable);
+        Page<Announcement> page = service.findByCriteria(criteria.copy(), pageable);
+
+        assertThat(validators.getContent()).extracting(AnnouncementValidators::getVersion).containsExactly(2L);
+        assertThat(validators.getTotalElements()).isEqualTo(1);
+        assertThat(page.getContent()).containsExactly(announcement);
+        verifyNoInteractions(entityManager);
+    }
+
+    private static AnnouncementCriteria activeCriteria(Language language, Instant now) {
+        AnnouncementCriteria criteria = new AnnouncementCriteria();
+        criteria.language().setEquals(language);
+        criteria.startDate().setLessThanOrEqual(now);
+        criteria.endDate().setGreaterThan(now);
+        return criteria;
+    }
+}
@@ -0,0 +1,67 @@
+package com.baulu.announcement.service.criteria;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatIllegalArgumentException;
+
+import com.baulu.announcement.domain.Announcement;
+import java.time.Instant;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.domain.Sort;
+
+class AnnouncementCursorTest {
+
+    @Test
+    void firstPageIsSortedByIdByDefault() {
+        AnnouncementCursor cursor = AnnouncementCursor.first(Sort.unsorted());
+
+        assertThat(cursor.isFirst()).isTrue();
+        assertThat(cursor.getProperty()).isEqualTo(AnnouncementCursor.ID);
+        assertThat(cursor.getDirection()).isEqualTo(Sort.Direction.ASC);
+    }
+
+    @Test
+    void firstPageKeepsTheFirstOrder() {
+        AnnouncementCursor cursor = AnnouncementCursor.first(Sort.by(Sort.Order.desc("startDate"), Sort.Order.asc("id")));
+
+        assertThat(cursor.getProperty()).isEqualTo(AnnouncementCursor.START_DATE);
+        assertThat(cursor.getDirection()).isEqualTo(Sort.Direction.DESC);
+    }
+
+    @Test
+    void unsupportedSortIsRejected() {
+        assertThatIllegalArgumentException().isThrownBy(() -> AnnouncementCursor.first(Sort.by("announcementData")));
+    }
+
+    @Test
+    void nextCursorRoundTrips() {
+        Instant startDate = Instant.parse("2024-01-01T10:15:30.123Z");
+        AnnouncementCursor next = AnnouncementCursor.first(Sort.by(Sort.Order.desc("startDate"))).next(
+            new Announcement().id(42L).startDate(startDate)
+        );
+
+        AnnouncementCursor decoded = AnnouncementCursor.decode(next.encode());
+
+        assertThat(next.encode()).matches("[A-Za-z0-9_-]+");
+        assertThat(decoded.isFirst()).isFalse();
+        assertThat(decoded.getProperty()).isEqualTo(AnnouncementCursor.START_DATE);
+        assertThat(decoded.getDirection()).isEqualTo(Sort.Direction.DESC);
+        assertThat(decoded.getValue()).isEqualTo(startDate);
+        assertThat(decoded.getId()).isEqualTo(42L);
+    }
+
+    @Test
+    void nullSortKeyRoundTrips() {
+        AnnouncementCursor next = AnnouncementCursor.first(Sort.by("endDate")).next(new Announcement().id(7L));
+
+        AnnouncementCursor decoded = AnnouncementCursor.decode(next.encode());
+
+        assertThat(decoded.getValue()).isNull();
+        assertThat(decoded.getId()).isEqualTo(7L);
+    }
+
+    @Test
+    void malformedCursorIsRejected() {
+        assertThatIllegalArgumentException().isThrownBy(() -> AnnouncementCursor.decode("not a cursor"));
+        assertThatIllegalArgumentException().isThrownBy(() -> AnnouncementCursor.decode("aWQsQVNDLCx4"));
+    }
+}
@@ -0,0 +1,51 @@
+package com.baulu.announcement.service.criteria;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatIllegalArgumentException;
+
+import com.baulu.announcement.domain.Announcement;
+import com.baulu.announcement.domain.enumeration.Language;
+import java.time.Instant;
+import java.util.Map;
+import org.junit.jupiter.api.Test;
+
+class AnnouncementFieldsTest {
+
+    @Test
+    void fieldsKeepTheDeclarationOrderAndTheId() {
+        AnnouncementFields fields = AnnouncementFields.parse("startDate, language,,startDate");
+
+        assertThat(fields.getNames()).containsExactly("id", "language", "startDate");
+        assertThat(fields).isEqualTo(AnnouncementFields.parse("language,startDate,id"));
+        assertThat(fields).hasToString("id,language,startDate");
+    }
+
+    @Test
+    void includedFieldTakesItsDeclarationPlace() {
+        AnnouncementFields fields = AnnouncementFields.parse("startDate,language");
+
+        assertThat(fields.including("version").getNames()).containsExactly("id", "language", "startDate", "version");
+        assertThat(fields.including("language")).isEqualTo(fields);
+    }
+
+    @Test
+    void unknownFieldsAreRejected() {
+        assertThatIllegalArgumentException()
+            .isThrownBy(() -> AnnouncementFields.parse("language,announcement_data"))
+            .withMessageContaining("announcement_data");
+    }
+
+    @Test
+    void announcementIsLimitedToTheFields() {
+        Instant startDate = Instant.parse("2026-10-17T10:00:00Z");
+        Announcement announcement = new Announcement()
+            .id(1L)
+            .language(Language.ENGLISH)
+            .startDate(startDate)
+            .announcementData("data");
+
+        Map<String, Object> map = AnnouncementFields.parse("startDate,language").toMap(announcement);
+
+        assertThat(map).containsExactly(Map.entry("id", 1L), Map.entry("language", Language.ENGLISH), Map.entry("startDate", startDate));
+    }
+}
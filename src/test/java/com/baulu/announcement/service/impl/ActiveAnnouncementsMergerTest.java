@@ -0,0 +1,85 @@
+package com.baulu.announcement.service.impl;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import com.baulu.announcement.domain.Announcement;
+import com.baulu.announcement.domain.enumeration.AnnouncementType;
+import com.baulu.announcement.domain.enumeration.Language;
+import com.baulu.announcement.service.dto.ActiveAnnouncementsDTO;
+import com.baulu.announcement.service.dto.enumaration.LanguageFallback;
+import java.time.Instant;
+import java.util.List;
+import org.junit.jupiter.api.Test;
+
+class ActiveAnnouncementsMergerTest {
+
+    private static final Instant ORIGIN = Instant.parse("2024-01-01T00:00:00Z");
+
+    private final Announcement turkishText = announcement(1L, Language.TURKISH, AnnouncementType.TEXT);
+
+    private final Announcement englishText = announcement(2L, Language.ENGLISH, AnnouncementType.TEXT);
+
+    private final Announcement englishImage = announcement(3L, Language.ENGLISH, AnnouncementType.IMAGE);
+
+    private final ActiveAnnouncementsDTO turkish = new ActiveAnnouncementsDTO(
+        Language.TURKISH,
+        ORIGIN,
+        ORIGIN.plusSeconds(20),
+        List.of(turkishText),
+        10L
+    );
+
+    private final ActiveAnnouncementsDTO english = new ActiveAnnouncementsDTO(
+        Language.ENGLISH,
+        ORIGIN.plusSeconds(5),
+        ORIGIN.plusSeconds(30),
+        List.of(englishText, englishImage),
+        11L
+    );
+
+    @Test
+    void singleSegmentIsReturnedAsIs() {
+        assertThat(ActiveAnnouncementsMerger.merge(List.of(turkish), LanguageFallback.UNION)).isSameAs(turkish);
+    }
+
+    @Test
+    void firstMatchKeepsThePreferredLanguagePerType() {
+        ActiveAnnouncementsDTO merged = ActiveAnnouncementsMerger.merge(List.of(turkish, english), LanguageFallback.FIRST_MATCH);
+
+        assertThat(merged.getAnnouncements()).containsExactly(turkishText, englishImage);
+        assertThat(merged.getLanguage()).isEqualTo(Language.TURKISH);
+    }
+
+    @Test
+    void unionKeepsEverythingInLanguageOrder() {
+        ActiveAnnouncementsDTO merged = ActiveAnnouncementsMerger.merge(List.of(english, turkish), LanguageFallback.UNION);
+
+        assertThat(merged.getAnnouncements()).containsExactly(englishText, englishImage, turkishText);
+    }
+
+    @Test
+    void mergedResultIsValidInTheIntersectionOfTheSegments() {
+        ActiveAnnouncementsDTO merged = ActiveAnnouncementsMerger.merge(List.of(turkish, english), LanguageFallback.UNION);
+
+        assertThat(merged.getValidFrom()).isEqualTo(ORIGIN.plusSeconds(5));
+        assertThat(merged.getValidUntil()).isEqualTo(ORIGIN.plusSeconds(20));
+        assertThat(merged.getCacheKey()).isEqualTo("UNION:TURKISH@10,ENGLISH@11");
+    }
+
+    @Test
+    void mergedResultIsNotCachedWhenASegmentIsNot() {
+        ActiveAnnouncementsDTO fromDatabase = new ActiveAnnouncementsDTO(
+            Language.ENGLISH,
+            ORIGIN,
+            ORIGIN,
+            List.of(),
+            ActiveAnnouncementsDTO.UNVERSIONED
+        );
+
+        assertThat(ActiveAnnouncementsMerger.merge(List.of(turkish, fromDatabase), LanguageFallback.UNION).getCacheKey()).isNull();
+    }
+
+    private static Announcement announcement(Long id, Language language, AnnouncementType type) {
+        return new Announcement().id(id).language(language).announcementType(type);
+    }
+}
@@ -0,0 +1,74 @@
+package com.baulu.announcement.service.impl;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import com.baulu.announcement.config.ApplicationProperties;
+import com.baulu.announcement.domain.enumeration.Language;
+import com.baulu.announcement.service.criteria.AnnouncementCriteria;
+import com.baulu.announcement.service.event.AnnouncementChangedEvent;
+import com.baulu.announcement.service.event.AnnouncementInvalidatedEvent;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.util.concurrent.atomic.AtomicLong;
+import org.junit.jupiter.api.Test;
+
+class AnnouncementCountCacheTest {
+
+    private final ApplicationProperties applicationProperties = new ApplicationProperties();
+
+    private final AnnouncementWriteGeneration writeGeneration = new AnnouncementWriteGeneration();
+
+    private final AtomicLong queries = new AtomicLong();
+
+    @Test
+    void countIsServedUntilTheNextWrite() {
+        AnnouncementCountCache cache = new AnnouncementCountCache(applicationProperties, writeGeneration, new SimpleMeterRegistry());
+
+        assertThat(cache.get(englishCriteria(false), this::count)).isEqualTo(1);
+        assertThat(cache.get(englishCriteria(true), this::count)).isEqualTo(1);
+        assertThat(queries).hasValue(1);
+
+        writeGeneration.onAnnouncementChanged(AnnouncementChangedEvent.deleted(1L, Language.ENGLISH));
+
+        assertThat(cache.get(englishCriteria(false), this::count)).isEqualTo(2);
+        assertThat(queries).hasValue(2);
+
+        writeGeneration.onAnnouncementInvalidated(new AnnouncementInvalidatedEvent(1L, Language.ENGLISH));
+
+        assertThat(cache.get(englishCriteria(false), this::count)).isEqualTo(3);
+    }
+
+    @Test
+    void countRacingWithAWriteIsNotServed() {
+        AnnouncementCountCache cache = new AnnouncementCountCache(applicationProperties, writeGeneration, new SimpleMeterRegistry());
+
+        cache.get(null, () -> {
+            writeGeneration.onAnnouncementChanged(AnnouncementChangedEvent.deleted(1L, Language.ENGLISH));
+            return count();
+        });
+
+        assertThat(cache.get(null, this::count)).isEqualTo(2);
+        assertThat(cache.get(new AnnouncementCriteria(), this::count)).isEqualTo(2);
+    }
+
+    @Test
+    void countIsNotCachedWhenDisabled() {
+        applicationProperties.getCountCache().setEnabled(false);
+        AnnouncementCountCache cache = new AnnouncementCountCache(applicationProperties, writeGeneration, new SimpleMeterRegistry());
+
+        cache.get(null, this::count);
+        cache.get(null, this::count);
+
+        assertThat(queries).hasValue(2);
+    }
+
+    private long count() {
+        return queries.incrementAndGet();
+    }
+
+    private static AnnouncementCriteria englishCriteria(boolean distinct) {
+        AnnouncementCriteria criteria = new AnnouncementCriteria();
+        criteria.language().setEquals(Language.ENGLISH);
+        criteria.setDistinct(distinct);
+        return criteria;
+    }
+}
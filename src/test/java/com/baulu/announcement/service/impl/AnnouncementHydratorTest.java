@@ -0,0 +1,82 @@
+package com.baulu.announcement.service.impl;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.RETURNS_SELF;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import com.baulu.announcement.config.ApplicationProperties;
+import com.baulu.announcement.domain.Announcement;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.persistence.EntityManager;
+import java.util.Arrays;
+import java.util.List;
+import org.hibernate.CacheMode;
+import org.hibernate.MultiIdentifierLoadAccess;
+import org.hibernate.Session;
+import org.hibernate.SessionEventListener;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+
+class AnnouncementHydratorTest {
+
+    private EntityManager entityManager;
+
+    private Session session;
+
+    private MultiIdentifierLoadAccess<Announcement> multiLoad;
+
+    private SimpleMeterRegistry meterRegistry;
+
+    private AnnouncementHydrator hydrator;
+
+    @BeforeEach
+    @SuppressWarnings("unchecked")
+    void setUp() {
+        entityManager = mock(EntityManager.class);
+        session = mock(Session.class);
+        multiLoad = mock(MultiIdentifierLoadAccess.class, RETURNS_SELF);
+        when(entityManager.unwrap(Session.class)).thenReturn(session);
+        when(session.byMultipleIds(Announcement.class)).thenReturn(multiLoad);
+
+        meterRegistry = new SimpleMeterRegistry();
+        ApplicationProperties applicationProperties = new ApplicationProperties();
+        applicationProperties.getActiveQuery().setBatchSize(2);
+        hydrator = new AnnouncementHydrator(entityManager, applicationProperties, meterRegistry);
+    }
+
+    @Test
+    void loadsAllIdsThroughTheSecondLevelCacheInOneMultiLoad() {
+        List<Long> ids = List.of(1L, 2L, 3L, 4L);
+        ArgumentCaptor<SessionEventListener> listener = ArgumentCaptor.forClass(SessionEventListener.class);
+        when(multiLoad.multiLoad(ids)).thenAnswer(invocation -> {
+            verify(session).addEventListeners(listener.capture());
+            // 1 and 2 are cached, 3 and the deleted 4 are not
+            listener.getValue().cacheGetEnd(true);
+            listener.getValue().cacheGetEnd(true);
+            listener.getValue().cacheGetEnd(false);
+            listener.getValue().cacheGetEnd(false);
+            return Arrays.asList(new Announcement().id(1L), new Announcement().id(2L), new Announcement().id(3L), null);
+        });
+
+        List<Announcement> announcements = hydrator.hydrate(ids);
+        // A later load of the same transaction
+        listener.getValue().cacheGetEnd(true);
+
+        assertThat(announcements).extracting(Announcement::getId).containsExactly(1L, 2L, 3L);
+        verify(multiLoad).with(CacheMode.NORMAL);
+        verify(multiLoad).withBatchSize(2);
+        verify(multiLoad).enableOrderedReturn(true);
+        assertThat(meterRegistry.get("announcement.hydration").tag("result", "hit").counter().count()).isEqualTo(2);
+        assertThat(meterRegistry.get("announcement.hydration").tag("result", "miss").counter().count()).isEqualTo(2);
+    }
+
+    @Test
+    void doesNotLoadWithoutIds() {
+        assertThat(hydrator.hydrate(List.of())).isEmpty();
+        verify(entityManager, never()).unwrap(Session.class);
+    }
+}
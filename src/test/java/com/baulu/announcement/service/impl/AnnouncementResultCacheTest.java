@@ -0,0 +1,84 @@
+package com.baulu.announcement.service.impl;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import com.baulu.announcement.config.ApplicationProperties;
+import com.baulu.announcement.domain.enumeration.Language;
+import com.baulu.announcement.repository.AnnouncementValidators;
+import com.baulu.announcement.service.criteria.AnnouncementCriteria;
+import com.baulu.announcement.service.event.AnnouncementChangedEvent;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+
+class AnnouncementResultCacheTest {
+
+    private final ApplicationProperties applicationProperties = new ApplicationProperties();
+
+    private final AnnouncementWriteGeneration writeGeneration = new AnnouncementWriteGeneration();
+
+    private final AtomicLong queries = new AtomicLong();
+
+    @Test
+    void validatorsAreServedPerPageUntilTheNextWrite() {
+        AnnouncementResultCache cache = new AnnouncementResultCache(applicationProperties, writeGeneration, new SimpleMeterRegistry());
+        Pageable firstPage = PageRequest.of(0, 20, Sort.by("id"));
+
+        assertThat(ids(cache.get(englishCriteria(), firstPage, this::validators))).containsExactly(1L);
+        assertThat(ids(cache.get(englishCriteria(), PageRequest.of(0, 20, Sort.by("id")), this::validators))).containsExactly(1L);
+        assertThat(ids(cache.get(englishCriteria(), PageRequest.of(1, 20, Sort.by("id")), this::validators))).containsExactly(2L);
+        assertThat(ids(cache.get(englishCriteria(), PageRequest.of(0, 20, Sort.by("startDate")), this::validators))).containsExactly(3L);
+        assertThat(ids(cache.get(null, firstPage, this::validators))).containsExactly(4L);
+
+        writeGeneration.onAnnouncementChanged(AnnouncementChangedEvent.deleted(1L, Language.ENGLISH));
+
+        assertThat(ids(cache.get(englishCriteria(), firstPage, this::validators))).containsExactly(5L);
+        assertThat(queries).hasValue(5);
+    }
+
+    @Test
+    void validatorsRacingWithAWriteAreNotServed() {
+        AnnouncementResultCache cache = new AnnouncementResultCache(applicationProperties, writeGeneration, new SimpleMeterRegistry());
+        Pageable page = PageRequest.of(0, 20);
+
+        cache.get(null, page, () -> {
+            writeGeneration.onAnnouncementChanged(AnnouncementChangedEvent.deleted(1L, Language.ENGLISH));
+            return validators();
+        });
+
+        assertThat(ids(cache.get(new AnnouncementCriteria(), page, this::validators))).containsExactly(2L);
+    }
+
+    @Test
+    void unpagedAndDisabledResultsAreNotCached() {
+        AnnouncementResultCache cache = new AnnouncementResultCache(applicationProperties, writeGeneration, new SimpleMeterRegistry());
+        cache.get(null, Pageable.unpaged(), this::validators);
+        cache.get(null, Pageable.unpaged(), this::validators);
+
+        applicationProperties.getResultCache().setEnabled(false);
+        AnnouncementResultCache disabled = new AnnouncementResultCache(applicationProperties, writeGeneration, new SimpleMeterRegistry());
+        disabled.get(null, PageRequest.of(0, 20), this::validators);
+        disabled.get(null, PageRequest.of(0, 20), this::validators);
+
+        assertThat(disabled.isEnabled()).isFalse();
+        assertThat(queries).hasValue(4);
+    }
+
+    private List<AnnouncementValidators> validators() {
+        return List.of(new AnnouncementValidators(queries.incrementAndGet(), 0L, null));
+    }
+
+    private static List<Long> ids(List<AnnouncementValidators> validators) {
+        return validators.stream().map(AnnouncementValidators::getId).toList();
+    }
+
+    private static AnnouncementCriteria englishCriteria() {
+        AnnouncementCriteria criteria = new AnnouncementCriteria();
+        criteria.language().setEquals(Language.ENGLISH);
+        return criteria;
+    }
+}
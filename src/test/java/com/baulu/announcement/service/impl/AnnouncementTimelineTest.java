@@ -0,0 +1,156 @@
+package com.baulu.announcement.service.impl;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import com.baulu.announcement.domain.Announcement;
+import com.baulu.announcement.domain.enumeration.Language;
+import com.baulu.announcement.service.dto.ActiveAnnouncementsDTO;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Random;
+import org.junit.jupiter.api.Test;
+
+class AnnouncementTimelineTest {
+
+    private static final Instant ORIGIN = Instant.parse("2024-01-01T00:00:00Z");
+
+    @Test
+    void emptyTimelineFindsNothing() {
+        ActiveAnnouncementsDTO segment = AnnouncementTimeline.of(Language.ENGLISH, List.of()).at(ORIGIN);
+
+        assertThat(segment.getAnnouncements()).isEmpty();
+        assertThat(segment.getValidFrom()).isNull();
+        assertThat(segment.getValidUntil()).isNull();
+    }
+
+    @Test
+    void boundariesAreExclusive() {
+        Announcement announcement = announcement(1L, 10, 20);
+        AnnouncementTimeline timeline = AnnouncementTimeline.of(Language.ENGLISH, List.of(announcement));
+
+        assertThat(timeline.at(at(10)).getAnnouncements()).isEmpty();
+        assertThat(timeline.at(at(11)).getAnnouncements()).containsExactly(announcement);
+        assertThat(timeline.at(at(19)).getAnnouncements()).containsExactly(announcement);
+        assertThat(timeline.at(at(20)).getAnnouncements()).isEmpty();
+    }
+
+    @Test
+    void segmentsAreBoundedByTheSurroundingBoundaries() {
+        AnnouncementTimeline timeline = AnnouncementTimeline.of(
+            Language.ENGLISH,
+            List.of(announcement(1L, 10, 20), announcement(2L, 15, 30))
+        );
+
+        ActiveAnnouncementsDTO segment = timeline.at(at(17));
+        assertThat(segment.getValidFrom()).isEqualTo(at(15));
+        assertThat(segment.getValidUntil()).isEqualTo(at(20));
+        assertThat(segment.getAnnouncements()).extracting(Announcement::getId).containsExactly(1L, 2L);
+
+        ActiveAnnouncementsDTO boundary = timeline.at(at(15));
+        assertThat(boundary.isInstant()).isTrue();
+        assertThat(boundary.getAnnouncements()).extracting(Announcement::getId).containsExactly(1L);
+    }
+
+    @Test
+    void announcementsWithoutWindowAreIgnored() {
+        AnnouncementTimeline timeline = AnnouncementTimeline.of(
+            Language.ENGLISH,
+            List.of(new Announcement().id(1L).startDate(ORIGIN), new Announcement().id(2L).endDate(ORIGIN))
+        );
+
+        assertThat(timeline.size()).isZero();
+    }
+
+    @Test
+    void matchesLinearScan() {
+        Random random = new Random(42);
+        List<Announcement> announcements = new ArrayList<>();
+        for (long id = 1; id <= 500; id++) {
+            announcements.add(randomAnnouncement(random, id));
+        }
+
+        assertMatchesLinearScan(AnnouncementTimeline.of(Language.ENGLISH, announcements), announcements);
+    }
+
+    @Test
+    void incrementalUpdatesMatchLinearScanAndKeepUntouchedSegments() {
+        Random random = new Random(7);
+        List<Announcement> announcements = new ArrayList<>();
+        for (long id = 1; id <= 100; id++) {
+            announcements.add(randomAnnouncement(random, id));
+        }
+        AnnouncementTimeline timeline = AnnouncementTimeline.of(Language.ENGLISH, announcements);
+
+        for (int i = 0; i < 200; i++) {
+            int index = random.nextInt(announcements.size());
+            Announcement previous = announcements.get(index);
+            if (random.nextInt(5) == 0) {
+                timeline = timeline.with(previous, null);
+                announcements.remove(index);
+            } else {
+                Announcement next = randomAnnouncement(random, previous.getId());
+                timeline = timeline.with(previous, next);
+                announcements.set(index, next);
+            }
+            assertMatchesLinearScan(timeline, announcements);
+        }
+
+        Announcement added = announcement(1000L, 2000, 2010);
+        AnnouncementTimeline after = timeline.with(null, added);
+        assertThat(after.at(at(500))).isSameAs(timeline.at(at(500)));
+        assertThat(after.at(at(2005)).getAnnouncements()).containsExactly(added);
+    }
+
+    @Test
+    void sweepMatchesLinearScan() {
+        Random random = new Random(11);
+        List<Announcement> announcements = new ArrayList<>();
+        for (long id = 1; id <= 300; id++) {
+            announcements.add(randomAnnouncement(random, id));
+        }
+        List<Instant> instants = new ArrayList<>();
+        for (int second = -5; second < 1250; second += 1 + random.nextInt(5)) {
+            instants.add(at(second));
+        }
+
+        List<List<Announcement>> swept = AnnouncementTimeline.sweep(announcements, instants);
+
+        for (int i = 0; i < instants.size(); i++) {
+            assertThat(swept.get(i)).containsExactlyElementsOf(linearScan(announcements, instants.get(i)));
+        }
+    }
+
+    private static List<Announcement> linearScan(Collection<Announcement> announcements, Instant instant) {
+        return announcements
+            .stream()
+            .filter(a -> a.getStartDate().isBefore(instant) && a.getEndDate().isAfter(instant))
+            .sorted(Comparator.comparing(Announcement::getId))
+            .toList();
+    }
+
+    private static void assertMatchesLinearScan(AnnouncementTimeline timeline, Collection<Announcement> announcements) {
+        for (int second = -5; second < 1250; second++) {
+            Instant instant = at(second);
+            List<Announcement> expected = linearScan(announcements, instant);
+            ActiveAnnouncementsDTO segment = timeline.at(instant);
+            assertThat(segment.contains(instant)).isTrue();
+            assertThat(segment.getAnnouncements()).containsExactlyElementsOf(expected);
+        }
+    }
+
+    private static Announcement randomAnnouncement(Random random, Long id) {
+        int start = random.nextInt(1000);
+        return announcement(id, start, start + 1 + random.nextInt(200));
+    }
+
+    private static Announcement announcement(Long id, int startSecond, int endSecond) {
+        return new Announcement().id(id).language(Language.ENGLISH).startDate(at(startSecond)).endDate(at(endSecond));
+    }
+
+    private static Instant at(int second) {
+        return ORIGIN.plusSeconds(second);
+    }
+}
@@ -0,0 +1,118 @@
+package com.baulu.announcement.service.impl;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+class SingleFlightTest {
+
+    private static final int CALLERS = 8;
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    private final ExecutorService executor = Executors.newFixedThreadPool(CALLERS);
+
+    @AfterEach
+    void tearDown() {
+        executor.shutdownNow();
+    }
+
+    @Test
+    void concurrentIdenticalLookupsShareOneCall() throws Exception {
+        SingleFlight<String, Integer> flight = new SingleFlight<>("test", Duration.ofSeconds(10), meterRegistry);
+        AtomicInteger calls = new AtomicInteger();
+        CountDownLatch release = new CountDownLatch(1);
+
+        Future<Integer> leader = executor.submit(() ->
+            flight.execute("key", () -> {
+                calls.incrementAndGet();
+                await(release);
+                return 42;
+            })
+        );
+        waitUntilInFlight();
+        List<Future<Integer>> followers = new ArrayList<>();
+        for (int i = 1; i < CALLERS; i++) {
+            followers.add(executor.submit(() -> flight.execute("key", calls::incrementAndGet)));
+        }
+        // Give the followers time to join the lookup in flight.
+        Thread.sleep(100);
+        release.countDown();
+
+        assertThat(leader.get(5, TimeUnit.SECONDS)).isEqualTo(42);
+        for (Future<Integer> follower : followers) {
+            assertThat(follower.get(5, TimeUnit.SECONDS)).isEqualTo(42);
+        }
+        assertThat(calls).hasValue(1);
+        assertThat(count("executed")).isEqualTo(1);
+        assertThat(count("coalesced")).isEqualTo(CALLERS - 1);
+    }
+
+    @Test
+    void waitIsBounded() throws Exception {
+        SingleFlight<String, Integer> flight = new SingleFlight<>("test", Duration.ofMillis(50), meterRegistry);
+        CountDownLatch release = new CountDownLatch(1);
+        executor.submit(() ->
+            flight.execute("key", () -> {
+                await(release);
+                return 1;
+            })
+        );
+        waitUntilInFlight();
+
+        assertThat(flight.execute("key", () -> 2)).isEqualTo(2);
+        assertThat(count("timeout")).isEqualTo(1);
+        release.countDown();
+    }
+
+    @Test
+    void failuresAreSharedAndNotKept() throws Exception {
+        SingleFlight<String, Integer> flight = new SingleFlight<>("test", Duration.ofSeconds(10), meterRegistry);
+        CountDownLatch release = new CountDownLatch(1);
+        Future<Integer> leader = executor.submit(() ->
+            flight.execute("key", () -> {
+                await(release);
+                throw new IllegalArgumentException("boom");
+            })
+        );
+        waitUntilInFlight();
+        Future<Integer> follower = executor.submit(() -> flight.execute("key", () -> 1));
+        Thread.sleep(100);
+        release.countDown();
+
+        assertThatThrownBy(() -> leader.get(5, TimeUnit.SECONDS)).hasCauseInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> follower.get(5, TimeUnit.SECONDS)).hasCauseInstanceOf(IllegalArgumentException.class);
+        assertThat(flight.execute("key", () -> 3)).isEqualTo(3);
+    }
+
+    private double count(String result) {
+        return meterRegistry.get("announcement.singleflight").tag("result", result).counter().count();
+    }
+
+    private void waitUntilInFlight() throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (count("executed") < 1 && System.nanoTime() < deadline) {
+            Thread.sleep(5);
+        }
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
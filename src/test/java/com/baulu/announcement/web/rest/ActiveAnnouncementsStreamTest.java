@@ -0,0 +1,191 @@
+package com.baulu.announcement.web.rest;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.awaitility.Awaitility.await;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import com.baulu.announcement.config.ApplicationProperties;
+import com.baulu.announcement.domain.Announcement;
+import com.baulu.announcement.domain.enumeration.Language;
+import com.baulu.announcement.service.AnnouncementService;
+import com.baulu.announcement.service.dto.ActiveAnnouncementsDTO;
+import com.baulu.announcement.service.event.ActiveAnnouncementsChangedEvent;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.io.IOException;
+import java.time.Duration;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+import java.util.stream.LongStream;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+class ActiveAnnouncementsStreamTest {
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    private ActiveAnnouncementsStream stream;
+
+    @BeforeEach
+    void setUp() {
+        ApplicationProperties applicationProperties = new ApplicationProperties();
+        applicationProperties.getActiveStream().setSendQueueSize(1);
+        stream = stream(applicationProperties, meterRegistry);
+    }
+
+    @AfterEach
+    void tearDown() {
+        stream.shutdown();
+    }
+
+    @Test
+    void slowSubscriberDoesNotDelayTheOthers() throws Exception {
+        RecordingEmitter fast = new RecordingEmitter(null);
+        CountDownLatch unblock = new CountDownLatch(1);
+        RecordingEmitter slow = new RecordingEmitter(unblock);
+        stream.subscribe(Language.ENGLISH, null, fast);
+        stream.subscribe(Language.ENGLISH, null, slow);
+
+        try {
+            for (long version = 2; version <= 4; version++) {
+                stream.onActiveAnnouncementsChanged(new ActiveAnnouncementsChangedEvent(segment(version - 1), segment(version)));
+                int received = (int) version;
+                await().atMost(5, TimeUnit.SECONDS).untilAsserted(() -> assertThat(fast.events).hasSize(received));
+            }
+
+            assertThat(fast.events.get(0)).contains("event:" + ActiveAnnouncementsStream.SNAPSHOT);
+            assertThat(fast.events.subList(1, 4)).allSatisfy(event -> assertThat(event).contains("event:" + ActiveAnnouncementsStream.DIFF));
+            await().untilAsserted(() -> assertThat(meterRegistry.get("announcement.stream.dropped").counter().count()).isEqualTo(1));
+            assertThat(fast.completed.getCount()).isEqualTo(1);
+        } finally {
+            unblock.countDown();
+        }
+        assertThat(slow.completed.await(5, TimeUnit.SECONDS)).isTrue();
+    }
+
+    @Test
+    void stalledSubscriberDoesNotHoldTheSenderThreads() throws Exception {
+        ApplicationProperties applicationProperties = new ApplicationProperties();
+        applicationProperties.getActiveStream().setSenderThreads(1);
+        applicationProperties.getActiveStream().setSendTimeout(Duration.ofMillis(50));
+        SimpleMeterRegistry singleSenderMeterRegistry = new SimpleMeterRegistry();
+        ActiveAnnouncementsStream singleSender = stream(applicationProperties, singleSenderMeterRegistry);
+        CountDownLatch unblock = new CountDownLatch(1);
+        RecordingEmitter stalled = new RecordingEmitter(unblock);
+        RecordingEmitter other = new RecordingEmitter(null);
+
+        try {
+            singleSender.subscribe(Language.ENGLISH, null, stalled);
+            singleSender.onActiveAnnouncementsChanged(new ActiveAnnouncementsChangedEvent(segment(1), segment(2)));
+            // The only sender thread is now blocked writing to the stalled subscriber
+            assertThat(stalled.blocked.await(5, TimeUnit.SECONDS)).isTrue();
+            singleSender.subscribe(Language.ENGLISH, null, other);
+            singleSender.onActiveAnnouncementsChanged(new ActiveAnnouncementsChangedEvent(segment(2), segment(3)));
+
+            await()
+                .atMost(5, TimeUnit.SECONDS)
+                .untilAsserted(() -> {
+                    singleSender.abandonStalledSends();
+                    assertThat(other.events).hasSize(2);
+                });
+            assertThat(other.events.get(1)).contains("event:" + ActiveAnnouncementsStream.DIFF);
+            assertThat(singleSenderMeterRegistry.get("announcement.stream.dropped").counter().count()).isEqualTo(1);
+            assertThat(other.completed.getCount()).isEqualTo(1);
+        } finally {
+            unblock.countDown();
+        }
+        assertThat(stalled.completed.await(5, TimeUnit.SECONDS)).isTrue();
+        singleSender.shutdown();
+    }
+
+    @Test
+    void resumesOnlyFromTheEventsOfThisNode() throws Exception {
+        RecordingEmitter first = new RecordingEmitter(null);
+        stream.subscribe(Language.ENGLISH, null, first);
+        String lastEventId = idOf(first.events.get(0));
+        stream.onActiveAnnouncementsChanged(new ActiveAnnouncementsChangedEvent(segment(1), segment(2)));
+        await().untilAsserted(() -> assertThat(first.events).hasSize(2));
+
+        RecordingEmitter resumed = new RecordingEmitter(null);
+        stream.subscribe(Language.ENGLISH, lastEventId, resumed);
+        assertThat(resumed.events).singleElement().asString().contains("event:" + ActiveAnnouncementsStream.DIFF);
+
+        RecordingEmitter fromAnotherNode = new RecordingEmitter(null);
+        stream.subscribe(Language.ENGLISH, "another-node:1", fromAnotherNode);
+        assertThat(fromAnotherNode.events).singleElement().asString().contains("event:" + ActiveAnnouncementsStream.SNAPSHOT);
+
+        RecordingEmitter withBareVersion = new RecordingEmitter(null);
+        stream.subscribe(Language.ENGLISH, "1", withBareVersion);
+        assertThat(withBareVersion.events).singleElement().asString().contains("event:" + ActiveAnnouncementsStream.SNAPSHOT);
+    }
+
+    private static ActiveAnnouncementsStream stream(ApplicationProperties applicationProperties, SimpleMeterRegistry meterRegistry) {
+        AnnouncementService announcementService = mock(AnnouncementService.class);
+        when(announcementService.getActiveAnnouncements(any(), any(Language.class))).thenReturn(segment(1));
+        return new ActiveAnnouncementsStream(
+            announcementService,
+            new ObjectMapper().findAndRegisterModules(),
+            applicationProperties,
+            meterRegistry
+        );
+    }
+
+    /**
+     * Segment {@code version} holds the announcements 1 to {@code version}.
+     */
+    private static ActiveAnnouncementsDTO segment(long version) {
+        List<Announcement> announcements = LongStream
+            .rangeClosed(1, version)
+            .mapToObj(id -> new Announcement().id(id).language(Language.ENGLISH).announcementData("announcement " + id))
+            .toList();
+        return new ActiveAnnouncementsDTO(Language.ENGLISH, null, null, announcements, version);
+    }
+
+    private static String idOf(String event) {
+        return event.lines().filter(line -> line.startsWith("id:")).findFirst().orElseThrow().substring(3);
+    }
+
+    private static final class RecordingEmitter extends SseEmitter {
+
+        private final List<String> events = new CopyOnWriteArrayList<>();
+
+        private final CountDownLatch completed = new CountDownLatch(1);
+
+        private final CountDownLatch blocked = new CountDownLatch(1);
+
+        private final CountDownLatch blockDiffs;
+
+        private RecordingEmitter(CountDownLatch blockDiffs) {
+            this.blockDiffs = blockDiffs;
+        }
+
+        @Override
+        public void send(Set<DataWithMediaType> items) throws IOException {
+            String event = items.stream().map(item -> String.valueOf(item.getData())).collect(Collectors.joining());
+            if (blockDiffs != null && event.contains("event:" + ActiveAnnouncementsStream.DIFF)) {
+                try {
+                    blocked.countDown();
+                    blockDiffs.await();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    throw new IOException(e);
+                }
+            }
+            events.add(event);
+        }
+
+        @Override
+        public void complete() {
+            completed.countDown();
+            super.complete();
+        }
+    }
+}
@@ -0,0 +1,327 @@
+package com.baulu.announcement.web.rest;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.awaitility.Awaitility.await;
+import static org.hamcrest.Matchers.hasItem;
+import static org.hamcrest.Matchers.matchesPattern;
+import static org.hamcrest.Matchers.not;
+import static org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors.csrf;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+import com.baulu.announcement.IntegrationTest;
+import com.baulu.announcement.domain.Announcement;
+import com.baulu.announcement.domain.enumeration.AnnouncementType;
+import com.baulu.announcement.domain.enumeration.Language;
+import com.baulu.announcement.repository.AnnouncementRepository;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.persistence.EntityManagerFactory;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.List;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.security.test.context.support.WithMockUser;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+/**
+ * Integration tests for the {@link AnnouncementResource} REST controller with the active announcement index, the count
+ * cache and the result cache enabled, which the other tests disable.
+ * <p>
+ * These caches are only updated by committed writes, so the tests write through the REST API without a surrounding
+ * transaction, and delete what they created afterwards.
+ */
+@IntegrationTest
+@AutoConfigureMockMvc
+@WithMockUser
+@TestPropertySource(
+    properties = {
+        "application.active-index.enabled=true",
+        "application.count-cache.enabled=true",
+        "application.result-cache.enabled=true",
+        "spring.jpa.properties.hibernate.generate_statistics=true",
+    }
+)
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class AnnouncementResourceCachesIT {
+
+    private static final Language LANGUAGE = Language.TURKISH;
+
+    private static final String DEFAULT_ANNOUNCEMENT_DATA = "AAAAAAAAAA";
+    private static final String UPDATED_ANNOUNCEMENT_DATA = "BBBBBBBBBB";
+
+    private static final String ENTITY_API_URL = "/api/announcements";
+    private static final String ENTITY_API_URL_ID = ENTITY_API_URL + "/{id}";
+    private static final String ACTIVE_API_URL = ENTITY_API_URL + "/get/all/active?date={date}&selectedLanguage={language}";
+    private static final String CURRENT_API_URL = ENTITY_API_URL + "/get/all/active?selectedLanguage={language}";
+
+    @Autowired
+    private ObjectMapper om;
+
+    @Autowired
+    private AnnouncementRepository announcementRepository;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Autowired
+    private MockMvc restAnnouncementMockMvc;
+
+    private final List<Long> created = new ArrayList<>();
+
+    private Instant now;
+
+    @BeforeEach
+    public void initTest() {
+        now = Instant.now().truncatedTo(ChronoUnit.SECONDS);
+    }
+
+    @AfterEach
+    public void cleanUp() throws Exception {
+        for (Long id : created) {
+            if (announcementRepository.existsById(id)) {
+                deleteAnnouncement(id);
+            }
+        }
+    }
+
+    @Test
+    void searchesFollowTheWrites() throws Exception {
+        Instant startDate = now.minusSeconds(60);
+        String search = ENTITY_API_URL + "?startDate.equals={startDate}&sort=id,asc";
+
+        // Fill the result cache
+        restAnnouncementMockMvc
+            .perform(get(search, startDate))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$").isEmpty())
+            .andExpect(header().string("X-Total-Count", "0"));
+
+        Announcement announcement = createAnnouncement(startDate, now.plusSeconds(120));
+        restAnnouncementMockMvc
+            .perform(get(search, startDate))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.[*].id").value(hasItem(announcement.getId().intValue())))
+            .andExpect(jsonPath("$.[0].announcementData").value(DEFAULT_ANNOUNCEMENT_DATA))
+            .andExpect(header().string("X-Total-Count", "1"));
+
+        updateAnnouncement(announcement.announcementType(AnnouncementType.IMAGE).announcementData(UPDATED_ANNOUNCEMENT_DATA));
+        restAnnouncementMockMvc
+            .perform(get(search, startDate))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.[0].announcementType").value(AnnouncementType.IMAGE.toString()))
+            .andExpect(jsonPath("$.[0].announcementData").value(UPDATED_ANNOUNCEMENT_DATA));
+        restAnnouncementMockMvc
+            .perform(get(search + "&fields=announcementType", startDate))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.[0].announcementType").value(AnnouncementType.IMAGE.toString()));
+
+        deleteAnnouncement(announcement.getId());
+        restAnnouncementMockMvc
+            .perform(get(search, startDate))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$").isEmpty())
+            .andExpect(header().string("X-Total-Count", "0"));
+    }
+
+    @Test
+    void repeatedSearchesAreNotQueriedAgain() throws Exception {
+        Instant startDate = now.minusSeconds(60);
+        String search = ENTITY_API_URL + "?startDate.equals={startDate}&sort=id,asc";
+        Announcement announcement = createAnnouncement(startDate, now.plusSeconds(120));
+        restAnnouncementMockMvc.perform(get(search, startDate)).andExpect(status().isOk());
+
+        // The validators of the page come from the result cache, the announcement from the second-level cache
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        long statements = statistics.getPrepareStatementCount();
+        restAnnouncementMockMvc
+            .perform(get(search, startDate))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.[0].id").value(announcement.getId().intValue()))
+            .andExpect(header().string("X-Total-Count", "1"));
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(statements);
+    }
+
+    @Test
+    void countsFollowTheWrites() throws Exception {
+        Instant startDate = now.minusSeconds(60);
+        String count = ENTITY_API_URL + "/count?startDate.equals={startDate}";
+        String search = ENTITY_API_URL + "?startDate.equals={startDate}";
+
+        // Fill the count cache
+        restAnnouncementMockMvc.perform(get(count, startDate)).andExpect(content().string("0"));
+        restAnnouncementMockMvc.perform(get(search, startDate)).andExpect(header().string("X-Total-Count", "0"));
+
+        Announcement announcement = createAnnouncement(startDate, now.plusSeconds(120));
+        restAnnouncementMockMvc.perform(get(count, startDate)).andExpect(content().string("1"));
+        restAnnouncementMockMvc.perform(get(search, startDate)).andExpect(header().string("X-Total-Count", "1"));
+
+        deleteAnnouncement(announcement.getId());
+        restAnnouncementMockMvc.perform(get(count, startDate)).andExpect(content().string("0"));
+        restAnnouncementMockMvc.perform(get(search, startDate)).andExpect(header().string("X-Total-Count", "0"));
+    }
+
+    @Test
+    void announcementFollowsTheWrites() throws Exception {
+        Announcement announcement = createAnnouncement(now.minusSeconds(60), now.plusSeconds(120));
+        restAnnouncementMockMvc
+            .perform(get(ENTITY_API_URL_ID, announcement.getId()))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.announcementData").value(DEFAULT_ANNOUNCEMENT_DATA));
+
+        updateAnnouncement(announcement.announcementData(UPDATED_ANNOUNCEMENT_DATA));
+        restAnnouncementMockMvc
+            .perform(get(ENTITY_API_URL_ID, announcement.getId()))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.announcementData").value(UPDATED_ANNOUNCEMENT_DATA));
+
+        deleteAnnouncement(announcement.getId());
+        restAnnouncementMockMvc.perform(get(ENTITY_API_URL_ID, announcement.getId())).andExpect(status().isNotFound());
+    }
+
+    @Test
+    void activeAnnouncementsFollowTheWrites() throws Exception {
+        // Load the index and fill the response cache
+        restAnnouncementMockMvc.perform(get(ACTIVE_API_URL, now, LANGUAGE)).andExpect(status().isOk());
+
+        Announcement announcement = createAnnouncement(now.minusSeconds(60), now.plusSeconds(120));
+        String eTag = restAnnouncementMockMvc
+            .perform(get(ACTIVE_API_URL, now, LANGUAGE))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.[*].id").value(hasItem(announcement.getId().intValue())))
+            .andExpect(jsonPath("$.[*].announcementData").value(hasItem(DEFAULT_ANNOUNCEMENT_DATA)))
+            .andReturn()
+            .getResponse()
+            .getHeader(HttpHeaders.ETAG);
+
+        updateAnnouncement(announcement.announcementData(UPDATED_ANNOUNCEMENT_DATA));
+        restAnnouncementMockMvc
+            .perform(get(ACTIVE_API_URL, now, LANGUAGE).header(HttpHeaders.IF_NONE_MATCH, eTag))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.[*].announcementData").value(hasItem(UPDATED_ANNOUNCEMENT_DATA)))
+            .andExpect(jsonPath("$.[*].announcementData").value(not(hasItem(DEFAULT_ANNOUNCEMENT_DATA))));
+
+        deleteAnnouncement(announcement.getId());
+        restAnnouncementMockMvc
+            .perform(get(ACTIVE_API_URL, now, LANGUAGE))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.[*].id").value(not(hasItem(announcement.getId().intValue()))));
+    }
+
+    @Test
+    void currentAnnouncementsAreCachedUntilTheNextBoundary() throws Exception {
+        Announcement announcement = createAnnouncement(now.minusSeconds(60), now.plus(Duration.ofHours(1)));
+
+        restAnnouncementMockMvc
+            .perform(get(CURRENT_API_URL, LANGUAGE))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.[*].id").value(hasItem(announcement.getId().intValue())))
+            .andExpect(header().string(HttpHeaders.CACHE_CONTROL, "max-age=60, public, stale-while-revalidate=30"))
+            .andExpect(header().exists("X-Next-Refresh"));
+
+        // Ending within the max age, the response must be revalidated by then
+        updateAnnouncement(announcement.endDate(Instant.now().plusSeconds(40).truncatedTo(ChronoUnit.MILLIS)));
+        restAnnouncementMockMvc
+            .perform(get(CURRENT_API_URL, LANGUAGE))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.[*].id").value(hasItem(announcement.getId().intValue())))
+            .andExpect(header().string(HttpHeaders.CACHE_CONTROL, matchesPattern("max-age=[1-4]\\d, public, stale-while-revalidate=0")))
+            .andExpect(header().string("X-Next-Refresh", announcement.getEndDate().toString()));
+    }
+
+    @Test
+    void refreshHintFollowsTheIndexedBoundaries() throws Exception {
+        Announcement announcement = createAnnouncement(now.minusSeconds(60), now.plusSeconds(120));
+
+        // The index knows when the announcement ends
+        restAnnouncementMockMvc
+            .perform(get(ACTIVE_API_URL, now, LANGUAGE))
+            .andExpect(status().isOk())
+            .andExpect(header().string("X-Next-Refresh", now.plusSeconds(120).toString()))
+            .andExpect(header().string("X-Next-Refresh-Jitter", "PT30S"));
+
+        updateAnnouncement(announcement.endDate(now.plusSeconds(90)));
+        restAnnouncementMockMvc
+            .perform(get(ACTIVE_API_URL, now, LANGUAGE))
+            .andExpect(status().isOk())
+            .andExpect(header().string("X-Next-Refresh", now.plusSeconds(90).toString()));
+    }
+
+    @Test
+    void streamFollowsTheWrites() throws Exception {
+        MvcResult stream = restAnnouncementMockMvc
+            .perform(get(ENTITY_API_URL + "/get/all/active/stream?selectedLanguage={language}", LANGUAGE))
+            .andExpect(request().asyncStarted())
+            .andReturn();
+        assertThat(stream.getResponse().getContentAsString()).contains("event:snapshot");
+
+        Announcement announcement = createAnnouncement(now.minusSeconds(60), now.plus(Duration.ofHours(1)));
+        await()
+            .atMost(Duration.ofSeconds(10))
+            .untilAsserted(() ->
+                assertThat(stream.getResponse().getContentAsString()).contains("event:diff").contains("\"id\":" + announcement.getId())
+            );
+
+        deleteAnnouncement(announcement.getId());
+        await()
+            .atMost(Duration.ofSeconds(10))
+            .untilAsserted(() -> assertThat(stream.getResponse().getContentAsString()).contains("\"removed\":[" + announcement.getId() + "]"));
+    }
+
+    private Announcement createAnnouncement(Instant startDate, Instant endDate) throws Exception {
+        Announcement announcement = new Announcement()
+            .language(LANGUAGE)
+            .startDate(startDate)
+            .endDate(endDate)
+            .announcementType(AnnouncementType.TEXT)
+            .announcementData(DEFAULT_ANNOUNCEMENT_DATA);
+        Announcement result = om.readValue(
+            restAnnouncementMockMvc
+                .perform(
+                    post(ENTITY_API_URL).with(csrf()).contentType(MediaType.APPLICATION_JSON).content(om.writeValueAsBytes(announcement))
+                )
+                .andExpect(status().isCreated())
+                .andReturn()
+                .getResponse()
+                .getContentAsString(),
+            Announcement.class
+        );
+        created.add(result.getId());
+        return result;
+    }
+
+    private void updateAnnouncement(Announcement announcement) throws Exception {
+        Announcement result = om.readValue(
+            restAnnouncementMockMvc
+                .perform(
+                    put(ENTITY_API_URL_ID, announcement.getId())
+                        .with(csrf())
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(om.writeValueAsBytes(announcement))
+                )
+                .andExpect(status().isOk())
+                .andReturn()
+                .getResponse()
+                .getContentAsString(),
+            Announcement.class
+        );
+        announcement.version(result.getVersion());
+    }
+
+    private void deleteAnnouncement(Long id) throws Exception {
+        restAnnouncementMockMvc.perform(delete(ENTITY_API_URL_ID, id).with(csrf())).andExpect(status().isNoContent());
+    }
+}
@@ -4,6 +4,7 @@ import static com.baulu.announcement.domain.AnnouncementAsserts.*;
 import static com.baulu.announcement.web.rest.TestUtil.createUpdateProxyForBean;
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.hamcrest.Matchers.hasItem;
+import static org.hamcrest.Matchers.not;
 import static org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors.csrf;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
@@ -15,15 +16,20 @@ import com.baulu.announcement.domain.enumeration.Language;
 import com.baulu.announcement.repository.AnnouncementRepository;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import jakarta.persistence.EntityManager;
+import java.time.Duration;
 import java.time.Instant;
 import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.List;
 import java.util.Random;
 import java.util.concurrent.atomic.AtomicLong;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.MediaType;
+import org.springframework.mock.web.MockHttpServletResponse;
 import org.springframework.security.test.context.support.WithMockUser;
 import org.springframework.test.web.servlet.MockMvc;
 import org.springframework.transaction.annotation.Transactional;
@@ -185,6 +191,169 @@ class AnnouncementResourceIT {
             .andExpect(jsonPath("$.announcementData").value(DEFAULT_ANNOUNCEMENT_DATA.toString()));
     }
 
+    @Test
+    @Transactional
+    void getAnnouncementNotModified() throws Exception {
+        // Initialize the database
+        announcementRepository.saveAndFlush(announcement);
+
+        MockHttpServletResponse response = restAnnouncementMockMvc
+            .perform(get(ENTITY_API_URL_ID, announcement.getId()))
+            .andExpect(status().isOk())
+            .andExpect(header().string(HttpHeaders.ETAG, "\"" + announcement.getId() + "-" + announcement.getVersion() + "\""))
+            .andExpect(header().exists(HttpHeaders.LAST_MODIFIED))
+            .andReturn()
+            .getResponse();
+
+        restAnnouncementMockMvc
+            .perform(get(ENTITY_API_URL_ID, announcement.getId()).header(HttpHeaders.IF_NONE_MATCH, response.getHeader(HttpHeaders.ETAG)))
+            .andExpect(status().isNotModified())
+            .andExpect(content().string(""));
+        restAnnouncementMockMvc
+            .perform(
+                get(ENTITY_API_URL_ID, announcement.getId()).header(
+                    HttpHeaders.IF_MODIFIED_SINCE,
+                    response.getHeader(HttpHeaders.LAST_MODIFIED)
+                )
+            )
+            .andExpect(status().isNotModified());
+        restAnnouncementMockMvc
+            .perform(get(ENTITY_API_URL_ID, announcement.getId()).header(HttpHeaders.IF_NONE_MATCH, "\"" + announcement.getId() + "-9\""))
+            .andExpect(status().isOk());
+    }
+
+    @Test
+    @Transactional
+    void getAllAnnouncementsWithFields() throws Exception {
+        // Initialize the database
+        announcementRepository.saveAndFlush(announcement);
+
+        String eTag = restAnnouncementMockMvc
+            .perform(get(ENTITY_API_URL + "?sort=id,desc&fields=language,startDate"))
+            .andExpect(status().isOk())
+            .andExpect(content().contentType(MediaType.APPLICATION_JSON_VALUE))
+            .andExpect(jsonPath("$.[*].id").value(hasItem(announcement.getId().intValue())))
+            .andExpect(jsonPath("$.[*].language").value(hasItem(DEFAULT_LANGUAGE.toString())))
+            .andExpect(jsonPath("$.[*].startDate").value(hasItem(DEFAULT_START_DATE.toString())))
+            .andExpect(jsonPath("$.[0].endDate").doesNotExist())
+            .andExpect(jsonPath("$.[0].announcementData").doesNotExist())
+            .andReturn()
+            .getResponse()
+            .getHeader(HttpHeaders.ETAG);
+
+        restAnnouncementMockMvc
+            .perform(get(ENTITY_API_URL + "?sort=id,desc&fields=language,startDate").header(HttpHeaders.IF_NONE_MATCH, eTag))
+            .andExpect(status().isNotModified());
+        restAnnouncementMockMvc
+            .perform(get(ENTITY_API_URL + "?sort=id,desc").header(HttpHeaders.IF_NONE_MATCH, eTag))
+            .andExpect(status().isOk());
+    }
+
+    @Test
+    @Transactional
+    void getAnnouncementWithFields() throws Exception {
+        // Initialize the database
+        announcementRepository.saveAndFlush(announcement);
+
+        restAnnouncementMockMvc
+            .perform(get(ENTITY_API_URL_ID + "?fields=announcementType", announcement.getId()))
+            .andExpect(status().isOk())
+            .andExpect(content().contentType(MediaType.APPLICATION_JSON_VALUE))
+            .andExpect(jsonPath("$.id").value(announcement.getId().intValue()))
+            .andExpect(jsonPath("$.announcementType").value(DEFAULT_ANNOUNCEMENT_TYPE.toString()))
+            .andExpect(jsonPath("$.language").doesNotExist())
+            .andExpect(jsonPath("$.announcementData").doesNotExist())
+            .andExpect(
+                header().string(HttpHeaders.ETAG, "\"" + announcement.getId() + "-" + announcement.getVersion() + "-id-announcementType\"")
+            );
+
+        restAnnouncementMockMvc.perform(get(ENTITY_API_URL_ID + "?fields=language", Long.MAX_VALUE)).andExpect(status().isNotFound());
+    }
+
+    @Test
+    @Transactional
+    void getAnnouncementsWithInvalidFields() throws Exception {
+        restAnnouncementMockMvc.perform(get(ENTITY_API_URL + "?fields=unknown")).andExpect(status().isBadRequest());
+        restAnnouncementMockMvc.perform(get(ENTITY_API_URL + "?fields=language&cursor=")).andExpect(status().isBadRequest());
+        restAnnouncementMockMvc.perform(get(ENTITY_API_URL_ID + "?fields=unknown", 1L)).andExpect(status().isBadRequest());
+    }
+
+    @Test
+    @Transactional
+    void getAllAnnouncementsNotModified() throws Exception {
+        // Initialize the database
+        announcementRepository.saveAndFlush(announcement);
+
+        String eTag = restAnnouncementMockMvc
+            .perform(get(ENTITY_API_URL + "?sort=id,desc"))
+            .andExpect(status().isOk())
+            .andReturn()
+            .getResponse()
+            .getHeader(HttpHeaders.ETAG);
+
+        restAnnouncementMockMvc
+            .perform(get(ENTITY_API_URL + "?sort=id,desc").header(HttpHeaders.IF_NONE_MATCH, eTag))
+            .andExpect(status().isNotModified())
+            .andExpect(content().string(""));
+
+        announcementRepository.saveAndFlush(createUpdatedEntity(em));
+
+        restAnnouncementMockMvc
+            .perform(get(ENTITY_API_URL + "?sort=id,desc").header(HttpHeaders.IF_NONE_MATCH, eTag))
+            .andExpect(status().isOk());
+    }
+
+    @Test
+    @Transactional
+    void getAllAnnouncementsByCursor() throws Exception {
+        // Initialize the database
+        Announcement first = announcementRepository.saveAndFlush(createEntity(em).startDate(UPDATED_START_DATE));
+        Announcement second = announcementRepository.saveAndFlush(createEntity(em).startDate(DEFAULT_START_DATE));
+        Announcement third = announcementRepository.saveAndFlush(createEntity(em).startDate(null));
+        Announcement fourth = announcementRepository.saveAndFlush(createEntity(em).startDate(DEFAULT_START_DATE));
+        String filter = "id.greaterThanOrEqual=" + first.getId();
+
+        assertThat(walkByCursor(filter + "&sort=id,asc")).containsExactly(first.getId(), second.getId(), third.getId(), fourth.getId());
+        assertThat(walkByCursor(filter + "&sort=startDate,asc")).containsExactly(
+            second.getId(),
+            fourth.getId(),
+            first.getId(),
+            third.getId()
+        );
+        assertThat(walkByCursor(filter + "&sort=startDate,desc")).containsExactly(
+            third.getId(),
+            first.getId(),
+            fourth.getId(),
+            second.getId()
+        );
+    }
+
+    @Test
+    @Transactional
+    void getAllAnnouncementsByInvalidCursor() throws Exception {
+        restAnnouncementMockMvc.perform(get(ENTITY_API_URL + "?cursor=invalid")).andExpect(status().isBadRequest());
+        restAnnouncementMockMvc.perform(get(ENTITY_API_URL + "?cursor=&sort=announcementData,asc")).andExpect(status().isBadRequest());
+    }
+
+    private List<Long> walkByCursor(String query) throws Exception {
+        List<Long> ids = new ArrayList<>();
+        String cursor = "";
+        do {
+            MockHttpServletResponse response = restAnnouncementMockMvc
+                .perform(get(ENTITY_API_URL + "?" + query + "&size=3&cursor=" + cursor))
+                .andExpect(status().isOk())
+                .andExpect(header().doesNotExist(HttpHeaders.ETAG))
+                .andExpect(header().doesNotExist("X-Total-Count"))
+                .andReturn()
+                .getResponse();
+            for (Announcement announcement : om.readValue(response.getContentAsByteArray(), Announcement[].class)) {
+                ids.add(announcement.getId());
+            }
+            cursor = response.getHeader("X-Next-Cursor");
+        } while (cursor != null);
+        return ids;
+    }
+
     @Test
     @Transactional
     void getAnnouncementsByIdFiltering() throws Exception {
@@ -373,6 +542,236 @@ class AnnouncementResourceIT {
             .andExpect(content().string("0"));
     }
 
+    @Test
+    @Transactional
+    void getActiveAnnouncements() throws Exception {
+        // Initialize the database
+        announcement.startDate(UPDATED_START_DATE.minusSeconds(60)).endDate(UPDATED_START_DATE.plusSeconds(60));
+        announcementRepository.saveAndFlush(announcement);
+
+        restAnnouncementMockMvc
+            .perform(get(ENTITY_API_URL + "/get/all/active?date={date}&selectedLanguage={language}", UPDATED_START_DATE, DEFAULT_LANGUAGE))
+            .andExpect(status().isOk())
+            .andExpect(content().contentType(MediaType.APPLICATION_JSON_VALUE))
+            .andExpect(header().exists(HttpHeaders.ETAG))
+            .andExpect(jsonPath("$.[*].id").value(hasItem(announcement.getId().intValue())))
+            .andExpect(jsonPath("$.[*].announcementData").value(hasItem(DEFAULT_ANNOUNCEMENT_DATA)));
+
+        restAnnouncementMockMvc
+            .perform(get(ENTITY_API_URL + "/get/all/active?date={date}&selectedLanguage={language}", UPDATED_START_DATE, UPDATED_LANGUAGE))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.[*].id").value(not(hasItem(announcement.getId().intValue()))));
+    }
+
+    @Test
+    @Transactional
+    void getActiveAnnouncementsWithFields() throws Exception {
+        // Initialize the database
+        announcement.startDate(UPDATED_START_DATE.minusSeconds(60)).endDate(UPDATED_START_DATE.plusSeconds(60));
+        announcementRepository.saveAndFlush(announcement);
+
+        restAnnouncementMockMvc
+            .perform(
+                get(
+                    ENTITY_API_URL + "/get/all/active?date={date}&selectedLanguage={language}&fields=startDate,endDate",
+                    UPDATED_START_DATE,
+                    DEFAULT_LANGUAGE
+                )
+            )
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.[*].id").value(hasItem(announcement.getId().intValue())))
+            .andExpect(jsonPath("$.[0].startDate").exists())
+            .andExpect(jsonPath("$.[0].announcementData").doesNotExist());
+
+        restAnnouncementMockMvc
+            .perform(
+                get(
+                    ENTITY_API_URL + "/get/all/active?date={date}&selectedLanguage={language}&fields=unknown",
+                    UPDATED_START_DATE,
+                    DEFAULT_LANGUAGE
+                )
+            )
+            .andExpect(status().isBadRequest());
+    }
+
+    @Test
+    @Transactional
+    void getActiveAnnouncementsCacheHeaders() throws Exception {
+        // Initialize the database
+        announcement.startDate(Instant.now().minusSeconds(60)).endDate(Instant.now().plusSeconds(3600));
+        announcementRepository.saveAndFlush(announcement);
+
+        restAnnouncementMockMvc
+            .perform(get(ENTITY_API_URL + "/get/all/active?date={date}&selectedLanguage={language}", UPDATED_START_DATE, DEFAULT_LANGUAGE))
+            .andExpect(status().isOk())
+            .andExpect(header().string(HttpHeaders.CACHE_CONTROL, "max-age=60, public, stale-while-revalidate=30"))
+            .andExpect(header().exists(HttpHeaders.EXPIRES));
+
+        // Without the active announcement index the next boundary is unknown
+        restAnnouncementMockMvc
+            .perform(get(ENTITY_API_URL + "/get/all/active?selectedLanguage={language}", DEFAULT_LANGUAGE))
+            .andExpect(status().isOk())
+            .andExpect(header().string(HttpHeaders.CACHE_CONTROL, "no-cache, public"))
+            .andExpect(jsonPath("$.[*].id").value(hasItem(announcement.getId().intValue())));
+    }
+
+    @Test
+    @Transactional
+    void getActiveAnnouncementsWithLanguageFallback() throws Exception {
+        // Initialize the database
+        announcement.startDate(UPDATED_START_DATE.minusSeconds(60)).endDate(UPDATED_START_DATE.plusSeconds(60));
+        announcementRepository.saveAndFlush(announcement);
+        Announcement translated = createEntity(em)
+            .language(UPDATED_LANGUAGE)
+            .startDate(UPDATED_START_DATE.minusSeconds(60))
+            .endDate(UPDATED_START_DATE.plusSeconds(60));
+        announcementRepository.saveAndFlush(translated);
+
+        restAnnouncementMockMvc
+            .perform(
+                get(
+                    ENTITY_API_URL + "/get/all/active?date={date}&selectedLanguage={first},{second}",
+                    UPDATED_START_DATE,
+                    UPDATED_LANGUAGE,
+                    DEFAULT_LANGUAGE
+                )
+            )
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.[*].id").value(hasItem(translated.getId().intValue())))
+            .andExpect(jsonPath("$.[*].id").value(not(hasItem(announcement.getId().intValue()))));
+
+        restAnnouncementMockMvc
+            .perform(
+                get(
+                    ENTITY_API_URL + "/get/all/active?date={date}&selectedLanguage={first},{second}&fallback=UNION",
+                    UPDATED_START_DATE,
+                    UPDATED_LANGUAGE,
+                    DEFAULT_LANGUAGE
+                )
+            )
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.[*].id").value(hasItem(translated.getId().intValue())))
+            .andExpect(jsonPath("$.[*].id").value(hasItem(announcement.getId().intValue())));
+    }
+
+    @Test
+    @Transactional
+    void getActiveAnnouncementsWithLookahead() throws Exception {
+        // Initialize the database
+        announcement.startDate(UPDATED_START_DATE.plusSeconds(60)).endDate(UPDATED_START_DATE.plusSeconds(120));
+        announcementRepository.saveAndFlush(announcement);
+
+        restAnnouncementMockMvc
+            .perform(get(ENTITY_API_URL + "/get/all/active?date={date}&selectedLanguage={language}", UPDATED_START_DATE, DEFAULT_LANGUAGE))
+            .andExpect(status().isOk())
+            .andExpect(header().doesNotExist("X-Next-Refresh"))
+            .andExpect(jsonPath("$.[*].id").value(not(hasItem(announcement.getId().intValue()))));
+
+        restAnnouncementMockMvc
+            .perform(
+                get(
+                    ENTITY_API_URL + "/get/all/active?date={date}&selectedLanguage={language}&lookahead=PT5M",
+                    UPDATED_START_DATE,
+                    DEFAULT_LANGUAGE
+                )
+            )
+            .andExpect(status().isOk())
+            .andExpect(header().string("X-Next-Refresh", UPDATED_START_DATE.plus(Duration.ofMinutes(5)).toString()))
+            .andExpect(header().string("X-Next-Refresh-Jitter", "PT30S"))
+            .andExpect(jsonPath("$.[*].id").value(hasItem(announcement.getId().intValue())));
+
+        restAnnouncementMockMvc
+            .perform(
+                get(
+                    ENTITY_API_URL + "/get/all/active?date={date}&selectedLanguage={language}&lookahead=P1D",
+                    UPDATED_START_DATE,
+                    DEFAULT_LANGUAGE
+                )
+            )
+            .andExpect(status().isBadRequest());
+    }
+
+    @Test
+    @Transactional
+    void getActiveAnnouncementsNotModified() throws Exception {
+        // Initialize the database
+        announcement.startDate(UPDATED_START_DATE.minusSeconds(60)).endDate(UPDATED_START_DATE.plusSeconds(60));
+        announcementRepository.saveAndFlush(announcement);
+
+        String eTag = restAnnouncementMockMvc
+            .perform(get(ENTITY_API_URL + "/get/all/active?date={date}&selectedLanguage={language}", UPDATED_START_DATE, DEFAULT_LANGUAGE))
+            .andExpect(status().isOk())
+            .andReturn()
+            .getResponse()
+            .getHeader(HttpHeaders.ETAG);
+
+        restAnnouncementMockMvc
+            .perform(
+                get(ENTITY_API_URL + "/get/all/active?date={date}&selectedLanguage={language}", UPDATED_START_DATE, DEFAULT_LANGUAGE).header(
+                    HttpHeaders.IF_NONE_MATCH,
+                    eTag
+                )
+            )
+            .andExpect(status().isNotModified())
+            .andExpect(content().string(""));
+    }
+
+    @Test
+    @Transactional
+    void streamActiveAnnouncementsStartsWithSnapshot() throws Exception {
+        // Initialize the database
+        announcement.startDate(Instant.now().minusSeconds(60)).endDate(Instant.now().plusSeconds(60));
+        announcementRepository.saveAndFlush(announcement);
+
+        String body = restAnnouncementMockMvc
+            .perform(get(ENTITY_API_URL + "/get/all/active/stream?selectedLanguage={language}", DEFAULT_LANGUAGE))
+            .andExpect(request().asyncStarted())
+            .andReturn()
+            .getResponse()
+            .getContentAsString();
+
+        assertThat(body).contains("event:snapshot").contains("\"id\":" + announcement.getId());
+    }
+
+    @Test
+    @Transactional
+    void getAnnouncementSchedule() throws Exception {
+        // Initialize the database
+        announcement.startDate(UPDATED_START_DATE.minusSeconds(60)).endDate(UPDATED_START_DATE.plusSeconds(60));
+        announcementRepository.saveAndFlush(announcement);
+
+        restAnnouncementMockMvc
+            .perform(
+                get(
+                    ENTITY_API_URL + "/get/all/schedule?selectedLanguage={language}&from={from}&to={to}&step=PT1M",
+                    DEFAULT_LANGUAGE,
+                    UPDATED_START_DATE.minusSeconds(120),
+                    UPDATED_START_DATE.plusSeconds(120)
+                )
+            )
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.announcements.[*].id").value(hasItem(announcement.getId().intValue())))
+            .andExpect(jsonPath("$.entries.length()").value(5))
+            .andExpect(jsonPath("$.entries[1].announcementIds").isEmpty())
+            .andExpect(jsonPath("$.entries[2].announcementIds[0]").value(announcement.getId().intValue()))
+            .andExpect(jsonPath("$.entries[3].announcementIds").isEmpty());
+    }
+
+    @Test
+    @Transactional
+    void getAnnouncementScheduleWithTooManyInstants() throws Exception {
+        restAnnouncementMockMvc
+            .perform(
+                get(
+                    ENTITY_API_URL + "/get/all/schedule?selectedLanguage={language}&from={from}&to={to}&step=PT1S",
+                    DEFAULT_LANGUAGE,
+                    UPDATED_START_DATE,
+                    UPDATED_START_DATE.plusSeconds(1_000_000)
+                )
+            )
+            .andExpect(status().isBadRequest());
+    }
+
     @Test
     @Transactional
     void getNonExistingAnnouncement() throws Exception {
@@ -413,6 +812,26 @@ class AnnouncementResourceIT {
         assertPersistedAnnouncementToMatchAllProperties(updatedAnnouncement);
     }
 
+    @Test
+    @Transactional
+    void putAnnouncementWithStaleVersion() throws Exception {
+        // Initialize the database
+        announcementRepository.saveAndFlush(announcement);
+
+        Announcement updatedAnnouncement = announcementRepository.findById(announcement.getId()).orElseThrow();
+        em.detach(updatedAnnouncement);
+        updatedAnnouncement.announcementData(UPDATED_ANNOUNCEMENT_DATA).version(updatedAnnouncement.getVersion() - 1);
+
+        restAnnouncementMockMvc
+            .perform(
+                put(ENTITY_API_URL_ID, updatedAnnouncement.getId())
+                    .with(csrf())
+                    .contentType(MediaType.APPLICATION_JSON)
+                    .content(om.writeValueAsBytes(updatedAnnouncement))
+            )
+            .andExpect(status().isConflict());
+    }
+
     @Test
     @Transactional
     void putNonExistingAnnouncement() throws Exception {
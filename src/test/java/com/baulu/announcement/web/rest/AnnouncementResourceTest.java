@@ -0,0 +1,130 @@
+package com.baulu.announcement.web.rest;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import com.baulu.announcement.config.ApplicationProperties;
+import com.baulu.announcement.domain.enumeration.Language;
+import com.baulu.announcement.service.dto.ActiveAnnouncementsDTO;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.time.format.DateTimeFormatter;
+import java.util.List;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.web.context.request.ServletWebRequest;
+
+class AnnouncementResourceTest {
+
+    private static final Instant NOW = Instant.parse("2024-01-01T00:00:00Z");
+
+    private final ApplicationProperties.ActiveResponse activeResponse = new ApplicationProperties().getActiveResponse();
+
+    @Test
+    void requestedDateIsCachedUpToTheConfiguredLifetime() {
+        HttpHeaders headers = AnnouncementResource.cacheHeaders(false, NOW, null, segment(NOW.plusSeconds(5)), activeResponse);
+
+        assertThat(headers.getCacheControl()).isEqualTo("max-age=60, public, stale-while-revalidate=30");
+        assertThat(headers.getExpires()).isEqualTo(NOW.plusSeconds(60).toEpochMilli());
+    }
+
+    @Test
+    void currentDateIsCachedUntilTheNextBoundary() {
+        HttpHeaders headers = AnnouncementResource.cacheHeaders(true, NOW, null, segment(NOW.plusMillis(45_900)), activeResponse);
+
+        assertThat(headers.getCacheControl()).isEqualTo("max-age=45, public, stale-while-revalidate=0");
+        assertThat(headers.getExpires()).isEqualTo(NOW.plusSeconds(45).toEpochMilli());
+    }
+
+    @Test
+    void staleResponsesAreNotServedPastTheNextBoundary() {
+        HttpHeaders headers = AnnouncementResource.cacheHeaders(true, NOW, null, segment(NOW.plusSeconds(75)), activeResponse);
+
+        assertThat(headers.getCacheControl()).isEqualTo("max-age=60, public, stale-while-revalidate=15");
+    }
+
+    @Test
+    void currentDateWithoutBoundaryIsCachedUpToTheConfiguredLifetime() {
+        HttpHeaders headers = AnnouncementResource.cacheHeaders(true, NOW, null, segment(null), activeResponse);
+
+        assertThat(headers.getCacheControl()).isEqualTo("max-age=60, public, stale-while-revalidate=30");
+    }
+
+    @Test
+    void currentDateIsCachedNoLongerThanTheLookahead() {
+        HttpHeaders headers = AnnouncementResource.cacheHeaders(true, NOW, Duration.ofSeconds(20), segment(null), activeResponse);
+
+        assertThat(headers.getCacheControl()).isEqualTo("max-age=20, public, stale-while-revalidate=0");
+    }
+
+    @Test
+    void unknownBoundaryIsRevalidatedEveryTime() {
+        HttpHeaders headers = AnnouncementResource.cacheHeaders(true, NOW, null, segment(NOW), activeResponse);
+
+        assertThat(headers.getCacheControl()).isEqualTo("no-cache, public");
+        assertThat(headers.getExpires()).isEqualTo(NOW.toEpochMilli());
+    }
+
+    @Test
+    void nextRefreshIsTheNextBoundaryWithoutJitter() {
+        assertThat(AnnouncementResource.nextRefresh(NOW, null, segment(NOW.plusSeconds(75)), activeResponse)).isEqualTo(NOW.plusSeconds(75));
+    }
+
+    @Test
+    void nextRefreshIsCappedByTheConfiguredInterval() {
+        assertThat(AnnouncementResource.nextRefresh(NOW, null, segment(null), activeResponse)).isEqualTo(NOW.plus(Duration.ofMinutes(15)));
+    }
+
+    @Test
+    void nextRefreshIsTheEndOfTheLookahead() {
+        assertThat(AnnouncementResource.nextRefresh(NOW, Duration.ofMinutes(5), segment(NOW.plusSeconds(75)), activeResponse)).isEqualTo(
+            NOW.plus(Duration.ofMinutes(5))
+        );
+    }
+
+    @Test
+    void nextRefreshIsUnknownForAnnouncementsReadFromTheDatabase() {
+        ActiveAnnouncementsDTO unversioned = new ActiveAnnouncementsDTO(Language.ENGLISH, NOW, NOW, List.of(), ActiveAnnouncementsDTO.UNVERSIONED);
+
+        assertThat(AnnouncementResource.nextRefresh(NOW, null, unversioned, activeResponse)).isNull();
+    }
+
+    @Test
+    void ifNoneMatchIsEvaluatedWithoutWritingTheETag() {
+        MockHttpServletRequest request = new MockHttpServletRequest();
+        request.addHeader(HttpHeaders.IF_NONE_MATCH, "\"1-0\", W/\"1-1\"");
+        MockHttpServletResponse response = new MockHttpServletResponse();
+
+        assertThat(AnnouncementResource.isNotModified(new ServletWebRequest(request, response), "\"1-1\"", NOW)).isTrue();
+        assertThat(response.getHeaderNames()).isEmpty();
+        assertThat(AnnouncementResource.isNotModified(request(HttpHeaders.IF_NONE_MATCH, "*"), "\"1-1\"", null)).isTrue();
+        assertThat(AnnouncementResource.isNotModified(request(HttpHeaders.IF_NONE_MATCH, "\"1-0\""), "\"1-1\"", NOW)).isFalse();
+    }
+
+    @Test
+    void ifModifiedSinceIsOnlyEvaluatedWithoutIfNoneMatch() {
+        String since = DateTimeFormatter.RFC_1123_DATE_TIME.withZone(ZoneOffset.UTC).format(NOW);
+
+        assertThat(AnnouncementResource.isNotModified(request(HttpHeaders.IF_MODIFIED_SINCE, since), "\"1-1\"", NOW.plusMillis(999))).isTrue();
+        assertThat(AnnouncementResource.isNotModified(request(HttpHeaders.IF_MODIFIED_SINCE, since), "\"1-1\"", NOW.plusSeconds(1))).isFalse();
+        assertThat(AnnouncementResource.isNotModified(request(HttpHeaders.IF_MODIFIED_SINCE, since), "\"1-1\"", null)).isFalse();
+        assertThat(AnnouncementResource.isNotModified(new ServletWebRequest(new MockHttpServletRequest()), "\"1-1\"", NOW)).isFalse();
+
+        MockHttpServletRequest both = new MockHttpServletRequest();
+        both.addHeader(HttpHeaders.IF_NONE_MATCH, "\"1-0\"");
+        both.addHeader(HttpHeaders.IF_MODIFIED_SINCE, since);
+        assertThat(AnnouncementResource.isNotModified(new ServletWebRequest(both), "\"1-1\"", NOW)).isFalse();
+    }
+
+    private static ServletWebRequest request(String header, String value) {
+        MockHttpServletRequest request = new MockHttpServletRequest();
+        request.addHeader(header, value);
+        return new ServletWebRequest(request, new MockHttpServletResponse());
+    }
+
+        private static ActiveAnnouncementsDTO segment(Instant validUntil) {
+        return new ActiveAnnouncementsDTO(Language.ENGLISH, NOW.minusSeconds(10), validUntil, List.of(), 1L);
+    }
+}
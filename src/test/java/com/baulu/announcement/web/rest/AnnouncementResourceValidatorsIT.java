@@ -0,0 +1,120 @@
+package com.baulu.announcement.web.rest;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.doAnswer;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+import com.baulu.announcement.IntegrationTest;
+import com.baulu.announcement.domain.Announcement;
+import com.baulu.announcement.repository.AnnouncementRepository;
+import com.baulu.announcement.service.AnnouncementQueryService;
+import com.baulu.announcement.service.AnnouncementService;
+import jakarta.persistence.EntityManager;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.stubbing.Answer;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.mock.mockito.SpyBean;
+import org.springframework.http.HttpHeaders;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.security.test.context.support.WithMockUser;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.transaction.annotation.Transactional;
+
+/**
+ * Integration tests for the validators of the {@link AnnouncementResource} REST controller, when an announcement is written
+ * between the read of its validators and the read of its representation.
+ */
+@IntegrationTest
+@AutoConfigureMockMvc
+@WithMockUser
+class AnnouncementResourceValidatorsIT {
+
+    private static final String UPDATED_ANNOUNCEMENT_DATA = "BBBBBBBBBB";
+
+    private static final String ENTITY_API_URL = "/api/announcements";
+    private static final String ENTITY_API_URL_ID = ENTITY_API_URL + "/{id}";
+
+    @SpyBean
+    private AnnouncementQueryService announcementQueryService;
+
+    @SpyBean
+    private AnnouncementService announcementService;
+
+    @Autowired
+    private AnnouncementRepository announcementRepository;
+
+    @Autowired
+    private EntityManager em;
+
+    @Autowired
+    private MockMvc restAnnouncementMockMvc;
+
+    private Announcement announcement;
+
+    @BeforeEach
+    public void initTest() {
+        announcement = AnnouncementResourceIT.createEntity(em);
+    }
+
+    @Test
+    @Transactional
+    void getAllAnnouncementsUpdatedBetweenTheReads() throws Exception {
+        // Initialize the database
+        announcementRepository.saveAndFlush(announcement);
+        doAnswer(updateThenRead()).doCallRealMethod().when(announcementQueryService).findByValidators(any());
+
+        MockHttpServletResponse response = restAnnouncementMockMvc
+            .perform(get(ENTITY_API_URL + "?id.equals={id}", announcement.getId()))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.[0].announcementData").value(UPDATED_ANNOUNCEMENT_DATA))
+            .andReturn()
+            .getResponse();
+
+        // A single ETag, the one of the announcement returned
+        assertThat(response.getHeaders(HttpHeaders.ETAG)).hasSize(1);
+        restAnnouncementMockMvc
+            .perform(
+                get(ENTITY_API_URL + "?id.equals={id}", announcement.getId()).header(
+                    HttpHeaders.IF_NONE_MATCH,
+                    response.getHeader(HttpHeaders.ETAG)
+                )
+            )
+            .andExpect(status().isNotModified());
+    }
+
+    @Test
+    @Transactional
+    void getAnnouncementUpdatedBetweenTheReads() throws Exception {
+        // Initialize the database
+        announcementRepository.saveAndFlush(announcement);
+        doAnswer(updateThenRead()).doCallRealMethod().when(announcementService).findOne(anyLong());
+
+        MockHttpServletResponse response = restAnnouncementMockMvc
+            .perform(get(ENTITY_API_URL_ID, announcement.getId()))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.announcementData").value(UPDATED_ANNOUNCEMENT_DATA))
+            .andReturn()
+            .getResponse();
+
+        String eTag = "\"" + announcement.getId() + "-" + announcement.getVersion() + "\"";
+        assertThat(response.getHeaders(HttpHeaders.ETAG)).containsExactly(eTag);
+        restAnnouncementMockMvc
+            .perform(get(ENTITY_API_URL_ID, announcement.getId()).header(HttpHeaders.IF_NONE_MATCH, eTag))
+            .andExpect(status().isNotModified());
+    }
+
+    /**
+     * Updates the announcement after its validators were read, then reads it.
+     */
+    private Answer<Object> updateThenRead() {
+        return invocation -> {
+            announcementRepository.saveAndFlush(announcement.announcementData(UPDATED_ANNOUNCEMENT_DATA));
+            return invocation.callRealMethod();
+        };
+    }
+}